@@ -0,0 +1,26 @@
+package com.example.minirpc.core.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记服务接口上的幂等只读方法，客户端代理按方法和参数缓存调用结果，缓存命中时不发起远程调用
+ *
+ * <p>缓存的结果对象会被多次调用共享，调用方不应修改；返回null或调用失败时不缓存。
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RpcCacheable {
+
+    /**
+     * 结果写入缓存后的有效期，单位毫秒
+     */
+    long expireAfterWrite() default 60000;
+
+    /**
+     * 该方法最多缓存的结果数，超出后按W-TinyLFU策略淘汰
+     */
+    long maximumSize() default 10000;
+}
@@ -18,7 +18,18 @@ public @interface RpcReference {
     String version() default "";
 
     /**
-     * 超时时间，单位毫秒
+     * 超时时间，单位毫秒，0表示使用客户端默认超时时间（mini.rpc.client.timeout）
      */
-    long timeout() default 5000;
+    long timeout() default 0;
+
+    /**
+     * 请求使用的序列化方式名称，如 json、kryo，为空时使用 mini.rpc.serializer 配置
+     */
+    String serializer() default "";
+
+    /**
+     * 是否合并正在进行的相同调用：同一方法、相同参数（按内容比较）的调用正在进行时，后来的调用不再发送请求，
+     * 而是共享它的响应。适合热点数据的只读查询，有副作用的方法不要开启
+     */
+    boolean coalesce() default false;
 }
@@ -21,4 +21,24 @@ public @interface RpcService {
      * 服务版本号
      */
     String version() default "";
+
+    /**
+     * 响应使用的序列化方式名称，如 json、kryo，为空时沿用请求的序列化方式
+     */
+    String serializer() default "";
+
+    /**
+     * 服务每秒允许的请求数，0表示不限流；可以被 mini.rpc.server.rate-limits 配置覆盖
+     */
+    double rateLimit() default 0;
+
+    /**
+     * 限流允许的最大突发请求数，0表示等于每秒请求数
+     */
+    int rateLimitBurst() default 0;
+
+    /**
+     * 是否按调用方（mini.rpc.client.application）分别限流
+     */
+    boolean rateLimitPerCaller() default false;
 }
@@ -0,0 +1,72 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcResponse;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 相同调用的合并器（single-flight）：同一方法、相同参数的调用正在进行时，后来的调用共享它的响应，不再发送新的请求
+ */
+public class CallCoalescer {
+
+    // 正在进行的调用
+    private final Map<CallKey, CompletableFuture<RpcResponse<?>>> inflight = new ConcurrentHashMap<>();
+
+    // 被合并（没有发送请求）的调用次数
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * 执行调用，已有相同的调用正在进行时直接返回它的future
+     *
+     * @param method 方法名称，格式为 接口名#方法签名
+     * @param args 方法参数
+     * @param call 实际发送请求的操作
+     * @return 在收到响应时完成的future
+     */
+    public CompletableFuture<RpcResponse<?>> execute(String method, Object[] args,
+                                                     Supplier<CompletableFuture<RpcResponse<?>>> call) {
+        CallKey key = new CallKey(method, args);
+        CompletableFuture<RpcResponse<?>> future = new CompletableFuture<>();
+        CompletableFuture<RpcResponse<?>> existing = inflight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+        CompletableFuture<RpcResponse<?>> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            inflight.remove(key, future);
+            future.completeExceptionally(e);
+            return future;
+        }
+        // 先移除再完成，完成之后到达的调用会发送新的请求，不会拿到已过时的响应
+        response.whenComplete((value, error) -> {
+            inflight.remove(key, future);
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(value);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 被合并的调用次数
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 正在进行的不同调用数
+     */
+    public int getInflightCount() {
+        return inflight.size();
+    }
+}
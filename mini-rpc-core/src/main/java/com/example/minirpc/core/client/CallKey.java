@@ -0,0 +1,42 @@
+package com.example.minirpc.core.client;
+
+import java.util.Arrays;
+
+/**
+ * 由方法名称和参数组成的调用键，参数按数组内容深度比较
+ */
+final class CallKey {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final String method;
+    private final Object[] args;
+    private final int hash;
+
+    /**
+     * @param method 方法名称，格式为 接口名#方法签名
+     * @param args 方法参数，会被复制，调用方之后修改参数数组不影响键
+     */
+    CallKey(String method, Object[] args) {
+        this.method = method;
+        this.args = args == null ? EMPTY : args.clone();
+        this.hash = 31 * method.hashCode() + Arrays.deepHashCode(this.args);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CallKey)) {
+            return false;
+        }
+        CallKey other = (CallKey) o;
+        return hash == other.hash && method.equals(other.method) && Arrays.deepEquals(args, other.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
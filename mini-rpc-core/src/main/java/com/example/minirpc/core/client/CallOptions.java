@@ -0,0 +1,54 @@
+package com.example.minirpc.core.client;
+
+import java.lang.reflect.Type;
+
+/**
+ * 单次RPC调用的选项，由代理根据@RpcReference配置创建，不可变，可在多次调用间共享
+ */
+public class CallOptions {
+
+    /**
+     * 使用客户端默认配置的调用选项
+     */
+    public static final CallOptions DEFAULT = new CallOptions(0, (byte) 0, null);
+
+    /**
+     * 超时时间，单位毫秒，0表示使用客户端默认超时时间
+     */
+    private final long timeout;
+
+    /**
+     * 请求使用的序列化方式标识，0表示使用客户端默认序列化方式
+     */
+    private final byte serializerType;
+
+    /**
+     * 调用方法的返回值声明类型，异步方法为CompletableFuture的类型参数，null表示未知
+     */
+    private final Type returnType;
+
+    public CallOptions(long timeout, byte serializerType, Type returnType) {
+        this.timeout = timeout;
+        this.serializerType = serializerType;
+        this.returnType = returnType;
+    }
+
+    /**
+     * 复制当前选项并指定返回值类型
+     */
+    public CallOptions withReturnType(Type returnType) {
+        return new CallOptions(timeout, serializerType, returnType);
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public byte getSerializerType() {
+        return serializerType;
+    }
+
+    public Type getReturnType() {
+        return returnType;
+    }
+}
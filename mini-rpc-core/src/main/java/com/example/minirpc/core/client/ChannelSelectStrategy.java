@@ -0,0 +1,17 @@
+package com.example.minirpc.core.client;
+
+/**
+ * 连接池内的连接选择策略
+ */
+public enum ChannelSelectStrategy {
+
+    /**
+     * 轮询
+     */
+    ROUND_ROBIN,
+
+    /**
+     * 选择未完成请求数最少的连接
+     */
+    LEAST_PENDING
+}
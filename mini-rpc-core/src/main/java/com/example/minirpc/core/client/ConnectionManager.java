@@ -0,0 +1,273 @@
+package com.example.minirpc.core.client;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.util.AttributeKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 客户端连接管理器，为每个服务提供方地址维护固定数量的连接
+ *
+ * <p>连接按需异步建立，同一槽位上正在进行的连接会被并发调用方共享，不会重复建立；
+ * 连接关闭后自动从槽位中移除，下次选中时重新连接。
+ *
+ * <p>路由快照引用的连接池按引用计数管理，实例从所有服务的路由中移除后连接池随之释放：
+ * 空闲的连接立即关闭，还有未完成请求的连接在请求全部完成后关闭。
+ */
+public class ConnectionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionManager.class);
+
+    /**
+     * 连接上未完成的请求数，用于最少未完成请求选择策略
+     */
+    private static final AttributeKey<AtomicInteger> PENDING = AttributeKey.valueOf("mini.rpc.pending");
+
+    /**
+     * 所属连接池已释放，连接在未完成的请求全部完成后关闭
+     */
+    private static final AttributeKey<Boolean> RETIRED = AttributeKey.valueOf("mini.rpc.retired");
+
+    private final Bootstrap bootstrap;
+    private final int connectionsPerAddress;
+    private final ChannelSelectStrategy strategy;
+
+    // 地址(host:port) -> 连接池
+    private final Map<String, ChannelPool> channelMap = new ConcurrentHashMap<>();
+
+    public ConnectionManager(Bootstrap bootstrap, int connectionsPerAddress, ChannelSelectStrategy strategy) {
+        this.bootstrap = bootstrap;
+        this.connectionsPerAddress = Math.max(1, connectionsPerAddress);
+        this.strategy = strategy;
+    }
+
+    /**
+     * 查找指定地址已被路由引用的连接池，不会创建新的连接池
+     *
+     * @return 连接池，地址不被任何路由引用时返回null
+     */
+    ChannelPool find(InetSocketAddress address) {
+        return channelMap.get(address.getHostString() + ":" + address.getPort());
+    }
+
+    /**
+     * 获取指定地址的连接池并增加一次路由引用，与 {@link #release(ChannelPool)} 成对调用
+     */
+    ChannelPool retain(InetSocketAddress address) {
+        String key = address.getHostString() + ":" + address.getPort();
+        return channelMap.compute(key, (k, pool) -> {
+            ChannelPool result = pool != null ? pool : new ChannelPool(address, k);
+            result.references++;
+            return result;
+        });
+    }
+
+    /**
+     * 减少一次路由引用，不再被任何路由引用的连接池从管理器中移除并关闭其连接
+     */
+    void release(ChannelPool pool) {
+        channelMap.computeIfPresent(pool.key, (k, current) -> {
+            if (current != pool || --current.references > 0) {
+                return current;
+            }
+            logger.info("释放连接池: {}", k);
+            current.retire();
+            return null;
+        });
+    }
+
+    /**
+     * 从连接池中获取连接，不会阻塞调用线程
+     *
+     * @return 连接建立成功时完成的future
+     */
+    CompletableFuture<Channel> acquire(ChannelPool pool) {
+        CompletableFuture<Channel> result = new CompletableFuture<>();
+        if (pool == null) {
+            result.completeExceptionally(new IllegalStateException("实例不在当前路由中"));
+            return result;
+        }
+        String key = pool.key;
+        ChannelFuture future = pool.select();
+        while (future == null) {
+            // 持有旧路由快照的调用方，改用该地址当前被路由引用的连接池；地址已下线时调用失败，不重新创建连接池
+            pool = channelMap.get(key);
+            if (pool == null) {
+                result.completeExceptionally(new IllegalStateException("连接池已释放: " + key));
+                return result;
+            }
+            future = pool.select();
+        }
+
+        if (future.isDone()) {
+            complete(result, future, key);
+        } else {
+            future.addListener((ChannelFutureListener) f -> complete(result, f, key));
+        }
+        return result;
+    }
+
+    private void complete(CompletableFuture<Channel> result, ChannelFuture future, String key) {
+        if (future.isSuccess()) {
+            result.complete(future.channel());
+        } else {
+            result.completeExceptionally(new IllegalStateException("连接服务器失败: " + key, future.cause()));
+        }
+    }
+
+    /**
+     * 连接上新增一个未完成的请求
+     *
+     * @return 新增后连接上未完成的请求数
+     */
+    public static int incrementPending(Channel channel) {
+        return channel.attr(PENDING).get().incrementAndGet();
+    }
+
+    /**
+     * 连接上完成一个请求
+     */
+    public static void decrementPending(Channel channel) {
+        if (channel.attr(PENDING).get().decrementAndGet() == 0 && channel.hasAttr(RETIRED)) {
+            channel.close();
+        }
+    }
+
+    /**
+     * 关闭所有连接
+     */
+    public void close() {
+        channelMap.values().forEach(ChannelPool::close);
+        channelMap.clear();
+    }
+
+    /**
+     * 单个地址的连接池
+     */
+    class ChannelPool {
+        private final InetSocketAddress address;
+        private final String key;
+        private final AtomicReferenceArray<ChannelFuture> slots;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        // 引用该连接池的路由快照数，只在channelMap的compute中访问
+        private int references;
+
+        // 已从管理器中移除
+        private volatile boolean retired;
+
+        ChannelPool(InetSocketAddress address, String key) {
+            this.address = address;
+            this.key = key;
+            this.slots = new AtomicReferenceArray<>(connectionsPerAddress);
+        }
+
+        /**
+         * 选择一个连接
+         *
+         * @return 连接的future，连接池已释放时返回null
+         */
+        ChannelFuture select() {
+            if (retired) {
+                return null;
+            }
+            if (strategy == ChannelSelectStrategy.LEAST_PENDING) {
+                return selectLeastPending();
+            }
+            int index = (counter.getAndIncrement() & Integer.MAX_VALUE) % slots.length();
+            return getOrConnect(index);
+        }
+
+        /**
+         * 优先补齐空槽位，连接池满后选择未完成请求最少的连接
+         */
+        private ChannelFuture selectLeastPending() {
+            ChannelFuture best = null;
+            int bestPending = Integer.MAX_VALUE;
+            for (int i = 0; i < slots.length(); i++) {
+                ChannelFuture future = slots.get(i);
+                if (future == null || isDead(future)) {
+                    return getOrConnect(i);
+                }
+                if (!future.isDone()) {
+                    continue;
+                }
+                int pending = future.channel().attr(PENDING).get().get();
+                if (pending < bestPending) {
+                    best = future;
+                    bestPending = pending;
+                }
+            }
+            // 所有槽位都在连接中时，共享第一个连接的结果
+            return best != null ? best : getOrConnect(0);
+        }
+
+        /**
+         * 获取槽位上的连接，槽位为空或连接已失效时发起新连接；并发调用方共享同一个正在进行的连接
+         */
+        private ChannelFuture getOrConnect(int index) {
+            ChannelFuture current = slots.get(index);
+            if (current != null && !isDead(current)) {
+                return current;
+            }
+            synchronized (this) {
+                // 与retire互斥，已释放的连接池不再建立新连接
+                if (retired) {
+                    return null;
+                }
+                current = slots.get(index);
+                if (current != null && !isDead(current)) {
+                    return current;
+                }
+                logger.info("建立连接: {}, 槽位: {}", key, index);
+                ChannelFuture future = bootstrap.connect(address);
+                future.channel().attr(PENDING).set(new AtomicInteger());
+                slots.set(index, future);
+                // 连接关闭后清理槽位
+                future.channel().closeFuture().addListener(f -> slots.compareAndSet(index, future, null));
+                return future;
+            }
+        }
+
+        private boolean isDead(ChannelFuture future) {
+            return future.isDone() && (!future.isSuccess() || !future.channel().isActive());
+        }
+
+        /**
+         * 从管理器中移除后关闭连接，空闲的连接立即关闭，其余的在未完成的请求全部完成后关闭
+         */
+        synchronized void retire() {
+            retired = true;
+            for (int i = 0; i < slots.length(); i++) {
+                ChannelFuture future = slots.getAndSet(i, null);
+                if (future == null) {
+                    continue;
+                }
+                Channel channel = future.channel();
+                channel.attr(RETIRED).set(Boolean.TRUE);
+                if (!future.isDone() || channel.attr(PENDING).get().get() == 0) {
+                    channel.close();
+                }
+            }
+        }
+
+        void close() {
+            for (int i = 0; i < slots.length(); i++) {
+                ChannelFuture future = slots.getAndSet(i, null);
+                if (future != null) {
+                    future.channel().close();
+                }
+            }
+        }
+    }
+}
@@ -1,27 +1,48 @@
 package com.example.minirpc.core.client;
 
+import com.example.minirpc.core.codec.FlushMetrics;
+import com.example.minirpc.core.codec.FlushMetricsHandler;
+import com.example.minirpc.core.codec.RpcMessageDecoder;
+import com.example.minirpc.core.codec.RpcMessageEncoder;
+import com.example.minirpc.core.compress.Compressor;
+import com.example.minirpc.core.compress.CompressorRegistry;
+import com.example.minirpc.core.loadbalance.LoadBalancer;
+import com.example.minirpc.core.loadbalance.LoadBalancers;
+import com.example.minirpc.core.protocol.RpcAttachment;
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
 import com.example.minirpc.core.protocol.RpcRequest;
 import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.registry.ServiceInstance;
 import com.example.minirpc.core.registry.ServiceRegistry;
 import com.example.minirpc.core.serialize.Serializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import com.example.minirpc.core.serialize.TypeResolver;
+import com.example.minirpc.core.transport.NettyTransport;
 import io.netty.bootstrap.Bootstrap;
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.ByteToMessageDecoder;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Type;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 基于Netty的RPC客户端实现
@@ -29,74 +50,129 @@ import java.util.concurrent.TimeUnit;
 public class NettyRpcClient implements RpcClient {
 
     private static final Logger logger = LoggerFactory.getLogger(NettyRpcClient.class);
-    private final ServiceRegistry serviceRegistry;
-    private final Serializer serializer;
+    private final SerializerRegistry serializers;
+    private final CompressorRegistry compressors;
+    
+    // 期望与服务端协商的压缩方式，为null时不压缩
+    private final Compressor compressor;
     private final EventLoopGroup eventLoopGroup;
     private final Bootstrap bootstrap;
-    private final Map<String, Channel> channelMap = new ConcurrentHashMap<>();
+    private final ConnectionManager connectionManager;
+    
+    // 按服务缓存的路由快照，由注册中心的变更推送刷新
+    private final RouteTable routeTable;
+    private final FlushMetrics flushMetrics = new FlushMetrics();
+    private final ResultCacheManager resultCacheManager;
+    
+    // 启用调用合并的代理共享的合并器
+    private final CallCoalescer callCoalescer = new CallCoalescer();
+    
+    // 服务实例间的负载均衡策略
+    private final LoadBalancer loadBalancer;
+    
+    // 请求ID生成器
+    private final AtomicLong requestIdGenerator = new AtomicLong();
+    
+    // 存储未完成的请求，以请求ID为键
+    private final PendingCallTable pendingRequests = new PendingCallTable();
+    
+    // 进行中的流式调用，以请求ID为键
+    private final Map<Long, StreamCall> streams = new ConcurrentHashMap<>();
+    
+    // 所有请求共用的超时时间轮，超时的请求会从pendingRequests中移除
+    private final HashedWheelTimer timeoutTimer;
+    
+    // 默认超时时间，单位毫秒
+    private final long defaultTimeout;
+    
+    // 心跳间隔，单位毫秒
+    private final long heartbeatInterval;
     
-    // 存储未完成的请求，requestId -> 响应future
-    private final Map<String, CompletableFuture<RpcResponse<?>>> pendingRequests = new ConcurrentHashMap<>();
+    // 心跳超时时间，单位毫秒
+    private final long heartbeatTimeout;
+    
+    // 调用方标识，可以为null
+    private final String application;
+    
+    // 单个连接上未完成的最大请求数
+    private final int maxInflightPerConnection;
+    
+    // 流式调用的信用窗口
+    private final int streamWindow;
 
     public NettyRpcClient(ServiceRegistry serviceRegistry, Serializer serializer) {
-        this.serviceRegistry = serviceRegistry;
-        this.serializer = serializer;
-        this.eventLoopGroup = new NioEventLoopGroup();
+        this(serviceRegistry, serializer, 5000);
+    }
+
+    public NettyRpcClient(ServiceRegistry serviceRegistry, Serializer serializer, long defaultTimeout) {
+        this(serviceRegistry, serializer, timeoutConfig(defaultTimeout));
+    }
+
+    public NettyRpcClient(ServiceRegistry serviceRegistry, Serializer serializer, RpcClientConfig config) {
+        this.serializers = new SerializerRegistry(serializer);
+        this.compressors = new CompressorRegistry();
+        this.compressor = compressors.get(config.getCompression());
+        this.loadBalancer = LoadBalancers.load(config.getLoadBalancer());
+        this.defaultTimeout = config.getTimeout();
+        this.heartbeatInterval = config.getHeartbeatInterval();
+        this.heartbeatTimeout = config.getHeartbeatTimeout();
+        this.application = config.getApplication();
+        this.maxInflightPerConnection = config.getMaxInflightPerConnection();
+        this.streamWindow = config.getStreamWindow();
+        this.resultCacheManager = new ResultCacheManager(config.isResultCacheEnabled());
+        this.timeoutTimer = new HashedWheelTimer(
+                new DefaultThreadFactory("rpc-timeout", true), 10, TimeUnit.MILLISECONDS, 512);
+        NettyTransport transport = new NettyTransport(config.getSocket());
+        this.eventLoopGroup = transport.newEventLoopGroup(config.getIoThreads(), "rpc-client");
         this.bootstrap = new Bootstrap();
         bootstrap.group(eventLoopGroup)
-                .channel(NioSocketChannel.class)
                 .handler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new FlushMetricsHandler(flushMetrics));
+                        if (config.getMaxFlushBatch() > 0) {
+                            // 调用线程发出的请求合并到同一轮事件循环中统一刷新
+                            ch.pipeline().addLast(new FlushConsolidationHandler(config.getMaxFlushBatch(), true));
+                        }
+                        if (heartbeatTimeout > 0 || heartbeatInterval > 0) {
+                            // 每隔一个心跳间隔没有读到数据时发送心跳，持续读空闲超过心跳超时时间才判定连接失效
+                            ch.pipeline().addLast(new IdleStateHandler(
+                                    heartbeatInterval > 0 ? heartbeatInterval : heartbeatTimeout,
+                                    0, 0, TimeUnit.MILLISECONDS));
+                        }
                         ch.pipeline()
-                                .addLast(new RpcEncoder())
-                                .addLast(new RpcDecoder())
+                                .addLast(new RpcMessageEncoder(serializers, config.getCompressThreshold(),
+                                        config.getMaxFrameLength()))
+                                .addLast(new RpcMessageDecoder(serializers, compressors, new ReturnTypeResolver(),
+                                        config.getMaxFrameLength()))
                                 .addLast(new RpcClientHandler());
+                        if (config.isBatchEnabled()) {
+                            ch.attr(RequestBatcher.KEY).set(new RequestBatcher(ch, config.getMaxBatchSize(),
+                                    config.getBatchWindowMicros(), NettyRpcClient.this::failWrite));
+                        }
                     }
                 })
-                .option(ChannelOption.SO_KEEPALIVE, true)
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000);
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, config.getConnectTimeout());
+        transport.configure(bootstrap);
+        this.connectionManager = new ConnectionManager(bootstrap,
+                config.getConnectionsPerAddress(), config.getChannelSelectStrategy());
+        this.routeTable = new RouteTable(serviceRegistry, connectionManager, loadBalancer);
+    }
+
+    private static RpcClientConfig timeoutConfig(long timeout) {
+        RpcClientConfig config = new RpcClientConfig();
+        config.setTimeout(timeout);
+        return config;
     }
 
     @Override
-    public RpcResponse<?> send(RpcRequest request) {
-        String serviceName = request.getInterfaceName();
-        String serviceAddress = serviceRegistry.discover(serviceName);
-        
-        if (serviceAddress == null) {
-            logger.error("找不到服务地址: {}", serviceName);
-            return RpcResponse.fail(request.getRequestId(), 404, "找不到服务地址: " + serviceName);
-        }
-        
+    public RpcResponse<?> send(RpcRequest request, CallOptions options) {
         try {
-            String[] parts = serviceAddress.split(":");
-            String host = parts[0];
-            int port = Integer.parseInt(parts[1]);
-            
-            // 获取或创建Channel
-            Channel channel = getChannel(host, port);
-            if (!channel.isActive()) {
-                logger.error("无法连接到服务器: {}:{}", host, port);
-                return RpcResponse.fail(request.getRequestId(), 503, "无法连接到服务器");
-            }
-            
-            // 创建响应Future
-            CompletableFuture<RpcResponse<?>> responseFuture = new CompletableFuture<>();
-            pendingRequests.put(request.getRequestId(), responseFuture);
-            
-            // 发送请求
-            channel.writeAndFlush(request).addListener((ChannelFutureListener) future -> {
-                if (future.isSuccess()) {
-                    logger.debug("发送RPC请求成功: {}", request.getRequestId());
-                } else {
-                    logger.error("发送RPC请求失败", future.cause());
-                    pendingRequests.remove(request.getRequestId());
-                    responseFuture.completeExceptionally(future.cause());
-                }
-            });
-            
-            // 等待响应，默认5秒超时
-            return responseFuture.get(5, TimeUnit.SECONDS);
+            // 超时由时间轮负责，这里无需限时等待
+            return sendAsync(request, options).get();
+        } catch (ExecutionException e) {
+            logger.error("发送RPC请求时发生异常", e.getCause());
+            return RpcResponse.fail(request.getRequestId(), 500, "客户端异常: " + e.getCause().getMessage());
         } catch (Exception e) {
             logger.error("发送RPC请求时发生异常", e);
             return RpcResponse.fail(request.getRequestId(), 500, "客户端异常: " + e.getMessage());
@@ -104,106 +180,378 @@ public class NettyRpcClient implements RpcClient {
     }
 
     @Override
-    public void close() {
-        channelMap.values().forEach(Channel::close);
-        eventLoopGroup.shutdownGracefully();
-        logger.info("RPC客户端已关闭");
+    public CompletableFuture<RpcResponse<?>> sendAsync(RpcRequest request, CallOptions options) {
+        String serviceName = request.getInterfaceName();
+        RouteTable.Snapshot route = routeTable.snapshot(serviceName);
+        List<ServiceInstance> instances = route.getInstances();
+        
+        if (instances.isEmpty()) {
+            logger.error("找不到服务地址: {}", serviceName);
+            RpcAttachment.releaseAll(request.getParameters());
+            return CompletableFuture.completedFuture(
+                    RpcResponse.fail(request.getRequestId(), 404, "找不到服务地址: " + serviceName));
+        }
+        ServiceInstance instance = loadBalancer.select(instances, request);
+        CompletableFuture<RpcResponse<?>> future = send(route, instance, request, options);
+        if (instances.size() < 2 || RpcAttachment.containsAny(request.getParameters())) {
+            // 附件在第一次写出后已经释放，不能重发
+            return future;
+        }
+        // 429和503表示请求没有被执行，换一个实例重试一次
+        return future.thenCompose(response -> RpcProtocol.isRetryable(response)
+                ? retry(request, options, instance, response) : CompletableFuture.completedFuture(response));
     }
 
     /**
-     * 获取到指定服务器的Channel
+     * 把被拒绝的请求发往另一个实例，没有其他实例时返回原来的响应
      */
-    private Channel getChannel(String host, int port) throws InterruptedException {
-        String key = host + ":" + port;
+    private CompletableFuture<RpcResponse<?>> retry(RpcRequest request, CallOptions options,
+                                                     ServiceInstance rejected, RpcResponse<?> response) {
+        RouteTable.Snapshot route = routeTable.snapshot(request.getInterfaceName());
+        List<ServiceInstance> others = new ArrayList<>(route.getInstances());
+        others.remove(rejected);
+        if (others.isEmpty()) {
+            return CompletableFuture.completedFuture(response);
+        }
+        ServiceInstance instance = loadBalancer.select(others, request);
+        logger.debug("实例拒绝了请求: {} -> {}, 重试实例: {}", rejected.getAddress(), response.getMessage(),
+                instance.getAddress());
+        return send(route, instance, request, options);
+    }
+
+    /**
+     * 向选定的实例发送一次请求
+     */
+    private CompletableFuture<RpcResponse<?>> send(RouteTable.Snapshot route, ServiceInstance instance,
+                                                   RpcRequest request, CallOptions options) {
+        // 分配请求ID并登记未完成的调用，超时时间包含建立连接的耗时
+        long requestId = requestIdGenerator.incrementAndGet();
+        request.setRequestId(requestId);
+        if (request.getCaller() == null) {
+            request.setCaller(application);
+        }
+        PendingCall call = new PendingCall(requestId, options.getReturnType());
+        long timeout = options.getTimeout() > 0 ? options.getTimeout() : defaultTimeout;
+        call.setTimeout(timeoutTimer.newTimeout(t -> expire(requestId, timeout), timeout, TimeUnit.MILLISECONDS));
+        pendingRequests.put(call);
         
-        // 已有可用的Channel则直接返回
-        if (channelMap.containsKey(key)) {
-            Channel channel = channelMap.get(key);
-            if (channel != null && channel.isActive()) {
-                return channel;
+        // 负载均衡统计包含连接和排队的耗时
+        long startNanos = System.nanoTime();
+        loadBalancer.onStart(instance);
+        call.getFuture().whenComplete((response, error) -> loadBalancer.onComplete(instance,
+                System.nanoTime() - startNanos, error == null && response.getCode() != null && response.getCode() == 0));
+        
+        // 异步获取连接，连接建立后再发送请求
+        connectionManager.acquire(route.pool(instance)).whenComplete((channel, error) -> {
+            if (error != null) {
+                logger.error("无法连接到服务器: {}", instance.getAddress(), error);
+                RpcAttachment.releaseAll(request.getParameters());
+                if (pendingRequests.remove(requestId) != null) {
+                    call.complete(RpcResponse.fail(requestId, 503, "无法连接到服务器: " + instance.getAddress()));
+                }
+                return;
             }
-            channelMap.remove(key);
+            write(channel, call, request, options);
+        });
+        return call.getFuture();
+    }
+
+    @Override
+    public StreamCall openStream(RpcRequest request, CallOptions options) {
+        long requestId = requestIdGenerator.incrementAndGet();
+        request.setRequestId(requestId);
+        if (request.getCaller() == null) {
+            request.setCaller(application);
         }
+        long timeout = options.getTimeout() > 0 ? options.getTimeout() : defaultTimeout;
+        StreamCall call = new StreamCall(requestId, options.getReturnType(), timeout, streamWindow,
+                () -> streams.remove(requestId));
+        streams.put(requestId, call);
         
-        // 创建新的Channel
-        ChannelFuture future = bootstrap.connect(host, port).sync();
-        if (future.isSuccess()) {
-            Channel channel = future.channel();
-            channelMap.put(key, channel);
-            return channel;
+        String serviceName = request.getInterfaceName();
+        RouteTable.Snapshot route = routeTable.snapshot(serviceName);
+        List<ServiceInstance> instances = route.getInstances();
+        if (instances.isEmpty()) {
+            logger.error("找不到服务地址: {}", serviceName);
+            call.fail(404, "找不到服务地址: " + serviceName);
+            return call;
         }
-        
-        throw new RuntimeException("连接服务器失败: " + host + ":" + port);
+        // 流式调用的耗时取决于调用方的消费速度，不计入负载均衡的延迟统计
+        ServiceInstance instance = loadBalancer.select(instances, request);
+        connectionManager.acquire(route.pool(instance)).whenComplete((channel, error) -> {
+            if (error != null) {
+                logger.error("无法连接到服务器: {}", instance.getAddress(), error);
+                call.fail(503, "无法连接到服务器: " + instance.getAddress());
+                return;
+            }
+            byte serializerType = options.getSerializerType() != 0
+                    ? options.getSerializerType() : serializers.getDefault().getType();
+            if (!call.attach(channel, serializerType)) {
+                return;
+            }
+            // 流式请求不经过批量器，保证信用帧在请求帧之后到达
+            channel.write(new RpcMessage(RpcProtocol.TYPE_REQUEST, serializerType,
+                    RpcProtocol.STATUS_OK, requestId, request));
+            channel.writeAndFlush(new RpcMessage(RpcProtocol.TYPE_STREAM_CREDIT, serializerType,
+                    RpcProtocol.STATUS_OK, requestId, call.getWindow()))
+                    .addListener((ChannelFutureListener) future -> {
+                        if (!future.isSuccess()) {
+                            logger.error("发送RPC请求失败", future.cause());
+                            call.fail(503, "发送RPC请求失败: " + future.cause().getMessage());
+                        }
+                    });
+        });
+        return call;
     }
 
     /**
-     * RPC客户端处理器
+     * 发送请求，响应由RpcClientHandler在I/O线程上完成；启用批量发送时交给连接的请求批量器
      */
-    private class RpcClientHandler extends SimpleChannelInboundHandler<RpcResponse<?>> {
-        @Override
-        protected void channelRead0(ChannelHandlerContext ctx, RpcResponse<?> response) {
-            String requestId = response.getRequestId();
-            CompletableFuture<RpcResponse<?>> future = pendingRequests.remove(requestId);
-            
-            if (future != null) {
-                future.complete(response);
+    private void write(Channel channel, PendingCall call, RpcRequest request, CallOptions options) {
+        long requestId = call.getRequestId();
+        call.setChannel(channel);
+        int pending = ConnectionManager.incrementPending(channel);
+        call.getFuture().whenComplete((response, error) -> ConnectionManager.decrementPending(channel));
+        if (pending > maxInflightPerConnection) {
+            // 服务端处理不过来或已暂停读取，继续写入只会让写缓冲区无限增长
+            RpcAttachment.releaseAll(request.getParameters());
+            if (pendingRequests.remove(requestId) != null) {
+                call.complete(RpcResponse.fail(requestId, RpcProtocol.CODE_UNAVAILABLE,
+                        "连接上未完成的请求过多: " + channel.remoteAddress()));
+            }
+            return;
+        }
+        
+        byte serializerType = options.getSerializerType() != 0
+                ? options.getSerializerType() : serializers.getDefault().getType();
+        RpcMessage message = new RpcMessage(RpcProtocol.TYPE_REQUEST, serializerType,
+                RpcProtocol.STATUS_OK, requestId, request);
+        // 带有附件的请求单独成帧，附件原样写出
+        RequestBatcher batcher = channel.attr(RequestBatcher.KEY).get();
+        if (batcher != null && !RpcMessageEncoder.hasAttachments(message)) {
+            batcher.add(call, message);
+            return;
+        }
+        channel.writeAndFlush(message).addListener((ChannelFutureListener) future -> {
+            if (future.isSuccess()) {
+                logger.debug("发送RPC请求成功: {}", requestId);
             } else {
-                logger.warn("收到了无效的RPC响应: {}", requestId);
+                failWrite(call, future.cause());
             }
+        });
+    }
+
+    private void failWrite(PendingCall call, Throwable cause) {
+        logger.error("发送RPC请求失败", cause);
+        if (pendingRequests.remove(call.getRequestId()) != null) {
+            call.fail(cause);
         }
+    }
 
-        @Override
-        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-            logger.error("RPC客户端异常", cause);
-            ctx.close();
+    /**
+     * 时间轮回调，移除并以超时异常结束仍未收到响应的请求
+     */
+    private void expire(long requestId, long timeout) {
+        PendingCall call = pendingRequests.remove(requestId);
+        if (call != null) {
+            logger.warn("RPC请求超时: {}, 超时时间: {}ms", requestId, timeout);
+            call.getFuture().completeExceptionally(
+                    new TimeoutException("RPC请求超时: " + requestId + ", 超时时间: " + timeout + "ms"));
         }
     }
 
     /**
-     * RPC编码器，将RPC请求对象转换为字节
+     * 连接断开后立即结束其上所有未完成的请求，不必等到超时
      */
-    private class RpcEncoder extends MessageToByteEncoder<RpcRequest> {
+    private void failPending(Channel channel) {
+        pendingRequests.forEach(call -> {
+            if (call.getChannel() == channel && pendingRequests.remove(call.getRequestId()) != null) {
+                // 请求可能已经执行，不能以503表示，否则会被重试
+                call.complete(RpcResponse.fail(call.getRequestId(), 500, "连接已断开: " + channel.remoteAddress()));
+            }
+        });
+        streams.values().forEach(call -> {
+            if (call.getChannel() == channel) {
+                call.fail(500, "连接已断开: " + channel.remoteAddress());
+            }
+        });
+    }
+
+    /**
+     * 请求写出的刷新统计
+     */
+    public FlushMetrics getFlushMetrics() {
+        return flushMetrics;
+    }
+
+    @Override
+    public SerializerRegistry getSerializers() {
+        return serializers;
+    }
+
+    @Override
+    public ResultCacheManager getResultCacheManager() {
+        return resultCacheManager;
+    }
+
+    @Override
+    public CallCoalescer getCallCoalescer() {
+        return callCoalescer;
+    }
+
+    @Override
+    public void close() {
+        timeoutTimer.stop();
+        routeTable.close();
+        connectionManager.close();
+        eventLoopGroup.shutdownGracefully();
+        logger.info("RPC客户端已关闭");
+    }
+
+    /**
+     * 按未完成调用登记的返回值类型解析响应数据的声明类型
+     */
+    private class ReturnTypeResolver implements TypeResolver {
         @Override
-        protected void encode(ChannelHandlerContext ctx, RpcRequest request, ByteBuf out) {
-            // 将请求对象序列化为字节数组
-            byte[] data = serializer.serialize(request);
-            
-            // 写入长度和数据
-            out.writeInt(data.length);
-            out.writeBytes(data);
+        public Type[] resolveParameterTypes(String interfaceName, String methodName, Class<?>[] parameterTypes) {
+            return null;
+        }
+
+        @Override
+        public Type resolveReturnType(long requestId) {
+            PendingCall call = pendingRequests.get(requestId);
+            if (call != null) {
+                return call.getReturnType();
+            }
+            StreamCall stream = streams.get(requestId);
+            return stream == null ? null : stream.getElementType();
         }
     }
 
     /**
-     * RPC解码器，将字节转换为RPC响应对象
+     * RPC客户端处理器
      */
-    private class RpcDecoder extends ByteToMessageDecoder {
+    private class RpcClientHandler extends SimpleChannelInboundHandler<RpcMessage> {
+
+        // 最近一次读到数据之后连续触发的读空闲事件数，只在I/O线程上访问
+        private int readerIdleEvents;
+
+        /**
+         * 连接建立后发起压缩协商，协商完成前的请求不压缩
+         */
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            if (compressor != null) {
+                RpcMessage handshake = new RpcMessage(RpcProtocol.TYPE_HANDSHAKE, serializers.getDefault().getType(),
+                        RpcProtocol.STATUS_OK, 0, null);
+                handshake.setFlags(compressor.getType());
+                ctx.writeAndFlush(handshake);
+            }
+            super.channelActive(ctx);
+        }
+
         @Override
-        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
-            // 至少需要4个字节来表示内容长度
-            if (in.readableBytes() < 4) {
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            failPending(ctx.channel());
+            super.channelInactive(ctx);
+        }
+
+        /**
+         * 读空闲时发送心跳，不论连接上是否还在写出请求（对端可能暂停了读取，或者响应很慢）；
+         * 持续读空闲超过心跳超时时间说明发出的心跳都没有得到回复，关闭连接，
+         * 连接关闭后会从连接池中移除，下次调用时重新建立
+         */
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+            if (!(evt instanceof IdleStateEvent) || ((IdleStateEvent) evt).state() != IdleState.READER_IDLE) {
+                super.userEventTriggered(ctx, evt);
                 return;
             }
-            
-            // 标记当前读取位置
-            in.markReaderIndex();
-            
-            // 读取内容长度
-            int length = in.readInt();
-            
-            // 检查是否有足够的数据
-            if (in.readableBytes() < length) {
-                in.resetReaderIndex();
+            // 每次读到数据后的第一个读空闲事件重新计数
+            readerIdleEvents = ((IdleStateEvent) evt).isFirst() ? 1 : readerIdleEvents + 1;
+            long idleMillis = readerIdleEvents * (heartbeatInterval > 0 ? heartbeatInterval : heartbeatTimeout);
+            if (heartbeatTimeout > 0 && idleMillis >= heartbeatTimeout) {
+                logger.warn("连接 {} 超过 {}ms 没有收到数据，关闭连接", ctx.channel().remoteAddress(), idleMillis);
+                ctx.close();
+            } else if (heartbeatInterval > 0) {
+                ctx.writeAndFlush(new RpcMessage(RpcProtocol.TYPE_PING, serializers.getDefault().getType(),
+                        RpcProtocol.STATUS_OK, 0, null));
+            }
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, RpcMessage message) {
+            if (message.getMessageType() == RpcProtocol.TYPE_PONG) {
+                // 心跳回复只用于刷新读空闲计时
                 return;
             }
+            if (message.getMessageType() == RpcProtocol.TYPE_HANDSHAKE) {
+                // 服务端返回实际采用的压缩方式，0表示不压缩
+                Compressor accepted = compressors.get(message.getFlags() & RpcProtocol.FLAG_COMPRESS_MASK);
+                ctx.channel().attr(RpcMessageEncoder.COMPRESSOR).set(accepted);
+                logger.debug("连接 {} 协商压缩方式: {}", ctx.channel().remoteAddress(),
+                        accepted == null ? CompressorRegistry.NONE : accepted.getName());
+                return;
+            }
+            if (message.getMessageType() == RpcProtocol.TYPE_STREAM_CHUNK) {
+                StreamCall stream = streams.get(message.getRequestId());
+                if (stream != null) {
+                    stream.onMessage(message);
+                }
+                return;
+            }
+            if (message.getMessageType() == RpcProtocol.TYPE_BATCH_RESPONSE) {
+                @SuppressWarnings("unchecked")
+                List<RpcMessage> items = (List<RpcMessage>) message.getBody();
+                if (items != null) {
+                    items.forEach(this::complete);
+                }
+                return;
+            }
+            if (message.getMessageType() != RpcProtocol.TYPE_RESPONSE) {
+                logger.warn("忽略非响应消息: {}", message);
+                return;
+            }
+            complete(message);
+        }
+
+        /**
+         * 按请求ID结束未完成的调用
+         */
+        private void complete(RpcMessage message) {
+            long requestId = message.getRequestId();
+            PendingCall call = pendingRequests.remove(requestId);
             
-            // 读取消息体
-            byte[] data = new byte[length];
-            in.readBytes(data);
-            
-            // 反序列化为RPC响应对象
-            RpcResponse<?> response = serializer.deserialize(data, RpcResponse.class);
-            out.add(response);
+            if (call == null) {
+                // 流式调用的结束响应
+                StreamCall stream = streams.get(requestId);
+                if (stream != null) {
+                    stream.onMessage(message);
+                    return;
+                }
+                logger.warn("收到了无效的RPC响应: {}", requestId);
+                if (message.getBody() != null) {
+                    RpcAttachment.releaseAll(((RpcResponse<?>) message.getBody()).getData());
+                }
+                return;
+            }
+            RpcResponse<?> response = (RpcResponse<?>) message.getBody();
+            if (response == null) {
+                // 消息体无法解析，仅凭消息头判定失败
+                response = RpcResponse.fail(requestId, 500, "无法解析的RPC响应, 状态: " + message.getStatus());
+            }
+            call.complete(response);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            if (cause instanceof DecoderException) {
+                // 非法或超长的帧，通常来自错误的对端，不打印堆栈
+                logger.warn("连接 {} 收到非法数据，关闭连接: {}", ctx.channel().remoteAddress(), cause.getMessage());
+            } else {
+                logger.error("RPC客户端异常", cause);
+            }
+            ctx.close();
         }
     }
 }
@@ -0,0 +1,91 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcResponse;
+import io.netty.channel.Channel;
+import io.netty.util.Timeout;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 等待响应的RPC调用
+ */
+public class PendingCall {
+
+    /**
+     * 协议帧请求ID
+     */
+    private final long requestId;
+
+    /**
+     * 调用方法的返回值声明类型，用于反序列化响应数据，未知时为null
+     */
+    private final Type returnType;
+
+    /**
+     * 响应future
+     */
+    private final CompletableFuture<RpcResponse<?>> future = new CompletableFuture<>();
+
+    /**
+     * 时间轮上的超时任务
+     */
+    private volatile Timeout timeout;
+
+    /**
+     * 发送请求的连接，连接断开时用于找出其上所有未完成的调用
+     */
+    private volatile Channel channel;
+
+    public PendingCall(long requestId, Type returnType) {
+        this.requestId = requestId;
+        this.returnType = returnType;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public Type getReturnType() {
+        return returnType;
+    }
+
+    public CompletableFuture<RpcResponse<?>> getFuture() {
+        return future;
+    }
+
+    public void setTimeout(Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+
+    public void setChannel(Channel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * 完成调用并取消超时任务
+     */
+    public void complete(RpcResponse<?> response) {
+        cancelTimeout();
+        future.complete(response);
+    }
+
+    /**
+     * 以异常结束调用并取消超时任务
+     */
+    public void fail(Throwable cause) {
+        cancelTimeout();
+        future.completeExceptionally(cause);
+    }
+
+    private void cancelTimeout() {
+        Timeout t = timeout;
+        if (t != null) {
+            t.cancel();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.minirpc.core.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 以long请求ID为键的无锁未完成调用表
+ *
+ * <p>请求ID单调递增，按 id &amp; mask 直接映射到槽位数组，一次CAS即可完成登记和移除，
+ * 不需要装箱和哈希。只有当槽位仍被更早的慢请求占用时，才退化到溢出表。
+ */
+public class PendingCallTable {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private final AtomicReferenceArray<PendingCall> slots;
+    private final int mask;
+
+    // 槽位冲突时使用的溢出表
+    private final Map<Long, PendingCall> overflow = new ConcurrentHashMap<>();
+
+    public PendingCallTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 槽位数量，向上取整为2的幂
+     */
+    public PendingCallTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 登记未完成的调用
+     */
+    public void put(PendingCall call) {
+        int index = (int) call.getRequestId() & mask;
+        if (!slots.compareAndSet(index, null, call)) {
+            overflow.put(call.getRequestId(), call);
+        }
+    }
+
+    /**
+     * 移除并返回指定请求ID的调用，不存在时返回null
+     */
+    public PendingCall remove(long requestId) {
+        int index = (int) requestId & mask;
+        PendingCall call = slots.get(index);
+        if (call != null && call.getRequestId() == requestId && slots.compareAndSet(index, call, null)) {
+            return call;
+        }
+        return overflow.isEmpty() ? null : overflow.remove(requestId);
+    }
+
+    /**
+     * 获取指定请求ID的调用但不移除，不存在时返回null
+     */
+    public PendingCall get(long requestId) {
+        PendingCall call = slots.get((int) requestId & mask);
+        if (call != null && call.getRequestId() == requestId) {
+            return call;
+        }
+        return overflow.isEmpty() ? null : overflow.get(requestId);
+    }
+
+    /**
+     * 遍历所有未完成的调用
+     */
+    public void forEach(Consumer<PendingCall> action) {
+        for (int i = 0; i < slots.length(); i++) {
+            PendingCall call = slots.get(i);
+            if (call != null) {
+                action.accept(call);
+            }
+        }
+        overflow.values().forEach(action);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.util.AttributeKey;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * 单个连接的请求批量器，把时间窗口内发往同一连接的请求合并为一个批量帧
+ *
+ * <p>调用线程只把请求放入无锁队列，第一个请求到达时在连接的I/O线程上安排一次定时发送，
+ * 队列中的请求达到批量上限时立即发送。窗口内只有一个请求时按普通请求帧发送，没有额外开销。
+ */
+class RequestBatcher {
+
+    /**
+     * 连接上的请求批量器，未启用批量发送时为null
+     */
+    static final AttributeKey<RequestBatcher> KEY = AttributeKey.valueOf("mini.rpc.batcher");
+
+    private final Channel channel;
+    private final int maxBatchSize;
+    private final long windowNanos;
+
+    // 写出失败时结束请求
+    private final BiConsumer<PendingCall, Throwable> failure;
+
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    // 已安排定时发送
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // 已安排立即发送
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private final Runnable flushTask = this::flush;
+
+    /**
+     * @param maxBatchSize 一个批量帧中的最大请求数
+     * @param windowMicros 第一个请求等待后续请求的最长时间，单位微秒，为0时只合并同一轮事件循环之前到达的请求
+     * @param failure 批量帧写出失败时对其中每个请求的回调
+     */
+    RequestBatcher(Channel channel, int maxBatchSize, long windowMicros, BiConsumer<PendingCall, Throwable> failure) {
+        this.channel = channel;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.failure = failure;
+    }
+
+    /**
+     * 添加请求，可以在任意线程上调用
+     */
+    void add(PendingCall call, RpcMessage message) {
+        queue.offer(new Entry(call, message));
+        int n = size.incrementAndGet();
+        if (n >= maxBatchSize) {
+            if (flushing.compareAndSet(false, true)) {
+                channel.eventLoop().execute(flushTask);
+            }
+        } else if (scheduled.compareAndSet(false, true)) {
+            if (windowNanos > 0) {
+                channel.eventLoop().schedule(flushTask, windowNanos, TimeUnit.NANOSECONDS);
+            } else {
+                channel.eventLoop().execute(flushTask);
+            }
+        }
+    }
+
+    /**
+     * 在I/O线程上发送队列中的所有请求，先清除标志，之后到达的请求会重新安排发送
+     */
+    private void flush() {
+        scheduled.set(false);
+        flushing.set(false);
+        boolean written = false;
+        while (!queue.isEmpty()) {
+            List<Entry> batch = new ArrayList<>(Math.min(size.get(), maxBatchSize));
+            Entry entry;
+            while (batch.size() < maxBatchSize && (entry = queue.poll()) != null) {
+                batch.add(entry);
+            }
+            size.addAndGet(-batch.size());
+            if (batch.isEmpty()) {
+                break;
+            }
+            write(batch);
+            written = true;
+        }
+        if (written) {
+            channel.flush();
+        }
+    }
+
+    private void write(List<Entry> batch) {
+        RpcMessage message;
+        if (batch.size() == 1) {
+            message = batch.get(0).message;
+        } else {
+            List<RpcMessage> items = new ArrayList<>(batch.size());
+            for (Entry entry : batch) {
+                items.add(entry.message);
+            }
+            message = new RpcMessage(RpcProtocol.TYPE_BATCH_REQUEST, batch.get(0).message.getSerializerType(),
+                    RpcProtocol.STATUS_OK, 0, items);
+        }
+        channel.write(message).addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                for (Entry entry : batch) {
+                    failure.accept(entry.call, future.cause());
+                }
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final PendingCall call;
+        private final RpcMessage message;
+
+        Entry(PendingCall call, RpcMessage message) {
+            this.call = call;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.minirpc.core.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个服务方法的调用结果缓存，基于Caffeine（W-TinyLFU淘汰策略），以方法参数为键
+ */
+public class ResultCache {
+
+    private final String name;
+    private final Cache<CallKey, Object> cache;
+
+    /**
+     * @param name 缓存名称，格式为 接口名#方法签名
+     * @param expireAfterWriteMillis 写入后的有效期，单位毫秒
+     * @param maximumSize 最多缓存的结果数
+     */
+    public ResultCache(String name, long expireAfterWriteMillis, long maximumSize) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterWriteMillis, TimeUnit.MILLISECONDS)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取缓存的结果
+     *
+     * @return 缓存的结果，未命中时返回null
+     */
+    public Object getIfPresent(Object[] args) {
+        return cache.getIfPresent(new CallKey(name, args));
+    }
+
+    /**
+     * 缓存调用结果，null不缓存
+     */
+    public void put(Object[] args, Object result) {
+        if (result != null) {
+            cache.put(new CallKey(name, args), result);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * 命中率，还没有请求时为1.0
+     */
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * 当前缓存的结果数（近似值）
+     */
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public String toString() {
+        CacheStats stats = cache.stats();
+        return "ResultCache{name=" + name + ", size=" + cache.estimatedSize() + ", hits=" + stats.hitCount()
+                + ", misses=" + stats.missCount() + ", evictions=" + stats.evictionCount() + '}';
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.annotation.RpcCacheable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 客户端的调用结果缓存管理器，同一个服务方法的所有代理共享一个缓存
+ */
+public class ResultCacheManager {
+
+    private final boolean enabled;
+
+    // 接口名#方法签名 -> 结果缓存
+    private final Map<String, ResultCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param enabled 为false时忽略所有@RpcCacheable注解
+     */
+    public ResultCacheManager(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 获取或创建服务方法的结果缓存
+     *
+     * @param name 缓存名称，格式为 接口名#方法签名
+     * @return 结果缓存，未启用缓存时返回null
+     */
+    public ResultCache getOrCreate(String name, RpcCacheable cacheable) {
+        if (!enabled) {
+            return null;
+        }
+        return caches.computeIfAbsent(name,
+                k -> new ResultCache(k, cacheable.expireAfterWrite(), cacheable.maximumSize()));
+    }
+
+    /**
+     * 所有结果缓存，可用于查看命中、未命中和淘汰次数
+     */
+    public Map<String, ResultCache> getCaches() {
+        return Collections.unmodifiableMap(caches);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
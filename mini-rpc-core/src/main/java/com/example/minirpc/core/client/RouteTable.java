@@ -0,0 +1,124 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.loadbalance.LoadBalancer;
+import com.example.minirpc.core.registry.ServiceInstance;
+import com.example.minirpc.core.registry.ServiceListener;
+import com.example.minirpc.core.registry.ServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 客户端路由表，为每个服务缓存不可变的路由快照
+ *
+ * <p>快照中的实例地址已经解析好，并直接引用对应的连接池；快照只在注册中心推送变更时重建，
+ * 调用时只需读取一次volatile字段。替换快照后释放旧快照对连接池的引用，
+ * 已下线实例的连接池不再被任何路由引用时随之关闭。
+ */
+class RouteTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteTable.class);
+
+    private final ServiceRegistry serviceRegistry;
+    private final ConnectionManager connectionManager;
+    private final LoadBalancer loadBalancer;
+
+    // 服务名称 -> 路由
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    RouteTable(ServiceRegistry serviceRegistry, ConnectionManager connectionManager, LoadBalancer loadBalancer) {
+        this.serviceRegistry = serviceRegistry;
+        this.connectionManager = connectionManager;
+        this.loadBalancer = loadBalancer;
+    }
+
+    /**
+     * 获取服务的当前路由快照，首次访问时订阅注册中心
+     */
+    Snapshot snapshot(String serviceName) {
+        Route route = routes.get(serviceName);
+        if (route == null) {
+            route = subscribe(serviceName);
+        }
+        return route.snapshot;
+    }
+
+    private synchronized Route subscribe(String serviceName) {
+        Route route = routes.get(serviceName);
+        if (route == null) {
+            // 订阅时会同步回调一次当前实例列表，回调完成后再对其他线程可见
+            route = new Route();
+            serviceRegistry.subscribe(serviceName, route);
+            routes.put(serviceName, route);
+        }
+        return route;
+    }
+
+    /**
+     * 取消所有订阅
+     */
+    void close() {
+        routes.forEach((serviceName, route) -> {
+            serviceRegistry.unsubscribe(serviceName, route);
+            route.snapshot.pools.values().forEach(connectionManager::release);
+        });
+        routes.clear();
+    }
+
+    /**
+     * 单个服务的路由，接收注册中心的变更推送并替换快照
+     */
+    private class Route implements ServiceListener {
+        private volatile Snapshot snapshot = new Snapshot(Collections.emptyList(), Collections.emptyMap());
+
+        @Override
+        public synchronized void onChange(String serviceName, List<ServiceInstance> instances) {
+            logger.info("服务实例变更: {} -> {}", serviceName, instances);
+            Map<ServiceInstance, ConnectionManager.ChannelPool> pools = new IdentityHashMap<>();
+            for (ServiceInstance instance : instances) {
+                pools.put(instance, connectionManager.retain(
+                        new InetSocketAddress(instance.getHost(), instance.getPort())));
+            }
+            // 负载均衡先初始化新实例的统计，再发布快照
+            loadBalancer.onInstancesChanged(serviceName, instances);
+            Snapshot previous = snapshot;
+            snapshot = new Snapshot(instances, pools);
+            // 先引用新快照的连接池再释放旧快照的，仍在使用的连接池不会被误关闭
+            previous.pools.values().forEach(connectionManager::release);
+        }
+    }
+
+    /**
+     * 不可变的路由快照
+     */
+    final class Snapshot {
+        private final List<ServiceInstance> instances;
+        private final Map<ServiceInstance, ConnectionManager.ChannelPool> pools;
+
+        Snapshot(List<ServiceInstance> instances, Map<ServiceInstance, ConnectionManager.ChannelPool> pools) {
+            this.instances = instances;
+            this.pools = pools;
+        }
+
+        List<ServiceInstance> getInstances() {
+            return instances;
+        }
+
+        /**
+         * 获取实例的连接池，负载均衡返回了快照之外的实例时按地址查找已被路由引用的连接池
+         *
+         * @return 连接池，实例不被任何路由引用时返回null
+         */
+        ConnectionManager.ChannelPool pool(ServiceInstance instance) {
+            ConnectionManager.ChannelPool pool = pools.get(instance);
+            return pool != null ? pool
+                    : connectionManager.find(new InetSocketAddress(instance.getHost(), instance.getPort()));
+        }
+    }
+}
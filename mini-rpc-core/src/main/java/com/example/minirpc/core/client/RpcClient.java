@@ -2,6 +2,9 @@ package com.example.minirpc.core.client;
 
 import com.example.minirpc.core.protocol.RpcRequest;
 import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * RPC客户端接口
@@ -14,7 +17,61 @@ public interface RpcClient {
      * @param request RPC请求对象
      * @return RPC响应对象
      */
-    RpcResponse<?> send(RpcRequest request);
+    default RpcResponse<?> send(RpcRequest request) {
+        return send(request, CallOptions.DEFAULT);
+    }
+    
+    /**
+     * 按指定调用选项发送RPC请求并获取响应
+     * 
+     * @param request RPC请求对象
+     * @param options 调用选项
+     * @return RPC响应对象
+     */
+    RpcResponse<?> send(RpcRequest request, CallOptions options);
+    
+    /**
+     * 异步发送RPC请求，调用线程不会阻塞等待响应
+     * 
+     * @param request RPC请求对象
+     * @return 在收到响应时完成的future
+     */
+    default CompletableFuture<RpcResponse<?>> sendAsync(RpcRequest request) {
+        return sendAsync(request, CallOptions.DEFAULT);
+    }
+    
+    /**
+     * 按指定调用选项异步发送RPC请求，超时后future以TimeoutException异常完成
+     * 
+     * @param request RPC请求对象
+     * @param options 调用选项
+     * @return 在收到响应或超时时完成的future
+     */
+    CompletableFuture<RpcResponse<?>> sendAsync(RpcRequest request, CallOptions options);
+    
+    /**
+     * 发起流式调用，服务端按信用逐个发送元素，调用线程不会阻塞
+     * 
+     * @param request RPC请求对象
+     * @param options 调用选项，返回值类型为元素的声明类型，超时时间为等待每个元素的最长时间
+     * @return 逐个返回元素的流式调用
+     */
+    StreamCall openStream(RpcRequest request, CallOptions options);
+    
+    /**
+     * 序列化方式注册表，代理从这里启用服务引用指定的序列化方式，并声明接口方法的参数和返回值类型
+     */
+    SerializerRegistry getSerializers();
+
+    /**
+     * 调用结果缓存管理器，代理为带有@RpcCacheable注解的方法从这里获取缓存
+     */
+    ResultCacheManager getResultCacheManager();
+    
+    /**
+     * 调用合并器，启用调用合并的代理共享它，不同代理上的相同调用也会被合并
+     */
+    CallCoalescer getCallCoalescer();
     
     /**
      * 关闭客户端
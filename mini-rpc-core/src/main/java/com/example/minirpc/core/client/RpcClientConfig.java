@@ -0,0 +1,270 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.transport.SocketOptions;
+
+/**
+ * Netty RPC客户端配置
+ */
+public class RpcClientConfig {
+
+    /**
+     * 默认超时时间，单位毫秒
+     */
+    private long timeout = 5000;
+
+    /**
+     * 建立连接的超时时间，单位毫秒
+     */
+    private int connectTimeout = 5000;
+
+    /**
+     * 每个服务提供方地址的连接数
+     */
+    private int connectionsPerAddress = 1;
+
+    /**
+     * 连接上没有读到数据时发送心跳的间隔，单位毫秒，为0时不发送心跳
+     */
+    private long heartbeatInterval = 10000;
+
+    /**
+     * 连接上持续没有读到任何数据的最长时间，期间发出的心跳都没有得到回复，超过后判定连接已失效并关闭，单位毫秒，为0时不检测
+     */
+    private long heartbeatTimeout = 30000;
+
+    /**
+     * 调用方标识，随每个请求发送给服务端，用于按调用方限流，可以为null
+     */
+    private String application;
+
+    /**
+     * 是否启用@RpcCacheable方法的调用结果缓存
+     */
+    private boolean resultCacheEnabled = true;
+
+    /**
+     * 连接池内的连接选择策略
+     */
+    private ChannelSelectStrategy channelSelectStrategy = ChannelSelectStrategy.ROUND_ROBIN;
+
+    /**
+     * 服务实例间的负载均衡策略：round-robin、weighted-random、least-active 或 p2c-ewma
+     */
+    private String loadBalancer = "round-robin";
+
+    /**
+     * 期望的消息体压缩方式：none、gzip、snappy 或 lz4，连接建立时与服务端协商
+     */
+    private String compression = "none";
+
+    /**
+     * 消息体压缩阈值，单位字节，小于该值的请求不压缩
+     */
+    private int compressThreshold = 2048;
+
+    /**
+     * 一次合并的最大flush次数，达到后立即刷新；为0时不合并，每条消息单独刷新
+     */
+    private int maxFlushBatch = 256;
+
+    /**
+     * 是否把发往同一连接的请求合并为批量帧发送，需要服务端支持批量帧
+     */
+    private boolean batchEnabled = false;
+
+    /**
+     * 一个批量帧中的最大请求数
+     */
+    private int maxBatchSize = 32;
+
+    /**
+     * 第一个请求等待后续请求一起发送的最长时间，单位微秒，为0时只合并同一轮事件循环之前到达的请求
+     */
+    private long batchWindowMicros = 100;
+
+    /**
+     * 流式调用的信用窗口，即服务端最多可以提前发送、客户端最多缓冲的元素数
+     */
+    private int streamWindow = 64;
+
+    /**
+     * I/O线程数，为0时使用Netty默认值（CPU核数的2倍）
+     */
+    private int ioThreads = 0;
+
+    /**
+     * 最大帧长度（包含消息头），单位字节，长度字段超过该值的帧会导致连接关闭
+     */
+    private int maxFrameLength = RpcProtocol.DEFAULT_MAX_FRAME_LENGTH;
+
+    /**
+     * 单个连接上未完成的最大请求数，达到后新的请求立即以503失败
+     */
+    private int maxInflightPerConnection = 4096;
+
+    /**
+     * 套接字参数
+     */
+    private SocketOptions socket = new SocketOptions();
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getConnectionsPerAddress() {
+        return connectionsPerAddress;
+    }
+
+    public void setConnectionsPerAddress(int connectionsPerAddress) {
+        this.connectionsPerAddress = connectionsPerAddress;
+    }
+
+    public long getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(long heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public long getHeartbeatTimeout() {
+        return heartbeatTimeout;
+    }
+
+    public void setHeartbeatTimeout(long heartbeatTimeout) {
+        this.heartbeatTimeout = heartbeatTimeout;
+    }
+
+    public String getApplication() {
+        return application;
+    }
+
+    public void setApplication(String application) {
+        this.application = application;
+    }
+
+    public boolean isResultCacheEnabled() {
+        return resultCacheEnabled;
+    }
+
+    public void setResultCacheEnabled(boolean resultCacheEnabled) {
+        this.resultCacheEnabled = resultCacheEnabled;
+    }
+
+    public ChannelSelectStrategy getChannelSelectStrategy() {
+        return channelSelectStrategy;
+    }
+
+    public void setChannelSelectStrategy(ChannelSelectStrategy channelSelectStrategy) {
+        this.channelSelectStrategy = channelSelectStrategy;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(String compression) {
+        this.compression = compression;
+    }
+
+    public int getCompressThreshold() {
+        return compressThreshold;
+    }
+
+    public void setCompressThreshold(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    public int getMaxFlushBatch() {
+        return maxFlushBatch;
+    }
+
+    public void setMaxFlushBatch(int maxFlushBatch) {
+        this.maxFlushBatch = maxFlushBatch;
+    }
+
+    public boolean isBatchEnabled() {
+        return batchEnabled;
+    }
+
+    public void setBatchEnabled(boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getBatchWindowMicros() {
+        return batchWindowMicros;
+    }
+
+    public void setBatchWindowMicros(long batchWindowMicros) {
+        this.batchWindowMicros = batchWindowMicros;
+    }
+
+    public int getStreamWindow() {
+        return streamWindow;
+    }
+
+    public void setStreamWindow(int streamWindow) {
+        this.streamWindow = streamWindow;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    public void setMaxFrameLength(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    public int getMaxInflightPerConnection() {
+        return maxInflightPerConnection;
+    }
+
+    public void setMaxInflightPerConnection(int maxInflightPerConnection) {
+        this.maxInflightPerConnection = maxInflightPerConnection;
+    }
+
+    public SocketOptions getSocket() {
+        return socket;
+    }
+
+    public void setSocket(SocketOptions socket) {
+        this.socket = socket;
+    }
+
+    public String getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    public void setLoadBalancer(String loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+}
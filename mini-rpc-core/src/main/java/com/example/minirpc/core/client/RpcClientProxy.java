@@ -1,5 +1,7 @@
 package com.example.minirpc.core.client;
 
+import com.example.minirpc.core.annotation.RpcCacheable;
+import com.example.minirpc.core.protocol.MethodSignature;
 import com.example.minirpc.core.protocol.RpcRequest;
 import com.example.minirpc.core.protocol.RpcResponse;
 import org.slf4j.Logger;
@@ -7,8 +9,18 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
-import java.util.UUID;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * RPC客户端代理工厂，用于创建RPC服务接口的代理实现
@@ -19,10 +31,29 @@ public class RpcClientProxy {
     
     private final RpcClient client;
     private final String version;
+    private final CallOptions options;
+    private final boolean coalesce;
     
     public RpcClientProxy(RpcClient client, String version) {
+        this(client, version, 0, null);
+    }
+    
+    public RpcClientProxy(RpcClient client, String version, long timeout, String serializer) {
+        this(client, version, timeout, serializer, false);
+    }
+    
+    /**
+     * @param timeout 调用超时时间，单位毫秒，0表示使用客户端默认超时时间
+     * @param serializer 序列化方式名称，为空时使用客户端默认序列化方式
+     * @param coalesce 是否合并正在进行的相同调用（同一方法、相同参数），合并的调用共享同一个响应
+     */
+    public RpcClientProxy(RpcClient client, String version, long timeout, String serializer, boolean coalesce) {
         this.client = client;
         this.version = version;
+        this.coalesce = coalesce;
+        byte serializerType = serializer == null || serializer.isEmpty()
+                ? 0 : client.getSerializers().get(serializer).getType();
+        this.options = new CallOptions(timeout, serializerType, null);
     }
     
     /**
@@ -34,6 +65,7 @@ public class RpcClientProxy {
      */
     @SuppressWarnings("unchecked")
     public <T> T create(Class<T> interfaceClass) {
+        client.getSerializers().allowTypes(interfaceClass.getMethods());
         return (T) Proxy.newProxyInstance(
                 interfaceClass.getClassLoader(),
                 new Class<?>[] { interfaceClass },
@@ -47,6 +79,9 @@ public class RpcClientProxy {
     private class RpcInvocationHandler implements InvocationHandler {
         private final Class<?> interfaceClass;
         
+        // 每个方法预先解析的调用信息
+        private final Map<Method, MethodContext> methodContexts = new ConcurrentHashMap<>();
+        
         public RpcInvocationHandler(Class<?> interfaceClass) {
             this.interfaceClass = interfaceClass;
         }
@@ -58,18 +93,40 @@ public class RpcClientProxy {
                 return method.invoke(this, args);
             }
             
-            // 构建RPC请求
-            RpcRequest request = new RpcRequest();
-            request.setRequestId(UUID.randomUUID().toString());
-            request.setInterfaceName(interfaceClass.getName());
-            request.setMethodName(method.getName());
-            request.setParameterTypes(method.getParameterTypes());
-            request.setParameters(args);
+            MethodContext context = methodContexts.get(method);
+            if (context == null) {
+                context = methodContexts.computeIfAbsent(method, MethodContext::new);
+            }
             
-            logger.debug("发起RPC调用: {}.{}()", interfaceClass.getSimpleName(), method.getName());
+            // 返回Stream的方法走流式调用，元素在调用方消费时按信用逐个到达
+            if (context.stream) {
+                StreamCall call = client.openStream(newRequest(method, args), context.options);
+                return StreamSupport.stream(Spliterators.spliteratorUnknownSize(call, Spliterator.ORDERED), false)
+                        .onClose(call::close);
+            }
+            
+            // 命中结果缓存时不发起远程调用
+            ResultCache cache = context.cache;
+            if (cache != null) {
+                Object cached = cache.getIfPresent(args);
+                if (cached != null) {
+                    return context.async ? CompletableFuture.completedFuture(cached) : cached;
+                }
+            }
+            
+            // 返回CompletableFuture的方法走异步调用，不阻塞调用线程
+            if (context.async) {
+                CompletableFuture<Object> result = invokeAsync(sendAsync(context, method, args));
+                if (cache != null) {
+                    result.thenAccept(value -> cache.put(args, value));
+                }
+                return result;
+            }
             
             // 发送RPC请求
-            RpcResponse<?> response = client.send(request);
+            RpcResponse<?> response = context.coalescer == null
+                    ? client.send(newRequest(method, args), context.options)
+                    : await(sendAsync(context, method, args));
             
             // 处理响应
             if (response.getCode() != 0) {
@@ -77,7 +134,106 @@ public class RpcClientProxy {
                 throw new RuntimeException("RPC调用失败: " + response.getMessage());
             }
             
+            if (cache != null) {
+                cache.put(args, response.getData());
+            }
             return response.getData();
         }
+        
+        private RpcRequest newRequest(Method method, Object[] args) {
+            RpcRequest request = new RpcRequest();
+            request.setInterfaceName(interfaceClass.getName());
+            request.setMethodName(method.getName());
+            request.setParameterTypes(method.getParameterTypes());
+            request.setParameters(args);
+            logger.debug("发起RPC调用: {}.{}()", interfaceClass.getSimpleName(), method.getName());
+            return request;
+        }
+        
+        /**
+         * 异步发送请求，启用调用合并时已有相同调用正在进行则共享它的响应
+         */
+        private CompletableFuture<RpcResponse<?>> sendAsync(MethodContext context, Method method, Object[] args) {
+            if (context.coalescer == null) {
+                return client.sendAsync(newRequest(method, args), context.options);
+            }
+            return context.coalescer.execute(context.name, args,
+                    () -> client.sendAsync(newRequest(method, args), context.options));
+        }
+        
+        private RpcResponse<?> await(CompletableFuture<RpcResponse<?>> future) throws InterruptedException {
+            try {
+                // 超时由时间轮负责，这里无需限时等待
+                return future.get();
+            } catch (ExecutionException e) {
+                logger.error("发送RPC请求时发生异常", e.getCause());
+                return RpcResponse.fail(0, 500, "客户端异常: " + e.getCause().getMessage());
+            }
+        }
+        
+        private boolean isAsync(Method method) {
+            Class<?> returnType = method.getReturnType();
+            return returnType == CompletableFuture.class || returnType == CompletionStage.class;
+        }
+        
+        private boolean isStream(Method method) {
+            return method.getReturnType() == Stream.class;
+        }
+        
+        /**
+         * 响应数据的声明类型，异步方法取CompletableFuture的类型参数，流式方法取Stream的元素类型
+         */
+        private Type returnTypeOf(Method method) {
+            if (!isAsync(method) && !isStream(method)) {
+                return method.getGenericReturnType();
+            }
+            Type type = method.getGenericReturnType();
+            return type instanceof ParameterizedType
+                    ? ((ParameterizedType) type).getActualTypeArguments()[0] : Object.class;
+        }
+        
+        private CompletableFuture<Object> invokeAsync(CompletableFuture<RpcResponse<?>> future) {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            future.whenComplete((response, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else if (response.getCode() != 0) {
+                    logger.error("RPC调用失败: {} - {}", response.getCode(), response.getMessage());
+                    result.completeExceptionally(new RuntimeException("RPC调用失败: " + response.getMessage()));
+                } else {
+                    result.complete(response.getData());
+                }
+            });
+            return result;
+        }
+        
+        /**
+         * 方法的调用选项（携带返回值声明类型）、结果缓存和调用合并器，第一次调用时解析
+         */
+        private class MethodContext {
+            // 方法名称，格式为 接口名#方法签名
+            private final String name;
+            private final boolean async;
+            private final boolean stream;
+            private final CallOptions options;
+            
+            // 方法没有@RpcCacheable注解或客户端未启用缓存时为null
+            private final ResultCache cache;
+            
+            // 未启用调用合并时为null
+            private final CallCoalescer coalescer;
+            
+            MethodContext(Method method) {
+                this.name = interfaceClass.getName() + "#"
+                        + MethodSignature.of(method.getName(), method.getParameterTypes());
+                this.async = isAsync(method);
+                this.stream = isStream(method);
+                this.options = RpcClientProxy.this.options.withReturnType(returnTypeOf(method));
+                RpcCacheable cacheable = method.getAnnotation(RpcCacheable.class);
+                ResultCacheManager manager = client.getResultCacheManager();
+                this.cache = cacheable == null || manager == null ? null : manager.getOrCreate(name, cacheable);
+                this.coalescer = coalesce ? client.getCallCoalescer() : null;
+            }
+        }
     }
 }
@@ -0,0 +1,199 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcResponse;
+import io.netty.channel.Channel;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 客户端的流式调用，以阻塞迭代器的形式逐个返回服务端发送的元素
+ *
+ * <p>调用发起时授予服务端window个信用，调用方每消费一半窗口的元素就补充相应的信用，
+ * 客户端缓冲的元素数不会超过窗口大小。迭代器只能由一个线程使用，没有消费完时应调用close取消调用。
+ */
+public class StreamCall implements Iterator<Object>, AutoCloseable {
+
+    private final long requestId;
+    private final Type elementType;
+    private final long timeout;
+    private final int window;
+
+    // 调用结束（正常结束、失败或取消）时的回调，用于从未完成的流式调用表中移除
+    private final Runnable onFinish;
+
+    // 收到的元素帧和结束响应帧
+    private final BlockingQueue<RpcMessage> queue = new LinkedBlockingQueue<>();
+
+    private volatile Channel channel;
+    private volatile byte serializerType;
+    private volatile boolean finished;
+
+    private Object next;
+    private boolean ready;
+
+    // 已消费但还未补充给服务端的信用
+    private int consumed;
+
+    /**
+     * @param elementType 元素的声明类型
+     * @param timeout 等待每个元素的最长时间，单位毫秒
+     * @param window 服务端最多可以提前发送的元素数
+     */
+    StreamCall(long requestId, Type elementType, long timeout, int window, Runnable onFinish) {
+        this.requestId = requestId;
+        this.elementType = elementType;
+        this.timeout = timeout;
+        this.window = Math.max(1, window);
+        this.onFinish = onFinish;
+    }
+
+    long getRequestId() {
+        return requestId;
+    }
+
+    Type getElementType() {
+        return elementType;
+    }
+
+    Channel getChannel() {
+        return channel;
+    }
+
+    int getWindow() {
+        return window;
+    }
+
+    /**
+     * 请求写出的连接，之后的信用和取消帧都发往这个连接；调用结束前计入连接上未完成的请求数
+     *
+     * @return 写出请求前调用方已经取消时返回false，不必再写出请求
+     */
+    boolean attach(Channel channel, byte serializerType) {
+        synchronized (this) {
+            this.serializerType = serializerType;
+            this.channel = channel;
+            if (finished) {
+                return false;
+            }
+            ConnectionManager.incrementPending(channel);
+            return true;
+        }
+    }
+
+    /**
+     * 收到元素帧或结束响应帧，在I/O线程上调用
+     */
+    void onMessage(RpcMessage message) {
+        queue.offer(message);
+    }
+
+    /**
+     * 本地结束调用，如连接失败或断开
+     */
+    void fail(int code, String message) {
+        queue.offer(new RpcMessage(RpcProtocol.TYPE_RESPONSE, serializerType, RpcProtocol.STATUS_ERROR,
+                requestId, RpcResponse.fail(requestId, code, message)));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (ready) {
+            return true;
+        }
+        if (finished) {
+            return false;
+        }
+        RpcMessage message;
+        try {
+            message = queue.poll(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("等待流式响应时被中断: " + requestId, e);
+        }
+        if (message == null) {
+            close();
+            throw new RuntimeException("RPC调用失败: 等待流式响应超时, 超时时间: " + timeout + "ms",
+                    new TimeoutException("RPC请求超时: " + requestId));
+        }
+        RpcResponse<?> response = (RpcResponse<?>) message.getBody();
+        if (message.getMessageType() == RpcProtocol.TYPE_STREAM_CHUNK && response != null) {
+            next = response.getData();
+            ready = true;
+            return true;
+        }
+        finish();
+        if (response == null) {
+            throw new RuntimeException("RPC调用失败: 无法解析的RPC响应, 状态: " + message.getStatus());
+        }
+        if (response.getCode() != null && response.getCode() != 0) {
+            throw new RuntimeException("RPC调用失败: " + response.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    public Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ready = false;
+        Object value = next;
+        next = null;
+        if (++consumed >= Math.max(1, window / 2)) {
+            grant(consumed);
+            consumed = 0;
+        }
+        return value;
+    }
+
+    /**
+     * 取消还没有结束的调用，服务端停止发送并关闭Stream
+     */
+    @Override
+    public void close() {
+        if (finished) {
+            return;
+        }
+        finish();
+        Channel current = channel;
+        if (current != null) {
+            cancel(current);
+        }
+    }
+
+    private void finish() {
+        Channel current;
+        synchronized (this) {
+            finished = true;
+            current = channel;
+        }
+        if (current != null) {
+            ConnectionManager.decrementPending(current);
+        }
+        onFinish.run();
+    }
+
+    private void grant(int credits) {
+        Channel current = channel;
+        if (current != null && current.isActive()) {
+            current.writeAndFlush(new RpcMessage(RpcProtocol.TYPE_STREAM_CREDIT, serializerType,
+                    RpcProtocol.STATUS_OK, requestId, credits));
+        }
+    }
+
+    private void cancel(Channel current) {
+        if (current.isActive()) {
+            current.writeAndFlush(new RpcMessage(RpcProtocol.TYPE_STREAM_CANCEL, serializerType,
+                    RpcProtocol.STATUS_OK, requestId, null));
+        }
+    }
+}
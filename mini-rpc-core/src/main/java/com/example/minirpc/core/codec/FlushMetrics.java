@@ -0,0 +1,59 @@
+package com.example.minirpc.core.codec;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 刷新统计，记录实际落到套接字的flush次数和每次flush合并的消息数
+ */
+public class FlushMetrics {
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder messages = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+
+    void record(int batchSize) {
+        flushes.increment();
+        messages.add(batchSize);
+        maxBatchSize.accumulate(batchSize);
+    }
+
+    /**
+     * 实际执行的flush次数
+     */
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    /**
+     * 已刷新的消息数
+     */
+    public long getMessageCount() {
+        return messages.sum();
+    }
+
+    /**
+     * 平均每次flush合并的消息数
+     */
+    public double getAverageBatchSize() {
+        long count = flushes.sum();
+        return count == 0 ? 0 : (double) messages.sum() / count;
+    }
+
+    /**
+     * 单次flush合并的最大消息数
+     */
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    @Override
+    public String toString() {
+        return "FlushMetrics{" +
+                "flushCount=" + getFlushCount() +
+                ", messageCount=" + getMessageCount() +
+                ", averageBatchSize=" + String.format("%.2f", getAverageBatchSize()) +
+                ", maxBatchSize=" + getMaxBatchSize() +
+                '}';
+    }
+}
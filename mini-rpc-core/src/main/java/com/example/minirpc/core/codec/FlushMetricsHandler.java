@@ -0,0 +1,35 @@
+package com.example.minirpc.core.codec;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * 统计每次flush合并的消息数，需放在FlushConsolidationHandler与套接字之间，每个连接一个实例
+ */
+public class FlushMetricsHandler extends ChannelOutboundHandlerAdapter {
+
+    private final FlushMetrics metrics;
+
+    // 自上次flush以来写出的消息数，只在I/O线程上访问
+    private int pending;
+
+    public FlushMetricsHandler(FlushMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        pending++;
+        super.write(ctx, msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) throws Exception {
+        if (pending > 0) {
+            metrics.record(pending);
+            pending = 0;
+        }
+        super.flush(ctx);
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.minirpc.core.codec;
+
+import com.example.minirpc.core.compress.Compressor;
+import com.example.minirpc.core.compress.CompressorRegistry;
+import com.example.minirpc.core.protocol.RpcAttachment;
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.serialize.Serializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import com.example.minirpc.core.serialize.TypeResolver;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RPC解码器，按消息头中的长度字段切分完整帧，校验消息头后直接从帧切片反序列化消息体
+ *
+ * <p>标志位中带有压缩方式的消息体先解压到临时缓冲区再反序列化。帧长度和解压后的消息体长度都不能超过最大帧长度，
+ * 长度字段超限时立即抛出TooLongFrameException，不会等待或分配整帧的内存。
+ * 批量帧解码为条目的RpcMessage列表，每个条目按自身的序列化方式和请求ID解析。
+ * 带有附件的帧只反序列化序列化部分，附件是帧的切片，由附件的使用方释放。
+ */
+public class RpcMessageDecoder extends LengthFieldBasedFrameDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RpcMessageDecoder.class);
+
+    private final SerializerRegistry serializers;
+    private final CompressorRegistry compressors;
+    private final TypeResolver typeResolver;
+    private final int maxFrameLength;
+
+    public RpcMessageDecoder(SerializerRegistry serializers, TypeResolver typeResolver) {
+        this(serializers, null, typeResolver);
+    }
+
+    public RpcMessageDecoder(SerializerRegistry serializers, CompressorRegistry compressors,
+                             TypeResolver typeResolver) {
+        this(serializers, compressors, typeResolver, RpcProtocol.DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * @param serializers 序列化方式注册表
+     * @param compressors 压缩方式注册表，为null时不接受压缩的消息体
+     * @param typeResolver 消息体类型解析器，可以为null
+     * @param maxFrameLength 最大帧长度（包含消息头），单位字节
+     */
+    public RpcMessageDecoder(SerializerRegistry serializers, CompressorRegistry compressors,
+                             TypeResolver typeResolver, int maxFrameLength) {
+        super(maxFrameLength, RpcProtocol.LENGTH_FIELD_OFFSET, 4, 0, 0, true);
+        this.serializers = serializers;
+        this.compressors = compressors;
+        this.typeResolver = typeResolver;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+        // 魔数或版本不匹配说明对端不是本协议，直接断开连接，不必等待整帧到达
+        if (in.readableBytes() >= 3) {
+            int start = in.readerIndex();
+            short magic = in.getShort(start);
+            if (magic != RpcProtocol.MAGIC) {
+                throw new CorruptedFrameException("非法的魔数: " + Integer.toHexString(magic & 0xFFFF));
+            }
+            byte version = in.getByte(start + 2);
+            if (version > RpcProtocol.VERSION) {
+                throw new CorruptedFrameException("不支持的协议版本: " + version);
+            }
+        }
+
+        // 完整帧是输入缓冲区的切片，没有内存拷贝
+        ByteBuf frame = (ByteBuf) super.decode(ctx, in);
+        if (frame == null) {
+            return null;
+        }
+        try {
+            return decodeFrame(frame, ctx.alloc());
+        } finally {
+            frame.release();
+        }
+    }
+
+    private Object decodeFrame(ByteBuf frame, ByteBufAllocator alloc) {
+        frame.skipBytes(3);
+        RpcMessage message = new RpcMessage();
+        message.setMessageType(frame.readByte());
+        message.setSerializerType(frame.readByte());
+        message.setFlags(frame.readByte());
+        message.setStatus(frame.readByte());
+        message.setRequestId(frame.readLong());
+        int length = frame.readInt();
+
+        Serializer serializer = serializers.get(message.getSerializerType());
+        if (serializer == null) {
+            // 不认识的序列化方式，忽略消息体，交由上层处理器按消息头拒绝
+            logger.warn("不支持的序列化方式: {}", message);
+            return message;
+        }
+        if (length <= 0) {
+            return message;
+        }
+        if ((message.getFlags() & RpcProtocol.FLAG_ATTACHMENT) == 0) {
+            message.setBody(decodePayload(frame, length, serializer, message, alloc));
+            return message;
+        }
+
+        int serializedLength = frame.readInt();
+        if (serializedLength < 0 || serializedLength > frame.readableBytes()) {
+            throw new CorruptedFrameException("非法的消息体长度: " + serializedLength);
+        }
+        message.setBody(decodePayload(frame.readSlice(serializedLength), serializedLength, serializer, message, alloc));
+        bindAttachments(frame, message);
+        return message;
+    }
+
+    /**
+     * 解压（如果需要）并反序列化消息体的序列化部分，压缩方式不受支持时返回null
+     */
+    private Object decodePayload(ByteBuf payload, int length, Serializer serializer, RpcMessage message,
+                                 ByteBufAllocator alloc) {
+        int compressType = message.getFlags() & RpcProtocol.FLAG_COMPRESS_MASK;
+        if (compressType == 0) {
+            return decodeBody(payload, serializer, message.getMessageType(), message.getRequestId());
+        }
+
+        Compressor compressor = compressors == null ? null : compressors.get(compressType);
+        if (compressor == null) {
+            logger.warn("不支持的压缩方式: {}", message);
+            return null;
+        }
+        // 限制缓冲区的最大容量，解压后超过最大帧长度的消息体（如压缩炸弹）在写入时失败
+        ByteBuf body = alloc.buffer((int) Math.min(2L * length, maxFrameLength), maxFrameLength);
+        try {
+            compressor.decompress(payload, body);
+            return decodeBody(body, serializer, message.getMessageType(), message.getRequestId());
+        } finally {
+            body.release();
+        }
+    }
+
+    /**
+     * 把附件作为帧的切片（不拷贝）放回请求参数或响应数据的位置，无法放回的附件直接释放
+     */
+    private void bindAttachments(ByteBuf frame, RpcMessage message) {
+        int count = frame.readInt();
+        if (count < 0 || count > frame.readableBytes() / 8) {
+            throw new CorruptedFrameException("非法的附件数: " + count);
+        }
+        int[] indexes = new int[count];
+        int[] lengths = new int[count];
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            indexes[i] = frame.readInt();
+            lengths[i] = frame.readInt();
+            if (lengths[i] < 0) {
+                throw new CorruptedFrameException("非法的附件长度: " + lengths[i]);
+            }
+            total += lengths[i];
+        }
+        if (total > frame.readableBytes()) {
+            throw new CorruptedFrameException("附件长度超出帧长度: " + total);
+        }
+
+        Object body = message.getBody();
+        for (int i = 0; i < count; i++) {
+            RpcAttachment attachment = RpcAttachment.of(frame.readRetainedSlice(lengths[i]));
+            int index = indexes[i];
+            if (body instanceof RpcRequest && ((RpcRequest) body).getParameters() != null
+                    && index >= 0 && index < ((RpcRequest) body).getParameters().length) {
+                ((RpcRequest) body).getParameters()[index] = attachment;
+            } else if (body instanceof RpcResponse && index == RpcProtocol.ATTACHMENT_DATA_INDEX) {
+                @SuppressWarnings("unchecked")
+                RpcResponse<Object> response = (RpcResponse<Object>) body;
+                response.setData(attachment);
+            } else {
+                attachment.release();
+            }
+        }
+    }
+
+    private Object decodeBody(ByteBuf frame, Serializer serializer, byte messageType, long requestId) {
+        switch (messageType) {
+            case RpcProtocol.TYPE_REQUEST:
+                return serializer.deserializeRequest(frame, typeResolver);
+            case RpcProtocol.TYPE_RESPONSE:
+            case RpcProtocol.TYPE_STREAM_CHUNK:
+                Type dataType = typeResolver == null ? null : typeResolver.resolveReturnType(requestId);
+                return serializer.deserializeResponse(frame, dataType);
+            case RpcProtocol.TYPE_STREAM_CREDIT:
+                return serializer.deserialize(frame, Integer.class);
+            case RpcProtocol.TYPE_BATCH_REQUEST:
+                return decodeBatch(frame, RpcProtocol.TYPE_REQUEST);
+            case RpcProtocol.TYPE_BATCH_RESPONSE:
+                return decodeBatch(frame, RpcProtocol.TYPE_RESPONSE);
+            default:
+                // 不认识的消息类型，忽略消息体
+                logger.warn("无法解析的消息体, 类型: {}, 请求ID: {}", messageType, requestId);
+                return null;
+        }
+    }
+
+    private List<RpcMessage> decodeBatch(ByteBuf frame, byte itemType) {
+        int count = frame.readInt();
+        // 条目数不能超过剩余字节能容纳的条目头部数，避免按非法的条目数分配内存
+        if (count < 0 || count > frame.readableBytes() / RpcProtocol.BATCH_ITEM_HEADER_LENGTH) {
+            throw new CorruptedFrameException("非法的批量条目数: " + count);
+        }
+        List<RpcMessage> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RpcMessage item = new RpcMessage();
+            item.setMessageType(itemType);
+            item.setRequestId(frame.readLong());
+            item.setSerializerType(frame.readByte());
+            item.setStatus(frame.readByte());
+            int length = frame.readInt();
+            if (length < 0 || length > frame.readableBytes()) {
+                throw new CorruptedFrameException("非法的批量条目长度: " + length);
+            }
+            ByteBuf body = frame.readSlice(length);
+            Serializer serializer = serializers.get(item.getSerializerType());
+            if (serializer == null) {
+                logger.warn("不支持的序列化方式: {}", item);
+            } else if (length > 0) {
+                item.setBody(decodeBody(body, serializer, itemType, item.getRequestId()));
+            }
+            items.add(item);
+        }
+        return items;
+    }
+}
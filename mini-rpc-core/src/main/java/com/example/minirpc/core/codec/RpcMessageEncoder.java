@@ -0,0 +1,242 @@
+package com.example.minirpc.core.codec;
+
+import com.example.minirpc.core.compress.Compressor;
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.serialize.Serializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import com.example.minirpc.core.protocol.RpcAttachment;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.PromiseCombiner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RPC编码器，将协议帧写为 消息头 + 消息体 的字节流
+ *
+ * <p>消息体直接序列化到池化的直接内存缓冲区中，写完后再回填长度字段。
+ * 连接协商了压缩方式时，超过阈值的消息体会被压缩，压缩后没有变小则按原样发送。
+ * 批量帧的条目按各自的序列化方式依次写入，每个条目写完后回填条目长度。
+ *
+ * <p>带有二进制附件的消息先写出消息头、序列化部分和附件表，再把每个附件的缓冲区或FileRegion原样写出，
+ * 附件内容不经过编码缓冲区。整帧长度超过最大帧长度时直接以失败结束写出，不会发给对端：
+ * 接收方会把整帧缓冲在内存中，超长的帧会让对端关闭连接，连接上所有的调用都会失败。
+ */
+public class RpcMessageEncoder extends MessageToByteEncoder<RpcMessage> {
+
+    /**
+     * 连接上协商好的压缩方式，未设置时不压缩
+     */
+    public static final AttributeKey<Compressor> COMPRESSOR = AttributeKey.valueOf("mini.rpc.compressor");
+
+    private final SerializerRegistry serializers;
+
+    /**
+     * 消息体压缩阈值，单位字节
+     */
+    private final int compressThreshold;
+
+    /**
+     * 带有附件的帧的最大长度（包含消息头），单位字节
+     */
+    private final int maxFrameLength;
+
+    public RpcMessageEncoder(SerializerRegistry serializers) {
+        this(serializers, Integer.MAX_VALUE);
+    }
+
+    public RpcMessageEncoder(SerializerRegistry serializers, int compressThreshold) {
+        this(serializers, compressThreshold, RpcProtocol.DEFAULT_MAX_FRAME_LENGTH);
+    }
+
+    /**
+     * @param maxFrameLength 带有附件的帧的最大长度（包含消息头），应与对端解码器的最大帧长度一致
+     */
+    public RpcMessageEncoder(SerializerRegistry serializers, int compressThreshold, int maxFrameLength) {
+        this.serializers = serializers;
+        this.compressThreshold = compressThreshold;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        if (msg instanceof RpcMessage && hasAttachments((RpcMessage) msg)) {
+            writeWithAttachments(ctx, (RpcMessage) msg, promise);
+        } else {
+            super.write(ctx, msg, promise);
+        }
+    }
+
+    /**
+     * 判断请求参数或响应数据中是否有二进制附件
+     */
+    public static boolean hasAttachments(RpcMessage message) {
+        Object body = message.getBody();
+        if (body instanceof RpcRequest) {
+            return RpcAttachment.containsAny(((RpcRequest) body).getParameters());
+        }
+        return body instanceof RpcResponse && ((RpcResponse<?>) body).getData() instanceof RpcAttachment;
+    }
+
+    private void writeWithAttachments(ChannelHandlerContext ctx, RpcMessage message, ChannelPromise promise) {
+        // 从消息体中取出附件，序列化部分中附件的位置为null；序列化浅拷贝，不修改调用方的请求和响应
+        List<Integer> indexes = new ArrayList<>();
+        List<RpcAttachment> attachments = new ArrayList<>();
+        Object body;
+        if (message.getBody() instanceof RpcRequest) {
+            RpcRequest request = (RpcRequest) message.getBody();
+            Object[] parameters = request.getParameters().clone();
+            for (int i = 0; i < parameters.length; i++) {
+                if (parameters[i] instanceof RpcAttachment) {
+                    indexes.add(i);
+                    attachments.add((RpcAttachment) parameters[i]);
+                    parameters[i] = null;
+                }
+            }
+            RpcRequest copy = new RpcRequest(request.getRequestId(), request.getInterfaceName(),
+                    request.getMethodName(), request.getParameterTypes(), parameters);
+            copy.setCaller(request.getCaller());
+            body = copy;
+        } else {
+            RpcResponse<?> response = (RpcResponse<?>) message.getBody();
+            indexes.add(RpcProtocol.ATTACHMENT_DATA_INDEX);
+            attachments.add((RpcAttachment) response.getData());
+            body = new RpcResponse<>(response.getRequestId(), response.getCode(), response.getMessage(), null);
+        }
+
+        ByteBuf out = null;
+        try {
+            Serializer serializer = serializers.get(message.getSerializerType());
+            if (serializer == null) {
+                throw new EncoderException("不支持的序列化方式: " + message.getSerializerType());
+            }
+            out = ctx.alloc().ioBuffer();
+            int start = out.writerIndex();
+            writeHeader(message, out);
+            out.setByte(start + RpcProtocol.FLAGS_OFFSET, message.getFlags() | RpcProtocol.FLAG_ATTACHMENT);
+            int serializedStart = out.writerIndex();
+            out.writeInt(0);
+            serializer.serialize(body, out);
+            compress(ctx, out, start, serializedStart + 4);
+            out.setInt(serializedStart, out.writerIndex() - serializedStart - 4);
+
+            long length = out.writerIndex() - start - RpcProtocol.HEADER_LENGTH + 4L + 8L * attachments.size();
+            out.writeInt(attachments.size());
+            for (int i = 0; i < attachments.size(); i++) {
+                out.writeInt(indexes.get(i));
+                out.writeInt((int) attachments.get(i).length());
+                length += attachments.get(i).length();
+            }
+            if (length + RpcProtocol.HEADER_LENGTH > maxFrameLength) {
+                throw new EncoderException("帧长度 " + (length + RpcProtocol.HEADER_LENGTH)
+                        + " 字节超过最大帧长度 " + maxFrameLength + " 字节，附件过大");
+            }
+            out.setInt(start + RpcProtocol.LENGTH_FIELD_OFFSET, (int) length);
+        } catch (RuntimeException e) {
+            if (out != null) {
+                out.release();
+            }
+            attachments.forEach(RpcAttachment::release);
+            promise.setFailure(e instanceof EncoderException ? e : new EncoderException(e));
+            return;
+        }
+
+        PromiseCombiner combiner = new PromiseCombiner(ctx.executor());
+        combiner.add(ctx.write(out));
+        for (RpcAttachment attachment : attachments) {
+            combiner.add(ctx.write(attachment.transferable()));
+        }
+        combiner.finish(promise);
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, RpcMessage message, ByteBuf out) {
+        Serializer serializer = serializers.get(message.getSerializerType());
+        if (serializer == null) {
+            throw new EncoderException("不支持的序列化方式: " + message.getSerializerType());
+        }
+
+        int start = out.writerIndex();
+        writeHeader(message, out);
+
+        if (message.getBody() != null) {
+            if (message.getMessageType() == RpcProtocol.TYPE_BATCH_REQUEST
+                    || message.getMessageType() == RpcProtocol.TYPE_BATCH_RESPONSE) {
+                @SuppressWarnings("unchecked")
+                List<RpcMessage> items = (List<RpcMessage>) message.getBody();
+                encodeBatch(items, out);
+            } else {
+                serializer.serialize(message.getBody(), out);
+            }
+            compress(ctx, out, start, start + RpcProtocol.HEADER_LENGTH);
+        }
+        out.setInt(start + RpcProtocol.LENGTH_FIELD_OFFSET, out.writerIndex() - start - RpcProtocol.HEADER_LENGTH);
+    }
+
+    private void writeHeader(RpcMessage message, ByteBuf out) {
+        out.writeShort(RpcProtocol.MAGIC);
+        out.writeByte(RpcProtocol.VERSION);
+        out.writeByte(message.getMessageType());
+        out.writeByte(message.getSerializerType());
+        out.writeByte(message.getFlags());
+        out.writeByte(message.getStatus());
+        out.writeLong(message.getRequestId());
+        // 长度占位，序列化完成后回填
+        out.writeInt(0);
+    }
+
+    private void encodeBatch(List<RpcMessage> items, ByteBuf out) {
+        out.writeInt(items.size());
+        for (RpcMessage item : items) {
+            Serializer serializer = serializers.get(item.getSerializerType());
+            if (serializer == null) {
+                throw new EncoderException("不支持的序列化方式: " + item.getSerializerType());
+            }
+            out.writeLong(item.getRequestId());
+            out.writeByte(item.getSerializerType());
+            out.writeByte(item.getStatus());
+            int lengthIndex = out.writerIndex();
+            out.writeInt(0);
+            if (item.getBody() != null) {
+                serializer.serialize(item.getBody(), out);
+            }
+            out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+        }
+    }
+
+    /**
+     * 从bodyStart开始的消息体超过阈值时原地替换为压缩后的数据，并在标志位中记录压缩方式
+     */
+    private void compress(ChannelHandlerContext ctx, ByteBuf out, int start, int bodyStart) {
+        int bodyLength = out.writerIndex() - bodyStart;
+        if (bodyLength < compressThreshold) {
+            return;
+        }
+        Compressor compressor = ctx.channel().attr(COMPRESSOR).get();
+        if (compressor == null) {
+            return;
+        }
+
+        ByteBuf compressed = ctx.alloc().buffer(bodyLength);
+        try {
+            compressor.compress(out.slice(bodyStart, bodyLength), compressed);
+            if (compressed.readableBytes() >= bodyLength) {
+                return;
+            }
+            out.writerIndex(bodyStart);
+            out.writeBytes(compressed);
+            int flags = out.getByte(start + RpcProtocol.FLAGS_OFFSET) & ~RpcProtocol.FLAG_COMPRESS_MASK;
+            out.setByte(start + RpcProtocol.FLAGS_OFFSET, flags | compressor.getType());
+        } finally {
+            compressed.release();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.minirpc.core.compress;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 消息体压缩接口
+ *
+ * <p>实现通过 META-INF/services/com.example.minirpc.core.compress.Compressor 声明，
+ * 由 {@link CompressorRegistry} 发现。
+ */
+public interface Compressor {
+
+    /**
+     * 压缩方式标识，写入消息头标志位的低3位，取值1~7，0表示未压缩
+     */
+    byte getType();
+
+    /**
+     * 压缩方式名称，用于配置
+     */
+    String getName();
+
+    /**
+     * 压缩in中的可读字节并写入out
+     */
+    void compress(ByteBuf in, ByteBuf out);
+
+    /**
+     * 解压in中的可读字节并写入out
+     */
+    void decompress(ByteBuf in, ByteBuf out);
+}
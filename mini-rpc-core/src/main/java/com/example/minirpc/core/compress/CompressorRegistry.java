@@ -0,0 +1,82 @@
+package com.example.minirpc.core.compress;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 压缩方式注册表，以消息头标志位中的压缩标识查找压缩实现
+ *
+ * <p>通过 {@link ServiceLoader} 发现 META-INF/services/com.example.minirpc.core.compress.Compressor 中声明的实现。
+ */
+public class CompressorRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressorRegistry.class);
+
+    /**
+     * 表示不压缩的名称
+     */
+    public static final String NONE = "none";
+
+    // 按标识索引，标识占3位
+    private final Compressor[] compressors = new Compressor[8];
+    private final Map<String, Compressor> compressorsByName = new ConcurrentHashMap<>();
+
+    public CompressorRegistry() {
+        Iterator<Compressor> iterator = ServiceLoader.load(
+                Compressor.class, CompressorRegistry.class.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                register(iterator.next());
+            } catch (ServiceConfigurationError | LinkageError e) {
+                logger.warn("跳过无法加载的压缩实现: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 注册压缩方式，同标识的已有实现会被替换
+     */
+    public void register(Compressor compressor) {
+        int type = compressor.getType();
+        if (type <= 0 || type >= compressors.length) {
+            throw new IllegalArgumentException("压缩方式标识必须在1~7之间: " + compressor.getClass().getName());
+        }
+        compressors[type] = compressor;
+        compressorsByName.put(compressor.getName(), compressor);
+    }
+
+    /**
+     * 按标识获取压缩方式
+     *
+     * @return 压缩实现，标识为0或不存在时返回null
+     */
+    public Compressor get(int type) {
+        return type <= 0 || type >= compressors.length ? null : compressors[type];
+    }
+
+    /**
+     * 按名称获取压缩方式
+     *
+     * @return 压缩实现，名称为空或none时返回null
+     * @throws IllegalArgumentException 不存在该名称的压缩方式
+     */
+    public Compressor get(String name) {
+        if (name == null || name.isEmpty() || NONE.equals(name)) {
+            return null;
+        }
+        Compressor compressor = compressorsByName.get(name);
+        if (compressor == null) {
+            throw new IllegalArgumentException("不支持的压缩方式: " + name + ", 可选: " + compressorsByName.keySet());
+        }
+        return compressor;
+    }
+}
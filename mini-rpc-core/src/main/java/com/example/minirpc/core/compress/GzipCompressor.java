@@ -0,0 +1,53 @@
+package com.example.minirpc.core.compress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.handler.codec.compression.DecompressionException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip压缩，压缩率高但CPU开销较大，适合跨机房的大消息
+ */
+public class GzipCompressor implements Compressor {
+
+    public static final byte TYPE = 1;
+
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    @Override
+    public String getName() {
+        return "gzip";
+    }
+
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(new ByteBufOutputStream(out))) {
+            in.readBytes(gzip, in.readableBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("gzip压缩失败", e);
+        }
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteBufInputStream(in))) {
+            int chunk;
+            while ((chunk = Math.min(8192, out.maxWritableBytes())) > 0 && out.writeBytes(gzip, chunk) > 0) {
+                // 读到流结束或写满缓冲区
+            }
+            if (gzip.read() != -1) {
+                throw new DecompressionException("gzip解压后的数据超过缓冲区的最大容量: " + out.maxCapacity());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("gzip解压失败", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.minirpc.core.compress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.compression.DecompressionException;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * LZ4压缩，压缩和解压速度最快，适合对延迟敏感的调用
+ *
+ * <p>格式为 原始长度(4B) + LZ4块数据。
+ */
+public class Lz4Compressor implements Compressor {
+
+    public static final byte TYPE = 3;
+
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+
+    public Lz4Compressor() {
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+    }
+
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    @Override
+    public String getName() {
+        return "lz4";
+    }
+
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        int length = in.readableBytes();
+        int maxLength = compressor.maxCompressedLength(length);
+        out.writeInt(length);
+        out.ensureWritable(maxLength);
+
+        ByteBuffer src = in.nioBuffer(in.readerIndex(), length);
+        ByteBuffer dest = out.nioBuffer(out.writerIndex(), maxLength);
+        int written = compressor.compress(src, 0, length, dest, 0, maxLength);
+        in.skipBytes(length);
+        out.writerIndex(out.writerIndex() + written);
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        int length = in.readInt();
+        if (length < 0 || length > out.maxWritableBytes()) {
+            throw new DecompressionException("非法的LZ4原始长度: " + length);
+        }
+        out.ensureWritable(length);
+
+        // 原始长度来自对端，使用安全的解压器按输入长度解压并校验结果，避免按声明的长度越界读取
+        int compressedLength = in.readableBytes();
+        ByteBuffer src = in.nioBuffer(in.readerIndex(), compressedLength);
+        ByteBuffer dest = out.nioBuffer(out.writerIndex(), length);
+        int written;
+        try {
+            written = decompressor.decompress(src, 0, compressedLength, dest, 0, length);
+        } catch (LZ4Exception e) {
+            throw new DecompressionException("LZ4解压失败", e);
+        }
+        if (written != length) {
+            throw new DecompressionException("LZ4解压长度不一致，声明: " + length + "，实际: " + written);
+        }
+        in.skipBytes(compressedLength);
+        out.writerIndex(out.writerIndex() + length);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.minirpc.core.compress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.compression.Snappy;
+
+/**
+ * Snappy压缩，使用Netty内置的实现，速度快、压缩率适中
+ *
+ * <p>Netty的Snappy块编码只支持32KB以内的输入，因此按块压缩，格式为若干个 块长度(4B) + Snappy块数据。
+ */
+public class SnappyCompressor implements Compressor {
+
+    public static final byte TYPE = 2;
+
+    private static final int BLOCK_SIZE = 32 * 1024;
+
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    @Override
+    public String getName() {
+        return "snappy";
+    }
+
+    @Override
+    public void compress(ByteBuf in, ByteBuf out) {
+        // Snappy实例带有编解码状态，不能在线程间共享
+        Snappy snappy = new Snappy();
+        while (in.isReadable()) {
+            int lengthIndex = out.writerIndex();
+            out.writeInt(0);
+            int length = Math.min(BLOCK_SIZE, in.readableBytes());
+            snappy.encode(in.readSlice(length), out, length);
+            out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+            snappy.reset();
+        }
+    }
+
+    @Override
+    public void decompress(ByteBuf in, ByteBuf out) {
+        Snappy snappy = new Snappy();
+        while (in.isReadable()) {
+            snappy.decode(in.readSlice(in.readInt()), out);
+            snappy.reset();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.minirpc.core.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于延迟梯度的自适应并发限制器
+ *
+ * <p>按时间窗口统计请求的平均延迟（短期延迟），并与长期指数加权平均延迟比较：
+ * 短期延迟没有明显超过长期延迟时逐步放大并发上限，出现排队导致延迟上升时按比例收缩；
+ * 业务线程池拒绝请求时直接退让。请求数远低于上限时不调整，避免低负载下上限无限增长。
+ *
+ * <p>获取许可只有一次CAS，样本用LongAdder累加，窗口结束时由一个线程计算新的上限。
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * 统计窗口的最短时间
+     */
+    private static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * 统计窗口的最少样本数，样本不足时延长窗口
+     */
+    private static final int WINDOW_MIN_SAMPLES = 10;
+
+    /**
+     * 长期延迟的平滑窗口（以统计窗口计）
+     */
+    private static final int LONG_WINDOW = 600;
+
+    /**
+     * 短期延迟超过长期延迟的容忍倍数，在此范围内不收缩
+     */
+    private static final double RTT_TOLERANCE = 1.5;
+
+    /**
+     * 新上限与旧上限的平滑系数
+     */
+    private static final double SMOOTHING = 0.2;
+
+    /**
+     * 出现拒绝时的退让系数
+     */
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+
+    // 当前窗口的统计
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAccumulator maxInflight = new LongAccumulator(Math::max, 0);
+    private volatile boolean dropped;
+    private volatile long windowStart = System.nanoTime();
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    // 只由窗口结束时的计算线程访问
+    private double estimatedLimit;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit <= 0 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("无效的并发上限范围: [" + minLimit + ", " + maxLimit + "]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 尝试获取许可，成功后必须调用 {@link #release(long)} 或 {@link #releaseDropped()}
+     *
+     * @return 进行中的请求数已达上限时返回false
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                maxInflight.accumulate(current + 1);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 请求处理完成，释放许可并记录延迟样本
+     *
+     * @param rttNanos 从请求到达到响应生成的耗时，包含排队时间
+     */
+    public void release(long rttNanos) {
+        inflight.decrementAndGet();
+        rttSum.add(rttNanos);
+        samples.increment();
+        maybeUpdate();
+    }
+
+    /**
+     * 请求在执行前被丢弃（如业务线程池已满），释放许可并在窗口结束时退让
+     */
+    public void releaseDropped() {
+        inflight.decrementAndGet();
+        dropped = true;
+        maybeUpdate();
+    }
+
+    private void maybeUpdate() {
+        long now = System.nanoTime();
+        if (now - windowStart < WINDOW_NANOS || (samples.sum() < WINDOW_MIN_SAMPLES && !dropped)) {
+            return;
+        }
+        if (!updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (now - windowStart >= WINDOW_NANOS) {
+                windowStart = now;
+                update(rttSum.sumThenReset(), samples.sumThenReset(), (int) maxInflight.getThenReset());
+            }
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private void update(long sum, long count, int peakInflight) {
+        boolean drop = dropped;
+        dropped = false;
+        if (drop) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF_RATIO);
+            limit = (int) estimatedLimit;
+            return;
+        }
+        if (count == 0) {
+            return;
+        }
+        double shortRtt = (double) sum / count;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) * 2 / (LONG_WINDOW + 1);
+            // 负载下降后长期延迟需要较快回落，否则会长时间高估可接受的延迟
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+        }
+        // 请求量远低于上限时，延迟样本不能说明上限是否合适
+        if (peakInflight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 当前的并发上限
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 进行中的请求数
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.minirpc.core.limit;
+
+/**
+ * 限流规则
+ */
+public class RateLimitRule {
+
+    /**
+     * 每秒允许的请求数
+     */
+    private double permitsPerSecond;
+
+    /**
+     * 允许的最大突发请求数，为0时等于每秒请求数
+     */
+    private int burst;
+
+    /**
+     * 是否按调用方分别限流，为false时所有调用方共享同一个令牌桶
+     */
+    private boolean perCaller;
+
+    public RateLimitRule() {
+    }
+
+    public RateLimitRule(double permitsPerSecond, int burst, boolean perCaller) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.perCaller = perCaller;
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public boolean isPerCaller() {
+        return perCaller;
+    }
+
+    public void setPerCaller(boolean perCaller) {
+        this.perCaller = perCaller;
+    }
+
+    /**
+     * 实际的桶容量
+     */
+    public int effectiveBurst() {
+        return burst > 0 ? burst : (int) Math.max(1, Math.ceil(permitsPerSecond));
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitRule{permitsPerSecond=" + permitsPerSecond + ", burst=" + effectiveBurst()
+                + ", perCaller=" + perCaller + '}';
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.minirpc.core.limit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按规则创建令牌桶的限流器，按调用方限流时每个调用方一个令牌桶
+ */
+public class RateLimiter {
+
+    /**
+     * 按调用方限流时最多跟踪的调用方数量，超出后新的调用方共享一个令牌桶，避免伪造的调用方标识撑爆内存
+     */
+    private static final int MAX_CALLERS = 10000;
+
+    /**
+     * 没有调用方标识的请求使用的键
+     */
+    private static final String ANONYMOUS = "";
+
+    private final RateLimitRule rule;
+
+    // 所有调用方共享的令牌桶，按调用方限流时作为超出跟踪数量后的公共桶
+    private final TokenBucket shared;
+
+    private final Map<String, TokenBucket> callerBuckets;
+
+    public RateLimiter(RateLimitRule rule) {
+        this.rule = rule;
+        this.shared = new TokenBucket(rule.getPermitsPerSecond(), rule.effectiveBurst());
+        this.callerBuckets = rule.isPerCaller() ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * 尝试为调用方获取一个令牌
+     *
+     * @param caller 调用方标识，可以为null
+     * @return 超过限流阈值时返回false
+     */
+    public boolean tryAcquire(String caller) {
+        if (callerBuckets == null) {
+            return shared.tryAcquire();
+        }
+        String key = caller == null ? ANONYMOUS : caller;
+        TokenBucket bucket = callerBuckets.get(key);
+        if (bucket == null) {
+            if (callerBuckets.size() >= MAX_CALLERS) {
+                return shared.tryAcquire();
+            }
+            bucket = callerBuckets.computeIfAbsent(key,
+                    k -> new TokenBucket(rule.getPermitsPerSecond(), rule.effectiveBurst()));
+        }
+        return bucket.tryAcquire();
+    }
+
+    public RateLimitRule getRule() {
+        return rule;
+    }
+}
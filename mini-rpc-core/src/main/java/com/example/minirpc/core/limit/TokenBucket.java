@@ -0,0 +1,52 @@
+package com.example.minirpc.core.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶
+ *
+ * <p>不保存令牌数，只保存"理论上下一个令牌的发放时间"：每次获取把它推后一个发放间隔，
+ * 推后的时间超过当前时间加桶容量对应的时长时拒绝。获取成功只需一次CAS，拒绝时只有一次读取，不会写共享变量。
+ */
+public class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    private final AtomicLong nextFreeNanos;
+
+    /**
+     * @param permitsPerSecond 每秒发放的令牌数
+     * @param burst 桶容量，即允许的最大突发请求数
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("每秒令牌数必须大于0: " + permitsPerSecond);
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.nextFreeNanos = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * 尝试获取一个令牌
+     *
+     * @return 桶中没有令牌时返回false
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long next = nextFreeNanos.get();
+            // 空闲期间积累的令牌不超过桶容量
+            long base = Math.max(next, now - burstNanos);
+            long updated = base + intervalNanos;
+            if (updated - now > 0) {
+                return false;
+            }
+            if (nextFreeNanos.compareAndSet(next, updated)) {
+                return true;
+            }
+        }
+    }
+}
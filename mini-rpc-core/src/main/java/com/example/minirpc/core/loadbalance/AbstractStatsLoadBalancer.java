@@ -0,0 +1,81 @@
+package com.example.minirpc.core.loadbalance;
+
+import com.example.minirpc.core.registry.ServiceInstance;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 需要实例调用统计的负载均衡策略基类
+ *
+ * <p>实例列表变更时清理不再属于任何服务的实例统计；新上线实例的平均延迟取同一服务已有实例的平均值，
+ * 避免没有样本的新实例因延迟最低而在冷启动时吸引全部流量。
+ */
+public abstract class AbstractStatsLoadBalancer implements LoadBalancer {
+
+    private final Map<ServiceInstance, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    // 服务名称 -> 最新实例列表，用于判断统计是否还在使用
+    private final Map<String, List<ServiceInstance>> services = new ConcurrentHashMap<>();
+
+    protected InstanceStats stats(ServiceInstance instance) {
+        InstanceStats instanceStats = stats.get(instance);
+        return instanceStats != null ? instanceStats : stats.computeIfAbsent(instance, k -> new InstanceStats());
+    }
+
+    @Override
+    public synchronized void onInstancesChanged(String serviceName, List<ServiceInstance> instances) {
+        double seed = averageEwmaNanos(services.get(serviceName));
+        for (ServiceInstance instance : instances) {
+            stats.computeIfAbsent(instance, k -> new InstanceStats(seed));
+        }
+        if (instances.isEmpty()) {
+            services.remove(serviceName);
+        } else {
+            services.put(serviceName, instances);
+        }
+        Set<ServiceInstance> live = new HashSet<>();
+        services.values().forEach(live::addAll);
+        stats.keySet().retainAll(live);
+    }
+
+    /**
+     * 已有延迟样本的实例的平均延迟，都没有样本时为0
+     */
+    private double averageEwmaNanos(List<ServiceInstance> instances) {
+        if (instances == null) {
+            return 0;
+        }
+        double sum = 0;
+        int count = 0;
+        for (ServiceInstance instance : instances) {
+            InstanceStats instanceStats = stats.get(instance);
+            double ewma = instanceStats != null ? instanceStats.getEwmaNanos() : 0;
+            if (ewma > 0) {
+                sum += ewma;
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 0;
+    }
+
+    @Override
+    public void onStart(ServiceInstance instance) {
+        stats(instance).begin();
+    }
+
+    @Override
+    public void onComplete(ServiceInstance instance, long latencyNanos, boolean success) {
+        InstanceStats instanceStats = stats.get(instance);
+        if (instanceStats == null) {
+            // 调用期间实例已下线，统计已被清理
+            return;
+        }
+        // 过载的实例会快速拒绝请求，失败的调用按两倍平均延迟计，避免其延迟统计反而变好而吸引更多请求
+        instanceStats.end(success ? latencyNanos
+                : Math.max(latencyNanos, (long) (instanceStats.getEwmaNanos() * 2)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.minirpc.core.loadbalance;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个实例的调用统计：进行中的请求数和按时间衰减的指数加权平均延迟
+ */
+public class InstanceStats {
+
+    /**
+     * 延迟样本的衰减时间常数，单位纳秒，越早的样本权重越低
+     */
+    private static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private double ewmaNanos;
+    private long lastUpdateNanos = System.nanoTime();
+
+    public InstanceStats() {
+    }
+
+    /**
+     * @param initialEwmaNanos 初始的平均延迟，单位纳秒，为0时以第一个样本作为平均延迟
+     */
+    public InstanceStats(double initialEwmaNanos) {
+        this.ewmaNanos = initialEwmaNanos;
+    }
+
+    public int getActive() {
+        return active.get();
+    }
+
+    void begin() {
+        active.incrementAndGet();
+    }
+
+    void end(long latencyNanos) {
+        active.decrementAndGet();
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (ewmaNanos == 0) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(now - lastUpdateNanos) / DECAY_NANOS);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastUpdateNanos = now;
+        }
+    }
+
+    /**
+     * 指数加权平均延迟，单位纳秒，还没有样本时为0
+     */
+    public synchronized double getEwmaNanos() {
+        return ewmaNanos;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.minirpc.core.loadbalance;
+
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.registry.ServiceInstance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 选择进行中请求数最少的实例，并列时随机选择其一
+ */
+public class LeastActiveLoadBalancer extends AbstractStatsLoadBalancer {
+
+    @Override
+    public String getName() {
+        return "least-active";
+    }
+
+    @Override
+    public ServiceInstance select(List<ServiceInstance> instances, RpcRequest request) {
+        if (instances.size() == 1) {
+            return instances.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ServiceInstance selected = null;
+        int leastActive = Integer.MAX_VALUE;
+        int ties = 0;
+        for (ServiceInstance instance : instances) {
+            int active = stats(instance).getActive();
+            if (active < leastActive) {
+                leastActive = active;
+                selected = instance;
+                ties = 1;
+            } else if (active == leastActive && random.nextInt(++ties) == 0) {
+                // 蓄水池抽样，并列的实例被选中的概率相同
+                selected = instance;
+            }
+        }
+        return selected;
+    }
+}
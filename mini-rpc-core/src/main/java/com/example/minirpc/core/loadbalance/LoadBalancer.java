@@ -0,0 +1,52 @@
+package com.example.minirpc.core.loadbalance;
+
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.registry.ServiceInstance;
+
+import java.util.List;
+
+/**
+ * 客户端负载均衡接口，从服务的多个实例中选出本次调用的目标
+ *
+ * <p>实现通过 META-INF/services/com.example.minirpc.core.loadbalance.LoadBalancer 声明，按名称加载，
+ * 每个客户端持有独立的实例，实现需要线程安全。
+ */
+public interface LoadBalancer {
+
+    /**
+     * 负载均衡策略名称，用于配置
+     */
+    String getName();
+
+    /**
+     * 选择服务实例
+     *
+     * @param instances 服务实例列表，不为空
+     * @param request 本次调用的请求
+     * @return 选中的实例
+     */
+    ServiceInstance select(List<ServiceInstance> instances, RpcRequest request);
+
+    /**
+     * 服务实例列表变更时回调，在新列表用于选择之前调用，可以在这里初始化新实例、清理已下线实例的状态
+     *
+     * @param instances 服务的最新实例列表，可能为空
+     */
+    default void onInstancesChanged(String serviceName, List<ServiceInstance> instances) {
+    }
+
+    /**
+     * 请求发往实例前回调
+     */
+    default void onStart(ServiceInstance instance) {
+    }
+
+    /**
+     * 请求结束后回调
+     *
+     * @param latencyNanos 调用耗时，单位纳秒
+     * @param success 调用是否成功
+     */
+    default void onComplete(ServiceInstance instance, long latencyNanos, boolean success) {
+    }
+}
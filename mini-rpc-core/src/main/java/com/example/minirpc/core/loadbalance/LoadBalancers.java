@@ -0,0 +1,30 @@
+package com.example.minirpc.core.loadbalance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * 负载均衡策略加载工具
+ */
+public final class LoadBalancers {
+
+    private LoadBalancers() {
+    }
+
+    /**
+     * 通过ServiceLoader按名称创建负载均衡策略的新实例
+     *
+     * @throws IllegalArgumentException 不存在该名称的负载均衡策略
+     */
+    public static LoadBalancer load(String name) {
+        List<String> names = new ArrayList<>();
+        for (LoadBalancer loadBalancer : ServiceLoader.load(LoadBalancer.class, LoadBalancers.class.getClassLoader())) {
+            if (loadBalancer.getName().equals(name)) {
+                return loadBalancer;
+            }
+            names.add(loadBalancer.getName());
+        }
+        throw new IllegalArgumentException("不支持的负载均衡策略: " + name + ", 可选: " + names);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.minirpc.core.loadbalance;
+
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.registry.ServiceInstance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 二选一（power of two choices）：随机取两个实例，选择 EWMA延迟 × (进行中请求数 + 1) 较小的一个
+ *
+ * <p>只比较两个实例，选择开销与实例数无关，又能避开变慢或积压的实例。
+ */
+public class P2cEwmaLoadBalancer extends AbstractStatsLoadBalancer {
+
+    @Override
+    public String getName() {
+        return "p2c-ewma";
+    }
+
+    @Override
+    public ServiceInstance select(List<ServiceInstance> instances, RpcRequest request) {
+        int size = instances.size();
+        if (size == 1) {
+            return instances.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return load(a) <= load(b) ? a : b;
+    }
+
+    private double load(ServiceInstance instance) {
+        InstanceStats stats = stats(instance);
+        // 新实例以同一服务的平均延迟起步；整个服务都还没有样本时按1纳秒计，仅由进行中的请求数区分
+        return Math.max(1, stats.getEwmaNanos()) * (stats.getActive() + 1);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.minirpc.core.loadbalance;
+
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.registry.ServiceInstance;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 轮询，每个服务独立计数
+ */
+public class RoundRobinLoadBalancer implements LoadBalancer {
+
+    private final Map<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return "round-robin";
+    }
+
+    @Override
+    public ServiceInstance select(List<ServiceInstance> instances, RpcRequest request) {
+        if (instances.size() == 1) {
+            return instances.get(0);
+        }
+        AtomicInteger counter = counters.computeIfAbsent(request.getInterfaceName(), k -> new AtomicInteger());
+        return instances.get((counter.getAndIncrement() & Integer.MAX_VALUE) % instances.size());
+    }
+}
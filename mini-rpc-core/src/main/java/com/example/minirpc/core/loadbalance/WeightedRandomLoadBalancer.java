@@ -0,0 +1,42 @@
+package com.example.minirpc.core.loadbalance;
+
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.registry.ServiceInstance;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按实例权重随机选择，所有实例权重都不大于0时等概率随机
+ */
+public class WeightedRandomLoadBalancer implements LoadBalancer {
+
+    @Override
+    public String getName() {
+        return "weighted-random";
+    }
+
+    @Override
+    public ServiceInstance select(List<ServiceInstance> instances, RpcRequest request) {
+        int size = instances.size();
+        if (size == 1) {
+            return instances.get(0);
+        }
+        int totalWeight = 0;
+        for (ServiceInstance instance : instances) {
+            totalWeight += Math.max(0, instance.getWeight());
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (totalWeight <= 0) {
+            return instances.get(random.nextInt(size));
+        }
+        int offset = random.nextInt(totalWeight);
+        for (ServiceInstance instance : instances) {
+            offset -= Math.max(0, instance.getWeight());
+            if (offset < 0) {
+                return instance;
+            }
+        }
+        return instances.get(size - 1);
+    }
+}
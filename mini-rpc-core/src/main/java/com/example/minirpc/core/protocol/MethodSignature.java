@@ -0,0 +1,28 @@
+package com.example.minirpc.core.protocol;
+
+/**
+ * 服务方法签名，格式为 methodName(paramType1,paramType2)，客户端和服务端以它标识同一个服务方法
+ */
+public final class MethodSignature {
+
+    private MethodSignature() {
+    }
+
+    /**
+     * 生成方法签名
+     *
+     * @param parameterTypes 参数类型，无参方法可以为null
+     */
+    public static String of(String methodName, Class<?>[] parameterTypes) {
+        StringBuilder builder = new StringBuilder(methodName).append('(');
+        if (parameterTypes != null) {
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(parameterTypes[i].getName());
+            }
+        }
+        return builder.append(')').toString();
+    }
+}
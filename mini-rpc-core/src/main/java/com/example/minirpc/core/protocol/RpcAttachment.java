@@ -0,0 +1,167 @@
+package com.example.minirpc.core.protocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.DefaultFileRegion;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 二进制附件，可以作为服务方法的参数或返回值，以原始字节跟在消息体之后传输，不经过序列化
+ *
+ * <p>发送方的文件附件通过FileRegion写出（支持时由内核sendfile直接发送），缓冲区附件（包括CompositeByteBuf）
+ * 直接交给Netty写出，两者都不会拷贝到堆内存。接收方的附件是入站帧的切片，同样没有拷贝，
+ * 但接收方不会流式读取附件，整帧（包括附件）先缓冲在内存中，帧长度受最大帧长度限制，超过时发送方直接失败。
+ *
+ * <p>附件持有引用计数的缓冲区：发送的附件在写出后由框架释放；服务端收到的请求附件在服务方法完成后由框架释放，
+ * 需要在方法返回后继续使用时应调用 {@link #retain()}；客户端收到的返回值附件由调用方负责释放，
+ * 调用 {@link #release()}，或读完 {@link #openStream()} 返回的输入流后关闭它。
+ * 附件不能与结果缓存、调用合并一起使用。
+ */
+public final class RpcAttachment {
+
+    private final ByteBuf content;
+    private final File file;
+    private final long length;
+
+    private RpcAttachment(ByteBuf content, File file, long length) {
+        this.content = content;
+        this.file = file;
+        this.length = length;
+    }
+
+    /**
+     * 包装字节数组，不拷贝
+     */
+    public static RpcAttachment of(byte[] bytes) {
+        return of(Unpooled.wrappedBuffer(bytes));
+    }
+
+    /**
+     * 包装缓冲区的可读部分，缓冲区的所有权转移给附件
+     */
+    public static RpcAttachment of(ByteBuf content) {
+        return new RpcAttachment(content, null, content.readableBytes());
+    }
+
+    /**
+     * 以整个文件作为附件，写出时才打开文件
+     */
+    public static RpcAttachment of(File file) {
+        if (!file.isFile()) {
+            throw new IllegalArgumentException("文件不存在: " + file);
+        }
+        return new RpcAttachment(null, file, file.length());
+    }
+
+    public static RpcAttachment of(Path path) {
+        return of(path.toFile());
+    }
+
+    /**
+     * 附件长度，单位字节
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * 附件内容，读取不会改变附件本身的读位置
+     *
+     * @throws IllegalStateException 文件附件
+     */
+    public ByteBuf content() {
+        if (content == null) {
+            throw new IllegalStateException("文件附件没有缓冲区内容: " + file);
+        }
+        return content.duplicate();
+    }
+
+    /**
+     * 以输入流读取附件，缓冲区附件的输入流在关闭时释放附件
+     */
+    public InputStream openStream() {
+        if (content == null) {
+            try {
+                return Files.newInputStream(file.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        // 复制的缓冲区与附件共享引用计数
+        return new ByteBufInputStream(content.duplicate(), true);
+    }
+
+    /**
+     * 把附件内容拷贝为字节数组，用于小附件
+     */
+    public byte[] toByteArray() {
+        if (content == null) {
+            try {
+                return Files.readAllBytes(file.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return ByteBufUtil.getBytes(content);
+    }
+
+    public RpcAttachment retain() {
+        if (content != null) {
+            content.retain();
+        }
+        return this;
+    }
+
+    public void release() {
+        if (content != null && content.refCnt() > 0) {
+            content.release();
+        }
+    }
+
+    /**
+     * 写出到连接的对象：文件附件为DefaultFileRegion，缓冲区附件为缓冲区本身，写出后由Netty释放，供编码器使用
+     */
+    public Object transferable() {
+        return content != null ? content : new DefaultFileRegion(file, 0, length);
+    }
+
+    /**
+     * 判断参数中是否有附件
+     */
+    public static boolean containsAny(Object[] values) {
+        if (values != null) {
+            for (Object value : values) {
+                if (value instanceof RpcAttachment) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 释放参数或返回值中的附件
+     */
+    public static void releaseAll(Object... values) {
+        if (values != null) {
+            for (Object value : values) {
+                if (value instanceof RpcAttachment) {
+                    ((RpcAttachment) value).release();
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RpcAttachment{length=" + length + (file != null ? ", file=" + file : "") + '}';
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.minirpc.core.protocol;
+
+/**
+ * RPC协议帧，由固定长度的消息头和序列化后的消息体组成
+ */
+public class RpcMessage {
+
+    /**
+     * 消息类型，见 {@link RpcProtocol} 中的 TYPE_* 常量
+     */
+    private byte messageType;
+
+    /**
+     * 消息体的序列化方式
+     */
+    private byte serializerType;
+
+    /**
+     * 扩展标志位
+     */
+    private byte flags;
+
+    /**
+     * 帧状态，见 {@link RpcProtocol} 中的 STATUS_* 常量
+     */
+    private byte status;
+
+    /**
+     * 请求ID，响应帧沿用对应请求帧的ID
+     */
+    private long requestId;
+
+    /**
+     * 消息体，请求帧为RpcRequest，响应帧为RpcResponse，批量帧为条目的RpcMessage列表；序列化方式不受支持时为null
+     */
+    private Object body;
+
+    public RpcMessage() {
+    }
+
+    public RpcMessage(byte messageType, byte serializerType, byte status, long requestId, Object body) {
+        this.messageType = messageType;
+        this.serializerType = serializerType;
+        this.status = status;
+        this.requestId = requestId;
+        this.body = body;
+    }
+
+    public byte getMessageType() {
+        return messageType;
+    }
+
+    public void setMessageType(byte messageType) {
+        this.messageType = messageType;
+    }
+
+    public byte getSerializerType() {
+        return serializerType;
+    }
+
+    public void setSerializerType(byte serializerType) {
+        this.serializerType = serializerType;
+    }
+
+    public byte getFlags() {
+        return flags;
+    }
+
+    public void setFlags(byte flags) {
+        this.flags = flags;
+    }
+
+    public byte getStatus() {
+        return status;
+    }
+
+    public void setStatus(byte status) {
+        this.status = status;
+    }
+
+    public long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
+    public Object getBody() {
+        return body;
+    }
+
+    public void setBody(Object body) {
+        this.body = body;
+    }
+
+    @Override
+    public String toString() {
+        return "RpcMessage{type=" + messageType + ", serializer=" + serializerType
+                + ", status=" + status + ", requestId=" + requestId + "}";
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.minirpc.core.protocol;
+
+/**
+ * RPC协议常量
+ *
+ * <pre>
+ * 帧格式（大端序），消息头固定19字节：
+ * +-------+---------+------+------------+-------+--------+-----------+-------------+----------+
+ * | magic | version | type | serializer | flags | status | requestId | body length |   body   |
+ * |  2B   |   1B    |  1B  |     1B     |  1B   |   1B   |    8B     |     4B      | variable |
+ * +-------+---------+------+------------+-------+--------+-----------+-------------+----------+
+ * </pre>
+ *
+ * <p>flags的低3位为消息体的压缩方式，0表示未压缩；压缩方式在连接建立后通过握手帧协商，
+ * 握手帧没有消息体，flags的低3位为发起方期望或响应方接受的压缩方式。
+ *
+ * <p>flags中带有附件标志时，消息体为 序列化部分长度(4B) + 序列化部分 + 附件数(4B) + 附件表 + 附件原始字节，
+ * 附件表的每一项为 位置(4B) + 长度(4B)，位置是请求参数的下标，-1表示响应数据；序列化部分中附件所在的位置为null。
+ * 压缩只作用于序列化部分，附件按原样传输。
+ *
+ * <p>心跳帧（PING/PONG）没有消息体，客户端在连接空闲时发送PING，服务端收到后立即回复PONG。
+ *
+ * <p>批量帧（BATCH_REQUEST/BATCH_RESPONSE）把多个请求或响应合并到一个帧中，消息头的requestId为0，
+ * 消息体为 条目数(4B) + 条目，每个条目为 requestId(8B) + serializer(1B) + status(1B) + 长度(4B) + 消息体，
+ * 整个消息体作为一个整体压缩。
+ *
+ * <p>流式调用使用普通请求帧发起，服务端按客户端授予的信用逐个发送STREAM_CHUNK帧，每帧的消息体是只携带一个元素的RpcResponse，
+ * 最后以普通响应帧结束（成功时数据为null，失败时携带错误信息）。客户端用STREAM_CREDIT帧授予信用，消息体为新增的信用数（Integer），
+ * 用没有消息体的STREAM_CANCEL帧取消调用。所有流式帧的requestId都是发起调用的请求ID。
+ */
+public final class RpcProtocol {
+
+    /**
+     * 魔数，用于快速识别非法连接
+     */
+    public static final short MAGIC = (short) 0xDA7A;
+
+    /**
+     * 当前协议版本
+     */
+    public static final byte VERSION = 1;
+
+    /**
+     * 消息头长度
+     */
+    public static final int HEADER_LENGTH = 19;
+
+    /**
+     * 默认的最大帧长度（包含消息头），16MB
+     */
+    public static final int DEFAULT_MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * 消息体长度字段在消息头中的偏移量
+     */
+    public static final int LENGTH_FIELD_OFFSET = 15;
+
+    /**
+     * 标志位字段在消息头中的偏移量
+     */
+    public static final int FLAGS_OFFSET = 5;
+
+    /**
+     * 标志位中压缩方式的掩码
+     */
+    public static final int FLAG_COMPRESS_MASK = 0x07;
+
+    /**
+     * 标志位：消息体之后带有二进制附件
+     */
+    public static final int FLAG_ATTACHMENT = 0x08;
+
+    /**
+     * 附件表中表示响应数据的位置
+     */
+    public static final int ATTACHMENT_DATA_INDEX = -1;
+
+    // 消息类型
+    public static final byte TYPE_REQUEST = 1;
+    public static final byte TYPE_RESPONSE = 2;
+    public static final byte TYPE_HANDSHAKE = 3;
+    public static final byte TYPE_PING = 4;
+    public static final byte TYPE_PONG = 5;
+    public static final byte TYPE_BATCH_REQUEST = 6;
+    public static final byte TYPE_BATCH_RESPONSE = 7;
+    public static final byte TYPE_STREAM_CHUNK = 8;
+    public static final byte TYPE_STREAM_CREDIT = 9;
+    public static final byte TYPE_STREAM_CANCEL = 10;
+
+    /**
+     * 批量帧中每个条目的头部长度
+     */
+    public static final int BATCH_ITEM_HEADER_LENGTH = 14;
+
+    // 响应状态，请求帧固定为STATUS_OK
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_ERROR = 1;
+    public static final byte STATUS_BUSY = 2;
+    public static final byte STATUS_BAD_REQUEST = 3;
+    public static final byte STATUS_OVERLOADED = 4;
+
+    /**
+     * 服务端过载时的响应码，请求没有被执行，可以重试其他实例
+     */
+    public static final int CODE_OVERLOADED = 429;
+
+    /**
+     * 服务端繁忙或连接不可用时的响应码
+     */
+    public static final int CODE_UNAVAILABLE = 503;
+
+    private RpcProtocol() {
+    }
+
+    /**
+     * 根据响应码计算帧状态
+     */
+    public static byte statusOf(RpcResponse<?> response) {
+        Integer code = response.getCode();
+        if (code == null || code == 0) {
+            return STATUS_OK;
+        }
+        if (code == CODE_OVERLOADED) {
+            return STATUS_OVERLOADED;
+        }
+        return code == CODE_UNAVAILABLE ? STATUS_BUSY : STATUS_ERROR;
+    }
+
+    /**
+     * 判断失败的响应是否可以重试：服务端过载拒绝或服务端不可用，请求没有被执行，客户端据此换一个实例重试
+     */
+    public static boolean isRetryable(RpcResponse<?> response) {
+        Integer code = response.getCode();
+        return code != null && (code == CODE_OVERLOADED || code == CODE_UNAVAILABLE);
+    }
+}
@@ -9,9 +9,9 @@ public class RpcRequest implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * 请求ID，用于匹配请求和响应
+     * 请求ID，用于匹配请求和响应，由客户端在发送时分配
      */
-    private String requestId;
+    private long requestId;
 
     /**
      * 接口名称，即服务名
@@ -32,6 +32,11 @@ public class RpcRequest implements Serializable {
      * 方法参数值数组
      */
     private Object[] parameters;
+
+    /**
+     * 调用方标识（如应用名称），用于按调用方限流，可以为null
+     */
+    private String caller;
     
     /**
      * 默认构造函数
@@ -42,7 +47,7 @@ public class RpcRequest implements Serializable {
     /**
      * 全参数构造函数
      */
-    public RpcRequest(String requestId, String interfaceName, String methodName, 
+    public RpcRequest(long requestId, String interfaceName, String methodName, 
                      Class<?>[] parameterTypes, Object[] parameters) {
         this.requestId = requestId;
         this.interfaceName = interfaceName;
@@ -51,11 +56,11 @@ public class RpcRequest implements Serializable {
         this.parameters = parameters;
     }
 
-    public String getRequestId() {
+    public long getRequestId() {
         return requestId;
     }
 
-    public void setRequestId(String requestId) {
+    public void setRequestId(long requestId) {
         this.requestId = requestId;
     }
 
@@ -90,4 +95,12 @@ public class RpcRequest implements Serializable {
     public void setParameters(Object[] parameters) {
         this.parameters = parameters;
     }
+
+    public String getCaller() {
+        return caller;
+    }
+
+    public void setCaller(String caller) {
+        this.caller = caller;
+    }
 }
@@ -9,9 +9,9 @@ public class RpcResponse<T> implements Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * 请求ID，用于匹配请求和响应
+     * 请求ID，用于匹配请求和响应，由客户端在发送时分配
      */
-    private String requestId;
+    private long requestId;
 
     /**
      * 响应状态码，0表示成功，非0表示失败
@@ -37,18 +37,18 @@ public class RpcResponse<T> implements Serializable {
     /**
      * 全参数构造函数
      */
-    public RpcResponse(String requestId, Integer code, String message, T data) {
+    public RpcResponse(long requestId, Integer code, String message, T data) {
         this.requestId = requestId;
         this.code = code;
         this.message = message;
         this.data = data;
     }
 
-    public String getRequestId() {
+    public long getRequestId() {
         return requestId;
     }
 
-    public void setRequestId(String requestId) {
+    public void setRequestId(long requestId) {
         this.requestId = requestId;
     }
 
@@ -79,7 +79,7 @@ public class RpcResponse<T> implements Serializable {
     /**
      * 创建成功响应
      */
-    public static <T> RpcResponse<T> success(String requestId, T data) {
+    public static <T> RpcResponse<T> success(long requestId, T data) {
         RpcResponse<T> response = new RpcResponse<>();
         response.setRequestId(requestId);
         response.setCode(0);
@@ -90,7 +90,7 @@ public class RpcResponse<T> implements Serializable {
     /**
      * 创建失败响应
      */
-    public static <T> RpcResponse<T> fail(String requestId, Integer code, String message) {
+    public static <T> RpcResponse<T> fail(long requestId, Integer code, String message) {
         RpcResponse<T> response = new RpcResponse<>();
         response.setRequestId(requestId);
         response.setCode(code);
@@ -3,39 +3,38 @@ package com.example.minirpc.core.registry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
- * 直连服务注册表实现，使用固定的服务地址
+ * 直连服务注册表实现，使用固定的服务地址；本进程内注册过的服务优先使用注册的地址
  */
-public class DirectServiceRegistry implements ServiceRegistry {
+public class DirectServiceRegistry extends LocalServiceRegistry {
     
     private static final Logger logger = LoggerFactory.getLogger(DirectServiceRegistry.class);
     
-    private final Map<String, String> serviceAddressMap = new ConcurrentHashMap<>();
-    private final String defaultAddress;
+    private final List<ServiceInstance> defaultInstances;
     
     /**
      * 构造函数
      * 
-     * @param defaultAddress 默认服务地址，格式为 host:port
+     * @param defaultAddress 默认服务地址，格式为 host:port，多个地址用逗号分隔
      */
     public DirectServiceRegistry(String defaultAddress) {
-        this.defaultAddress = defaultAddress;
+        List<ServiceInstance> instances = new ArrayList<>();
+        for (String address : defaultAddress.split(",")) {
+            if (!address.trim().isEmpty()) {
+                instances.add(ServiceInstance.parse(address.trim()));
+            }
+        }
+        this.defaultInstances = Collections.unmodifiableList(instances);
         logger.info("创建直连服务注册表，默认地址: {}", defaultAddress);
     }
 
     @Override
-    public void register(String serviceName, String serviceAddress) {
-        logger.info("注册服务: {} -> {}", serviceName, serviceAddress);
-        serviceAddressMap.put(serviceName, serviceAddress);
-    }
-
-    @Override
-    public String discover(String serviceName) {
-        String address = serviceAddressMap.getOrDefault(serviceName, defaultAddress);
-        logger.info("发现服务: {} -> {}", serviceName, address);
-        return address;
+    public List<ServiceInstance> discover(String serviceName) {
+        List<ServiceInstance> instances = super.discover(serviceName);
+        return instances.isEmpty() ? defaultInstances : instances;
     }
 }
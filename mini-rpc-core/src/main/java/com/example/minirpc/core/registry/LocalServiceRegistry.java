@@ -3,8 +3,12 @@ package com.example.minirpc.core.registry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 简单的本地内存服务注册实现
@@ -13,17 +17,71 @@ public class LocalServiceRegistry implements ServiceRegistry {
     
     private static final Logger logger = LoggerFactory.getLogger(LocalServiceRegistry.class);
     
-    private final Map<String, String> serviceAddressMap = new ConcurrentHashMap<>();
+    // 服务名称 -> 实例列表，列表整体替换，读取时无需加锁
+    private final Map<String, List<ServiceInstance>> serviceInstanceMap = new ConcurrentHashMap<>();
+    
+    // 服务名称 -> 变更监听器
+    private final Map<String, List<ServiceListener>> listenerMap = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized void register(String serviceName, ServiceInstance instance) {
+        logger.info("注册服务: {} -> {}", serviceName, instance);
+        List<ServiceInstance> updated = new ArrayList<>(
+                serviceInstanceMap.getOrDefault(serviceName, Collections.emptyList()));
+        updated.remove(instance);
+        updated.add(instance);
+        update(serviceName, updated);
+    }
+
+    @Override
+    public synchronized void unregister(String serviceName, ServiceInstance instance) {
+        logger.info("注销服务: {} -> {}", serviceName, instance);
+        List<ServiceInstance> updated = new ArrayList<>(
+                serviceInstanceMap.getOrDefault(serviceName, Collections.emptyList()));
+        if (updated.remove(instance)) {
+            update(serviceName, updated);
+        }
+    }
 
     @Override
-    public void register(String serviceName, String serviceAddress) {
-        logger.info("注册服务: {} -> {}", serviceName, serviceAddress);
-        serviceAddressMap.put(serviceName, serviceAddress);
+    public List<ServiceInstance> discover(String serviceName) {
+        return serviceInstanceMap.getOrDefault(serviceName, Collections.emptyList());
     }
 
     @Override
-    public String discover(String serviceName) {
-        logger.info("发现服务: {}", serviceName);
-        return serviceAddressMap.get(serviceName);
+    public synchronized void subscribe(String serviceName, ServiceListener listener) {
+        listenerMap.computeIfAbsent(serviceName, k -> new CopyOnWriteArrayList<>()).add(listener);
+        notify(listener, serviceName, discover(serviceName));
+    }
+
+    @Override
+    public synchronized void unsubscribe(String serviceName, ServiceListener listener) {
+        List<ServiceListener> listeners = listenerMap.get(serviceName);
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * 替换实例列表并通知监听器，调用方持有注册表的锁，保证通知顺序与变更顺序一致
+     */
+    private void update(String serviceName, List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            serviceInstanceMap.remove(serviceName);
+        } else {
+            serviceInstanceMap.put(serviceName, Collections.unmodifiableList(instances));
+        }
+        List<ServiceInstance> current = discover(serviceName);
+        for (ServiceListener listener : listenerMap.getOrDefault(serviceName, Collections.emptyList())) {
+            notify(listener, serviceName, current);
+        }
+    }
+
+    private void notify(ServiceListener listener, String serviceName, List<ServiceInstance> instances) {
+        try {
+            listener.onChange(serviceName, instances);
+        } catch (Exception e) {
+            logger.error("服务变更通知异常: {}", serviceName, e);
+        }
     }
 }
@@ -0,0 +1,156 @@
+package com.example.minirpc.core.registry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 服务提供方实例，以 host:port 唯一标识
+ */
+public class ServiceInstance {
+
+    /**
+     * 默认权重
+     */
+    public static final int DEFAULT_WEIGHT = 100;
+
+    private String host;
+    private int port;
+
+    /**
+     * 权重，用于加权负载均衡
+     */
+    private int weight = DEFAULT_WEIGHT;
+
+    /**
+     * 所在可用区，可以为null
+     */
+    private String zone;
+
+    /**
+     * 实例版本（如发布版本），可以为null
+     */
+    private String version;
+
+    /**
+     * 其他元数据
+     */
+    private Map<String, String> metadata = new HashMap<>();
+
+    public ServiceInstance() {
+    }
+
+    public ServiceInstance(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public ServiceInstance(String host, int port, int weight, String zone, String version) {
+        this.host = host;
+        this.port = port;
+        this.weight = weight;
+        this.zone = zone;
+        this.version = version;
+    }
+
+    /**
+     * 解析 host:port 格式的地址
+     *
+     * @throws IllegalArgumentException 地址格式错误
+     */
+    public static ServiceInstance parse(String address) {
+        int index = address == null ? -1 : address.lastIndexOf(':');
+        if (index <= 0 || index == address.length() - 1) {
+            throw new IllegalArgumentException("服务地址格式错误，应为 host:port: " + address);
+        }
+        try {
+            return new ServiceInstance(address.substring(0, index).trim(),
+                    Integer.parseInt(address.substring(index + 1).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("服务地址端口错误: " + address);
+        }
+    }
+
+    /**
+     * 实例地址，格式为 host:port
+     */
+    public String getAddress() {
+        return host + ":" + port;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public Map<String, String> getMetadata() {
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    public void setMetadata(Map<String, String> metadata) {
+        this.metadata = metadata == null ? new HashMap<>() : new HashMap<>(metadata);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ServiceInstance)) {
+            return false;
+        }
+        ServiceInstance that = (ServiceInstance) o;
+        return port == that.port && Objects.equals(host, that.host);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(host, port);
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceInstance{" +
+                "address=" + getAddress() +
+                ", weight=" + weight +
+                ", zone=" + zone +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.minirpc.core.registry;
+
+import java.util.List;
+
+/**
+ * 服务实例变更监听器
+ */
+@FunctionalInterface
+public interface ServiceListener {
+
+    /**
+     * 服务实例列表发生变化
+     *
+     * @param serviceName 服务名称
+     * @param instances 变化后的完整实例列表，不可修改
+     */
+    void onChange(String serviceName, List<ServiceInstance> instances);
+}
@@ -1,23 +1,59 @@
 package com.example.minirpc.core.registry;
 
+import java.util.List;
+
 /**
- * 服务注册接口
+ * 服务注册接口，一个服务可以有多个提供方实例
  */
 public interface ServiceRegistry {
 
+    /**
+     * 注册服务实例，同地址的已有实例会被替换
+     * 
+     * @param serviceName 服务名称
+     * @param instance 服务实例
+     */
+    void register(String serviceName, ServiceInstance instance);
+
     /**
      * 注册服务
      * 
      * @param serviceName 服务名称
      * @param serviceAddress 服务地址（格式：host:port）
      */
-    void register(String serviceName, String serviceAddress);
+    default void register(String serviceName, String serviceAddress) {
+        register(serviceName, ServiceInstance.parse(serviceAddress));
+    }
+
+    /**
+     * 注销服务实例
+     * 
+     * @param serviceName 服务名称
+     * @param instance 服务实例
+     */
+    void unregister(String serviceName, ServiceInstance instance);
+
+    /**
+     * 获取服务的所有实例
+     * 
+     * @param serviceName 服务名称
+     * @return 服务实例列表，不可修改；没有实例时返回空列表
+     */
+    List<ServiceInstance> discover(String serviceName);
+
+    /**
+     * 订阅服务实例变更，订阅后立即以当前实例列表回调一次，之后每次变更回调完整的实例列表
+     * 
+     * @param serviceName 服务名称
+     * @param listener 变更监听器，同一服务的回调按变更顺序依次执行
+     */
+    void subscribe(String serviceName, ServiceListener listener);
 
     /**
-     * 获取服务地址
+     * 取消订阅
      * 
      * @param serviceName 服务名称
-     * @return 服务地址（格式：host:port）
+     * @param listener 变更监听器
      */
-    String discover(String serviceName);
+    void unsubscribe(String serviceName, ServiceListener listener);
 }
@@ -1,17 +1,61 @@
 package com.example.minirpc.core.serialize;
 
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * 基于Jackson的JSON序列化实现
  */
 public class JsonSerializer implements Serializer {
     
     private static final Logger logger = LoggerFactory.getLogger(JsonSerializer.class);
+
+    /**
+     * JSON序列化方式标识
+     */
+    public static final byte TYPE = 1;
     
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // 忽略对端多出的字段，服务双方的DTO版本不一致时仍然可以互通
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .addMixIn(RpcRequest.class, RpcRequestMixin.class)
+            .registerModule(new SimpleModule().addDeserializer(RpcRequest.class, new RpcRequestDeserializer()));
+
+    private final ObjectReader requestReader = objectMapper.readerFor(RpcRequest.class);
+
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    @Override
+    public String getName() {
+        return "json";
+    }
 
     @Override
     public byte[] serialize(Object obj) {
@@ -32,4 +76,135 @@ public class JsonSerializer implements Serializer {
             throw new RuntimeException("反序列化错误", e);
         }
     }
+
+    @Override
+    public void serialize(Object obj, ByteBuf out) {
+        try {
+            objectMapper.writeValue((OutputStream) new ByteBufOutputStream(out), obj);
+        } catch (Exception e) {
+            logger.error("序列化对象时发生错误: {}", obj, e);
+            throw new RuntimeException("序列化错误", e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in, Class<T> clazz) {
+        try {
+            return objectMapper.readValue((InputStream) new ByteBufInputStream(in), clazz);
+        } catch (Exception e) {
+            logger.error("反序列化对象时发生错误, 类型: {}", clazz.getName(), e);
+            throw new RuntimeException("反序列化错误", e);
+        }
+    }
+
+    @Override
+    public RpcRequest deserializeRequest(ByteBuf in, TypeResolver resolver) {
+        try {
+            ObjectReader reader = resolver == null ? requestReader : requestReader.withAttribute(TypeResolver.class, resolver);
+            return reader.readValue((InputStream) new ByteBufInputStream(in));
+        } catch (Exception e) {
+            logger.error("反序列化RPC请求时发生错误", e);
+            throw new RuntimeException("反序列化错误", e);
+        }
+    }
+
+    @Override
+    public RpcResponse<?> deserializeResponse(ByteBuf in, Type dataType) {
+        if (dataType == null) {
+            return deserialize(in, RpcResponse.class);
+        }
+        try {
+            TypeFactory typeFactory = objectMapper.getTypeFactory();
+            JavaType responseType = typeFactory.constructParametricType(
+                    RpcResponse.class, typeFactory.constructType(boxed(dataType)));
+            return objectMapper.readValue((InputStream) new ByteBufInputStream(in), responseType);
+        } catch (Exception e) {
+            logger.error("反序列化RPC响应时发生错误, 类型: {}", dataType.getTypeName(), e);
+            throw new RuntimeException("反序列化错误", e);
+        }
+    }
+
+    private static Type boxed(Type type) {
+        if (!(type instanceof Class) || !((Class<?>) type).isPrimitive()) {
+            return type;
+        }
+        if (type == void.class) {
+            return Object.class;
+        }
+        return MethodType.methodType((Class<?>) type).wrap().returnType();
+    }
+
+    /**
+     * 固定RpcRequest的字段顺序，保证反序列化时先读到方法签名再读参数
+     */
+    @JsonPropertyOrder({"requestId", "interfaceName", "methodName", "parameterTypes", "parameters", "caller"})
+    private abstract static class RpcRequestMixin {
+    }
+
+    /**
+     * RpcRequest反序列化器，先解析目标方法，再把每个参数直接绑定为方法声明的泛型类型，
+     * 避免先反序列化为Map再二次转换
+     */
+    private static class RpcRequestDeserializer extends StdDeserializer<RpcRequest> {
+
+        RpcRequestDeserializer() {
+            super(RpcRequest.class);
+        }
+
+        @Override
+        public RpcRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            RpcRequest request = new RpcRequest();
+            JsonToken token = p.currentToken() == JsonToken.START_OBJECT ? p.nextToken() : p.currentToken();
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String field = p.getCurrentName();
+                JsonToken value = p.nextToken();
+                switch (field) {
+                    case "requestId":
+                        request.setRequestId(p.getValueAsLong());
+                        break;
+                    case "interfaceName":
+                        request.setInterfaceName(p.getValueAsString());
+                        break;
+                    case "methodName":
+                        request.setMethodName(p.getValueAsString());
+                        break;
+                    case "parameterTypes":
+                        request.setParameterTypes(value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Class[].class));
+                        break;
+                    case "parameters":
+                        request.setParameters(value == JsonToken.VALUE_NULL ? null : readParameters(p, ctxt, request));
+                        break;
+                    case "caller":
+                        request.setCaller(p.getValueAsString());
+                        break;
+                    default:
+                        p.skipChildren();
+                        break;
+                }
+            }
+            return request;
+        }
+
+        private Object[] readParameters(JsonParser p, DeserializationContext ctxt, RpcRequest request) throws IOException {
+            TypeResolver resolver = (TypeResolver) ctxt.getAttribute(TypeResolver.class);
+            Type[] types = null;
+            if (resolver != null && request.getMethodName() != null) {
+                types = resolver.resolveParameterTypes(
+                        request.getInterfaceName(), request.getMethodName(), request.getParameterTypes());
+            }
+
+            List<Object> parameters = new ArrayList<>(types == null ? 4 : types.length);
+            for (JsonToken token = p.nextToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+                int index = parameters.size();
+                if (token == JsonToken.VALUE_NULL) {
+                    parameters.add(null);
+                } else if (types != null && index < types.length) {
+                    parameters.add(ctxt.readValue(p, ctxt.getTypeFactory().constructType(types[index])));
+                } else {
+                    parameters.add(ctxt.readValue(p, Object.class));
+                }
+            }
+            return parameters.toArray();
+        }
+    }
 }
@@ -0,0 +1,266 @@
+package com.example.minirpc.core.serialize;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.DefaultSerializers;
+import com.esotericsoftware.kryo.util.DefaultClassResolver;
+import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.util.MapReferenceResolver;
+import com.esotericsoftware.kryo.util.Pool;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于Kryo的紧凑二进制序列化实现
+ *
+ * <p>Kryo实例和输入输出缓冲都不是线程安全的，这里通过对象池复用，避免每次序列化都重新创建。
+ *
+ * <p>Kryo按类名还原对象且不调用构造函数，为避免对端借此实例化类路径上的任意类，反序列化时只接受白名单中的类：
+ * 基本类型及其包装类、String、常用集合与时间类型、RPC请求和响应，以及通过 {@link #allowTypes(Type...)}
+ * 声明的类型（服务接口方法的参数和返回值类型由框架自动声明，连同其字段类型）。
+ * 声明类型的子类不会被自动接受，多态参数需要单独声明。
+ */
+public class KryoSerializer implements Serializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(KryoSerializer.class);
+
+    /**
+     * Kryo序列化方式标识
+     */
+    public static final byte TYPE = 2;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    // 始终接受的类，它们不会在反序列化时执行类路径上的其他代码
+    private static final Set<Class<?>> BUILTIN_CLASSES = new HashSet<>(Arrays.asList(
+            Object.class, String.class, Boolean.class, Byte.class, Character.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, Void.class, Class.class, BigDecimal.class, BigInteger.class,
+            Date.class, UUID.class, ArrayList.class, LinkedList.class, ArrayDeque.class, HashMap.class,
+            LinkedHashMap.class, TreeMap.class, HashSet.class, LinkedHashSet.class, TreeSet.class,
+            ConcurrentHashMap.class, Arrays.asList().getClass(), Collections.emptyList().getClass(),
+            Collections.emptyMap().getClass(), Collections.emptySet().getClass(),
+            Collections.singletonList(null).getClass(), Collections.singletonMap(null, null).getClass(),
+            Collections.singleton(null).getClass(), RpcRequest.class, RpcResponse.class));
+
+    // 通过allowTypes声明的类
+    private final Set<Class<?>> allowedClasses = ConcurrentHashMap.newKeySet();
+
+    private final Pool<Kryo> kryoPool = new Pool<Kryo>(true, true) {
+        @Override
+        protected Kryo create() {
+            Kryo kryo = new Kryo(new AllowlistClassResolver(), new MapReferenceResolver());
+            // RPC参数和返回值类型不固定，不要求预先注册，按类名传输，读取时由白名单校验
+            kryo.setRegistrationRequired(false);
+            kryo.setReferences(true);
+            // 兼容没有无参构造函数的类
+            kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+            // Kryo没有默认注册UUID的序列化器，按字段反射在JDK 16及以上会失败
+            kryo.addDefaultSerializer(UUID.class, new DefaultSerializers.UUIDSerializer());
+            return kryo;
+        }
+    };
+
+    private final Pool<Output> outputPool = new Pool<Output>(true, true) {
+        @Override
+        protected Output create() {
+            return new Output(BUFFER_SIZE, -1);
+        }
+    };
+
+    private final Pool<Input> inputPool = new Pool<Input>(true, true) {
+        @Override
+        protected Input create() {
+            return new Input(BUFFER_SIZE);
+        }
+    };
+
+    @Override
+    public byte getType() {
+        return TYPE;
+    }
+
+    @Override
+    public String getName() {
+        return "kryo";
+    }
+
+    /**
+     * 声明类型可以被反序列化，类型中出现的泛型参数、数组元素类型和应用类的字段类型一并接受
+     */
+    @Override
+    public void allowTypes(Type... types) {
+        for (Type type : types) {
+            allow(type);
+        }
+    }
+
+    /**
+     * 判断类是否可以被反序列化
+     */
+    public boolean isAllowed(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || BUILTIN_CLASSES.contains(type) || allowedClasses.contains(type)) {
+            return true;
+        }
+        // 带有方法体的枚举常量是枚举类的匿名子类
+        if (Enum.class.isAssignableFrom(type) && !type.isEnum()) {
+            return isAllowed(type.getSuperclass());
+        }
+        return type.getName().startsWith("java.time.");
+    }
+
+    private void allow(Type type) {
+        if (type instanceof ParameterizedType) {
+            allow(((ParameterizedType) type).getRawType());
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                allow(argument);
+            }
+        } else if (type instanceof GenericArrayType) {
+            allow(((GenericArrayType) type).getGenericComponentType());
+        } else if (type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                allow(bound);
+            }
+        } else if (type instanceof TypeVariable) {
+            for (Type bound : ((TypeVariable<?>) type).getBounds()) {
+                allow(bound);
+            }
+        } else if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            while (clazz.isArray()) {
+                clazz = clazz.getComponentType();
+            }
+            if (clazz.isPrimitive() || BUILTIN_CLASSES.contains(clazz) || !allowedClasses.add(clazz)) {
+                return;
+            }
+            // JDK类只接受声明的类本身，不展开其内部字段
+            if (clazz.getName().startsWith("java.") || clazz.getName().startsWith("javax.")) {
+                return;
+            }
+            for (Class<?> current = clazz; current != null && current != Object.class;
+                 current = current.getSuperclass()) {
+                allowedClasses.add(current);
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                        allow(field.getGenericType());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取按类名传输的类时校验白名单，Class.forName加载类时不会执行它的静态初始化
+     */
+    private class AllowlistClassResolver extends DefaultClassResolver {
+        @Override
+        protected Registration readName(Input input) {
+            Registration registration = super.readName(input);
+            if (!isAllowed(registration.getType())) {
+                throw new KryoException("类不在Kryo反序列化白名单中: " + registration.getType().getName());
+            }
+            return registration;
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object obj) {
+        Kryo kryo = kryoPool.obtain();
+        Output output = outputPool.obtain();
+        try {
+            output.reset();
+            kryo.writeClassAndObject(output, obj);
+            return output.toBytes();
+        } catch (Exception e) {
+            logger.error("序列化对象时发生错误: {}", obj, e);
+            throw new RuntimeException("序列化错误", e);
+        } finally {
+            outputPool.free(output);
+            kryoPool.free(kryo);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] bytes, Class<T> clazz) {
+        Kryo kryo = kryoPool.obtain();
+        try {
+            return clazz.cast(kryo.readClassAndObject(new Input(bytes)));
+        } catch (Exception e) {
+            logger.error("反序列化对象时发生错误, 类型: {}", clazz.getName(), e);
+            throw new RuntimeException("反序列化错误", e);
+        } finally {
+            kryoPool.free(kryo);
+        }
+    }
+
+    @Override
+    public void serialize(Object obj, ByteBuf out) {
+        Kryo kryo = kryoPool.obtain();
+        Output output = outputPool.obtain();
+        try {
+            output.setOutputStream(new ByteBufOutputStream(out));
+            kryo.writeClassAndObject(output, obj);
+            output.flush();
+        } catch (Exception e) {
+            logger.error("序列化对象时发生错误: {}", obj, e);
+            throw new RuntimeException("序列化错误", e);
+        } finally {
+            output.setOutputStream(null);
+            outputPool.free(output);
+            kryoPool.free(kryo);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(ByteBuf in, Class<T> clazz) {
+        Kryo kryo = kryoPool.obtain();
+        Input input = inputPool.obtain();
+        try {
+            input.setInputStream(new ByteBufInputStream(in));
+            return clazz.cast(kryo.readClassAndObject(input));
+        } catch (Exception e) {
+            logger.error("反序列化对象时发生错误, 类型: {}", clazz.getName(), e);
+            throw new RuntimeException("反序列化错误", e);
+        } finally {
+            input.setInputStream(null);
+            inputPool.free(input);
+            kryoPool.free(kryo);
+        }
+    }
+}
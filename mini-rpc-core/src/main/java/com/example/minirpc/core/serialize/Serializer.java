@@ -1,10 +1,40 @@
 package com.example.minirpc.core.serialize;
 
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.reflect.Type;
+
 /**
  * 序列化接口
  */
 public interface Serializer {
 
+    /**
+     * 序列化方式标识，写入协议帧消息头，不同实现必须唯一
+     *
+     * @return 序列化方式标识
+     */
+    byte getType();
+
+    /**
+     * 序列化方式名称，用于在配置和注解中选择序列化方式，如 json、kryo
+     *
+     * @return 序列化方式名称
+     */
+    String getName();
+
+    /**
+     * 声明可以被反序列化的类型，按类名还原对象的二进制序列化方式据此限制可以实例化的类
+     *
+     * <p>默认实现忽略，适用于按声明类型绑定数据的序列化方式。
+     *
+     * @param types 服务方法的参数和返回值声明类型
+     */
+    default void allowTypes(Type... types) {
+    }
+
     /**
      * 序列化对象为字节数组
      *
@@ -22,4 +52,54 @@ public interface Serializer {
      * @return 反序列化后的对象
      */
     <T> T deserialize(byte[] bytes, Class<T> clazz);
+
+    /**
+     * 序列化对象并直接写入缓冲区，默认实现先序列化为字节数组再拷贝，实现类应尽量覆盖以避免拷贝
+     *
+     * @param obj 要序列化的对象
+     * @param out 目标缓冲区
+     */
+    default void serialize(Object obj, ByteBuf out) {
+        out.writeBytes(serialize(obj));
+    }
+
+    /**
+     * 从缓冲区的可读部分反序列化对象，默认实现先拷贝为字节数组，实现类应尽量覆盖以避免拷贝
+     *
+     * @param in 源缓冲区，读取后readerIndex会前移
+     * @param clazz 目标类型
+     * @param <T> 泛型类型
+     * @return 反序列化后的对象
+     */
+    default <T> T deserialize(ByteBuf in, Class<T> clazz) {
+        byte[] bytes = new byte[in.readableBytes()];
+        in.readBytes(bytes);
+        return deserialize(bytes, clazz);
+    }
+
+    /**
+     * 反序列化RPC请求，参数按目标方法的声明类型绑定
+     *
+     * <p>默认实现忽略类型解析器，适用于自身携带类型信息的二进制序列化方式。
+     *
+     * @param in 源缓冲区
+     * @param resolver 参数类型解析器，可以为null
+     * @return RPC请求
+     */
+    default RpcRequest deserializeRequest(ByteBuf in, TypeResolver resolver) {
+        return deserialize(in, RpcRequest.class);
+    }
+
+    /**
+     * 反序列化RPC响应，响应数据按调用方法的返回值声明类型绑定
+     *
+     * <p>默认实现忽略声明类型，适用于自身携带类型信息的二进制序列化方式。
+     *
+     * @param in 源缓冲区
+     * @param dataType 返回值声明类型，可以为null
+     * @return RPC响应
+     */
+    default RpcResponse<?> deserializeResponse(ByteBuf in, Type dataType) {
+        return deserialize(in, RpcResponse.class);
+    }
 }
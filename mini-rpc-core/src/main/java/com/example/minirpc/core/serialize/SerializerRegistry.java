@@ -0,0 +1,149 @@
+package com.example.minirpc.core.serialize;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 序列化方式注册表，以消息头中的一字节标识查找序列化实现
+ *
+ * <p>通过 {@link ServiceLoader} 发现 META-INF/services/com.example.minirpc.core.serialize.Serializer 中声明的实现。
+ * 只有默认序列化方式和按名称启用的序列化方式会被注册，对端使用其他标识的消息一律拒绝，
+ * 未配置的序列化方式（如Kryo）不会暴露给对端。
+ */
+public class SerializerRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(SerializerRegistry.class);
+
+    // 按标识索引，标识为无符号字节
+    private final Serializer[] serializers = new Serializer[256];
+    private final Map<String, Serializer> serializersByName = new ConcurrentHashMap<>();
+
+    // 已声明可以被反序列化的类型，之后启用的序列化方式同样接受
+    private final List<Type> allowedTypes = new ArrayList<>();
+
+    /**
+     * 默认序列化方式，请求未指定序列化方式时使用
+     */
+    private final Serializer defaultSerializer;
+
+    /**
+     * @param defaultSerializer 默认序列化方式
+     */
+    public SerializerRegistry(Serializer defaultSerializer) {
+        register(defaultSerializer);
+        this.defaultSerializer = defaultSerializer;
+    }
+
+    /**
+     * 注册序列化方式，同标识的已有实现会被替换
+     */
+    public synchronized void register(Serializer serializer) {
+        Serializer previous = serializers[serializer.getType() & 0xFF];
+        if (previous != null && previous.getClass() != serializer.getClass()) {
+            logger.warn("序列化方式标识冲突: {}, {} 替换 {}", serializer.getType(),
+                    serializer.getClass().getName(), previous.getClass().getName());
+        }
+        if (!allowedTypes.isEmpty()) {
+            serializer.allowTypes(allowedTypes.toArray(new Type[0]));
+        }
+        serializers[serializer.getType() & 0xFF] = serializer;
+        serializersByName.put(serializer.getName(), serializer);
+    }
+
+    /**
+     * 声明方法的参数和返回值类型可以被反序列化，服务注册和创建服务代理时调用
+     */
+    public synchronized void allowTypes(Method... methods) {
+        List<Type> types = new ArrayList<>();
+        for (Method method : methods) {
+            if (method.getDeclaringClass() != Object.class) {
+                Collections.addAll(types, method.getGenericParameterTypes());
+                types.add(method.getGenericReturnType());
+            }
+        }
+        allowedTypes.addAll(types);
+        Type[] array = types.toArray(new Type[0]);
+        for (Serializer serializer : serializersByName.values()) {
+            serializer.allowTypes(array);
+        }
+    }
+
+    /**
+     * 按标识获取序列化方式
+     *
+     * @return 序列化实现，不存在时返回null
+     */
+    public Serializer get(byte type) {
+        return serializers[type & 0xFF];
+    }
+
+    /**
+     * 按名称获取序列化方式，还未启用时通过ServiceLoader加载并注册，之后才接受该标识的消息
+     *
+     * @throws IllegalArgumentException 不存在该名称的序列化方式
+     */
+    public Serializer get(String name) {
+        Serializer serializer = serializersByName.get(name);
+        if (serializer != null) {
+            return serializer;
+        }
+        synchronized (this) {
+            serializer = serializersByName.get(name);
+            if (serializer == null) {
+                serializer = load(name);
+                register(serializer);
+                logger.info("启用序列化方式: {}", name);
+            }
+            return serializer;
+        }
+    }
+
+    public Serializer getDefault() {
+        return defaultSerializer;
+    }
+
+    /**
+     * 通过ServiceLoader按名称加载序列化方式
+     *
+     * @throws IllegalArgumentException 不存在该名称的序列化方式
+     */
+    public static Serializer load(String name) {
+        for (Serializer serializer : loadAll()) {
+            if (serializer.getName().equals(name)) {
+                return serializer;
+            }
+        }
+        throw new IllegalArgumentException("不支持的序列化方式: " + name);
+    }
+
+    /**
+     * 加载所有声明的序列化实现，依赖缺失（如未引入Kryo）的实现会被跳过
+     */
+    private static List<Serializer> loadAll() {
+        List<Serializer> result = new ArrayList<>();
+        Iterator<Serializer> iterator = ServiceLoader.load(
+                Serializer.class, SerializerRegistry.class.getClassLoader()).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                result.add(iterator.next());
+            } catch (ServiceConfigurationError | LinkageError e) {
+                logger.warn("跳过无法加载的序列化实现: {}", e.getMessage());
+            }
+        }
+        return result;
+    }
+}
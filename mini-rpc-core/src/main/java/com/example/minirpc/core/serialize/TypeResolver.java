@@ -0,0 +1,27 @@
+package com.example.minirpc.core.serialize;
+
+import java.lang.reflect.Type;
+
+/**
+ * 消息体类型解析器，反序列化时据此把参数和返回值直接绑定为方法声明的泛型类型
+ */
+public interface TypeResolver {
+
+    /**
+     * 解析请求参数的声明类型，服务端实现
+     *
+     * @param interfaceName 接口名称
+     * @param methodName 方法名称
+     * @param parameterTypes 方法参数类型
+     * @return 参数的泛型声明类型，无法解析时返回null
+     */
+    Type[] resolveParameterTypes(String interfaceName, String methodName, Class<?>[] parameterTypes);
+
+    /**
+     * 解析响应数据的声明类型，客户端实现
+     *
+     * @param requestId 请求ID
+     * @return 返回值的泛型声明类型，无法解析时返回null
+     */
+    Type resolveReturnType(long requestId);
+}
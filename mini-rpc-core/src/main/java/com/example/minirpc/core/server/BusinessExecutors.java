@@ -0,0 +1,96 @@
+package com.example.minirpc.core.server;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 业务线程池工厂，服务方法在这里执行，而不是在Netty的I/O线程上执行
+ */
+public final class BusinessExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessExecutors.class);
+
+    private BusinessExecutors() {
+    }
+
+    /**
+     * 创建有界队列的业务线程池，队列满时抛出RejectedExecutionException，由调用方返回"服务器繁忙"响应
+     *
+     * @param coreThreads 核心线程数
+     * @param maxThreads 最大线程数
+     * @param queueCapacity 等待队列容量
+     * @param keepAliveMillis 非核心线程空闲存活时间，单位毫秒
+     * @return 业务线程池
+     */
+    public static ExecutorService newThreadPool(int coreThreads, int maxThreads, int queueCapacity, long keepAliveMillis) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                coreThreads,
+                Math.max(coreThreads, maxThreads),
+                keepAliveMillis,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new NamedThreadFactory("rpc-business"),
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("创建业务线程池, 核心线程数: {}, 最大线程数: {}, 队列容量: {}",
+                coreThreads, maxThreads, queueCapacity);
+        return executor;
+    }
+
+    /**
+     * 创建每个请求一个虚拟线程的执行器，需要JDK 21及以上版本
+     *
+     * @return 虚拟线程执行器
+     * @throws IllegalStateException 当前JDK不支持虚拟线程
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            logger.info("创建虚拟线程业务执行器");
+            return executor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("当前JDK不支持虚拟线程，需要JDK 21及以上版本");
+        } catch (Exception e) {
+            throw new IllegalStateException("创建虚拟线程执行器失败", e);
+        }
+    }
+
+    /**
+     * 判断当前JDK是否支持虚拟线程
+     */
+    public static boolean isVirtualThreadSupported() {
+        try {
+            java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 带名称前缀的线程工厂
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.minirpc.core.server;
+
+import com.example.minirpc.core.protocol.MethodSignature;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * 预编译的服务方法调用器，在服务注册时创建，调用时不再需要反射查找方法
+ */
+public class MethodInvoker {
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    private final Method method;
+
+    /**
+     * 方法签名，注册时计算一次
+     */
+    private final String signature;
+
+    // 参数类型，Method.getParameterTypes每次都会拷贝数组，这里只取一次
+    private final Class<?>[] parameterTypes;
+
+    /**
+     * 方法返回Stream，按流式调用处理
+     */
+    private final boolean streaming;
+
+    /**
+     * 已绑定服务实例的方法句柄，签名统一为 (Object[])Object
+     */
+    private final MethodHandle handle;
+
+    public MethodInvoker(Object serviceBean, Method method) throws IllegalAccessException {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+        this.signature = MethodSignature.of(method.getName(), parameterTypes);
+        this.streaming = Stream.class.isAssignableFrom(method.getReturnType());
+        method.setAccessible(true);
+        this.handle = MethodHandles.lookup().unreflect(method)
+                .bindTo(serviceBean)
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    /**
+     * 调用服务方法
+     *
+     * @param args 方法参数，无参方法可以为null
+     * @return 方法返回值，void方法返回null
+     * @throws Throwable 服务方法抛出的原始异常
+     */
+    public Object invoke(Object[] args) throws Throwable {
+        return (Object) handle.invokeExact(args == null ? EMPTY_ARGS : args);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * 判断方法的参数类型是否与请求的参数类型一致，null等同于无参
+     */
+    public boolean matches(Class<?>[] types) {
+        return types == null ? parameterTypes.length == 0 : Arrays.equals(parameterTypes, types);
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+}
@@ -1,26 +1,56 @@
 package com.example.minirpc.core.server;
 
+import com.example.minirpc.core.codec.FlushMetrics;
+import com.example.minirpc.core.codec.FlushMetricsHandler;
+import com.example.minirpc.core.codec.RpcMessageDecoder;
+import com.example.minirpc.core.codec.RpcMessageEncoder;
+import com.example.minirpc.core.compress.Compressor;
+import com.example.minirpc.core.compress.CompressorRegistry;
+import com.example.minirpc.core.limit.AdaptiveConcurrencyLimiter;
+import com.example.minirpc.core.limit.RateLimitRule;
+import com.example.minirpc.core.limit.RateLimiter;
+import com.example.minirpc.core.protocol.MethodSignature;
+import com.example.minirpc.core.protocol.RpcAttachment;
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
 import com.example.minirpc.core.protocol.RpcRequest;
 import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.registry.ServiceInstance;
 import com.example.minirpc.core.registry.ServiceRegistry;
 import com.example.minirpc.core.serialize.Serializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import com.example.minirpc.core.serialize.TypeResolver;
+import com.example.minirpc.core.transport.NettyTransport;
 import io.netty.bootstrap.ServerBootstrap;
-import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.codec.ByteToMessageDecoder;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.EncoderException;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
-import java.net.InetAddress;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 /**
  * 基于Netty的RPC服务器实现
@@ -29,58 +59,110 @@ public class NettyRpcServer implements RpcServer {
 
     private static final Logger logger = LoggerFactory.getLogger(NettyRpcServer.class);
 
+    private static final int DEFAULT_BUSINESS_THREADS = Runtime.getRuntime().availableProcessors() * 2;
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    
+    // 流式调用每拉取多少个元素向I/O线程提交一次写出
+    private static final int STREAM_FLUSH_INTERVAL = 32;
+
     private final String host;
     private final int port;
     private final ServiceRegistry serviceRegistry;
-    private final Serializer serializer;
+    private final SerializerRegistry serializers;
+    private final CompressorRegistry compressors;
+    private final RpcServerConfig config;
+    private final FlushMetrics flushMetrics = new FlushMetrics();
+    
+    // 本服务器在注册中心中的实例
+    private final ServiceInstance instance;
+    
+    // 业务线程池，服务方法在此执行，避免阻塞I/O线程
+    private final ExecutorService businessExecutor;
     
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
-    private Channel channel;
+    private final List<Channel> channels = new CopyOnWriteArrayList<>();
+    
+    // 存储服务名称与服务定义的映射
+    private final Map<String, ServiceDefinition> serviceMap = new ConcurrentHashMap<>();
+    
+    // 服务名称 -> 服务级限流器
+    private final Map<String, RateLimiter> serviceRateLimiters = new ConcurrentHashMap<>();
     
-    // 存储服务名称与服务对象的映射
-    private final Map<String, Object> serviceMap = new ConcurrentHashMap<>();
+    // 服务名称 -> 方法名称 -> 方法级限流器
+    private final Map<String, Map<String, RateLimiter>> methodRateLimiters = new ConcurrentHashMap<>();
+    
+    // 服务方法 -> 自适应并发限制器，未启用并发限制时为空
+    private final Map<MethodInvoker, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
 
     public NettyRpcServer(String host, int port, ServiceRegistry serviceRegistry, Serializer serializer) {
+        this(host, port, serviceRegistry, serializer, BusinessExecutors.newThreadPool(
+                DEFAULT_BUSINESS_THREADS, DEFAULT_BUSINESS_THREADS, DEFAULT_QUEUE_CAPACITY, 60000));
+    }
+
+    public NettyRpcServer(String host, int port, ServiceRegistry serviceRegistry, Serializer serializer,
+                          ExecutorService businessExecutor) {
+        this(host, port, serviceRegistry, serializer, businessExecutor, new RpcServerConfig());
+    }
+
+    public NettyRpcServer(String host, int port, ServiceRegistry serviceRegistry, Serializer serializer,
+                          ExecutorService businessExecutor, RpcServerConfig config) {
         this.host = host;
         this.port = port;
         this.serviceRegistry = serviceRegistry;
-        this.serializer = serializer;
+        this.serializers = new SerializerRegistry(serializer);
+        this.compressors = new CompressorRegistry();
+        this.config = config;
+        this.instance = new ServiceInstance(host, port, config.getWeight(), config.getZone(), config.getVersion());
+        this.businessExecutor = businessExecutor;
     }
 
     @Override
     public void start() {
-        bossGroup = new NioEventLoopGroup(1);
-        workerGroup = new NioEventLoopGroup();
+        NettyTransport transport = new NettyTransport(config.getSocket());
+        int acceptThreads = transport.isReusePort() ? Math.max(1, config.getAcceptThreads()) : 1;
+        bossGroup = transport.newEventLoopGroup(acceptThreads, "rpc-server-boss");
+        workerGroup = transport.newEventLoopGroup(config.getIoThreads(), "rpc-server-worker");
         try {
             ServerBootstrap bootstrap = new ServerBootstrap();
             bootstrap.group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
                     .childHandler(new ChannelInitializer<SocketChannel>() {
                         @Override
                         protected void initChannel(SocketChannel ch) {
+                            ch.pipeline().addLast(new FlushMetricsHandler(flushMetrics));
+                            if (config.getMaxFlushBatch() > 0) {
+                                // 业务线程写回的响应也合并到同一轮事件循环中统一刷新
+                                ch.pipeline().addLast(new FlushConsolidationHandler(config.getMaxFlushBatch(), true));
+                            }
+                            if (config.getIdleTimeout() > 0) {
+                                // 长时间没有收到请求或心跳的连接视为已失效
+                                ch.pipeline().addLast(new IdleStateHandler(
+                                        config.getIdleTimeout(), 0, 0, TimeUnit.MILLISECONDS));
+                            }
                             ch.pipeline()
-                                    .addLast(new RpcDecoder())
-                                    .addLast(new RpcEncoder())
+                                    .addLast(new RpcMessageDecoder(serializers, compressors, new ServiceTypeResolver(),
+                                            config.getMaxFrameLength()))
+                                    .addLast(new RpcMessageEncoder(serializers, config.getCompressThreshold(),
+                                            config.getMaxFrameLength()))
                                     .addLast(new RpcServerHandler());
                         }
-                    })
-                    .option(ChannelOption.SO_BACKLOG, 128)
-                    .childOption(ChannelOption.SO_KEEPALIVE, true);
+                    });
+            transport.configure(bootstrap);
 
-            // 绑定端口并启动服务器
-            ChannelFuture future = bootstrap.bind(host, port).sync();
-            logger.info("RPC服务器启动成功，监听地址：{}:{}", host, port);
+            // 开启SO_REUSEPORT时每个接受线程绑定一个监听通道，由内核在它们之间分发新连接
+            for (int i = 0; i < acceptThreads; i++) {
+                channels.add(bootstrap.bind(host, port).sync().channel());
+            }
+            logger.info("RPC服务器启动成功，监听地址：{}:{}，传输：{}，接受线程数：{}",
+                    host, port, transport.isEpoll() ? "epoll" : "nio", acceptThreads);
             
-            // 注册服务地址到注册中心
-            String serverAddress = host + ":" + port;
-            serviceMap.keySet().forEach(serviceName -> 
-                    serviceRegistry.register(serviceName, serverAddress));
-                    
-            channel = future.channel();
+            // 注册服务实例到注册中心
+            serviceMap.keySet().forEach(serviceName -> serviceRegistry.register(serviceName, instance));
             
             // 等待服务器关闭
-            future.channel().closeFuture().sync();
+            for (Channel channel : channels) {
+                channel.closeFuture().sync();
+            }
         } catch (Exception e) {
             logger.error("RPC服务器启动异常", e);
         }
@@ -88,119 +170,627 @@ public class NettyRpcServer implements RpcServer {
 
     @Override
     public void stop() {
-        if (channel != null) {
-            channel.close();
-        }
+        serviceMap.keySet().forEach(serviceName -> serviceRegistry.unregister(serviceName, instance));
+        channels.forEach(Channel::close);
         if (bossGroup != null) {
             bossGroup.shutdownGracefully();
         }
         if (workerGroup != null) {
             workerGroup.shutdownGracefully();
         }
+        businessExecutor.shutdown();
         logger.info("RPC服务器已关闭");
     }
 
+    /**
+     * 响应写出的刷新统计
+     */
+    public FlushMetrics getFlushMetrics() {
+        return flushMetrics;
+    }
+
     @Override
-    public void registerService(String serviceName, Object serviceBean) {
-        logger.info("注册服务: {}", serviceName);
-        serviceMap.put(serviceName, serviceBean);
+    public void setRateLimit(String serviceName, String methodName, RateLimitRule rule) {
+        if (rule != null && rule.getPermitsPerSecond() <= 0) {
+            throw new IllegalArgumentException("每秒请求数必须大于0: " + rule);
+        }
+        if (methodName == null || methodName.isEmpty()) {
+            if (rule == null) {
+                serviceRateLimiters.remove(serviceName);
+            } else {
+                serviceRateLimiters.put(serviceName, new RateLimiter(rule));
+            }
+        } else {
+            Map<String, RateLimiter> methods = methodRateLimiters.computeIfAbsent(serviceName,
+                    k -> new ConcurrentHashMap<>());
+            if (rule == null) {
+                methods.remove(methodName);
+            } else {
+                methods.put(methodName, new RateLimiter(rule));
+            }
+        }
+        logger.info("设置限流规则: {}{}, {}", serviceName,
+                methodName == null || methodName.isEmpty() ? "" : "#" + methodName, rule);
     }
 
     /**
-     * RPC请求处理器
+     * 检查方法级和服务级限流规则，没有配置任何规则时只有两次isEmpty判断；
+     * 先检查范围较小的方法级规则，被方法级规则拒绝的请求不会消耗服务级的令牌
      */
-    private class RpcServerHandler extends SimpleChannelInboundHandler<RpcRequest> {
-        @Override
-        protected void channelRead0(ChannelHandlerContext ctx, RpcRequest request) {
-            // 创建并提交任务，异步处理RPC请求
-            ctx.executor().execute(() -> {
-                logger.debug("接收到RPC请求: {}", request);
-                RpcResponse<?> response = handleRequest(request);
-                ctx.writeAndFlush(response);
-            });
+    private boolean tryAcquireRate(RpcRequest request) {
+        if (!methodRateLimiters.isEmpty()) {
+            Map<String, RateLimiter> methods = methodRateLimiters.get(request.getInterfaceName());
+            RateLimiter limiter = methods == null ? null : methods.get(request.getMethodName());
+            if (limiter != null && !limiter.tryAcquire(request.getCaller())) {
+                return false;
+            }
+        }
+        if (!serviceRateLimiters.isEmpty()) {
+            RateLimiter limiter = serviceRateLimiters.get(request.getInterfaceName());
+            return limiter == null || limiter.tryAcquire(request.getCaller());
         }
+        return true;
+    }
 
-        @Override
-        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
-            logger.error("RPC服务器异常", cause);
-            ctx.close();
+    /**
+     * 获取服务方法的并发限制器，用于观察当前的并发上限
+     *
+     * @param signature 方法签名，见 {@link MethodSignature#of(String, Class[])}
+     * @return 并发限制器，服务方法不存在、未启用并发限制或还没有收到请求时返回null
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter(String serviceName, String signature) {
+        ServiceDefinition service = serviceMap.get(serviceName);
+        MethodInvoker invoker = service == null ? null : service.getInvoker(signature);
+        return invoker == null ? null : limiters.get(invoker);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(MethodInvoker invoker) {
+        if (!config.isConcurrencyLimitEnabled()) {
+            return null;
         }
+        AdaptiveConcurrencyLimiter limiter = limiters.get(invoker);
+        return limiter != null ? limiter : limiters.computeIfAbsent(invoker, k -> new AdaptiveConcurrencyLimiter(
+                config.getInitialConcurrencyLimit(), config.getMinConcurrencyLimit(), config.getMaxConcurrencyLimit()));
+    }
+
+    @Override
+    public void registerService(String serviceName, Object serviceBean, String serializer) {
+        logger.info("注册服务: {}", serviceName);
+        byte serializerType = serializer == null || serializer.isEmpty() ? 0 : serializers.get(serializer).getType();
+        serializers.allowTypes(serviceInterface(serviceName, serviceBean.getClass()).getMethods());
+        serviceMap.put(serviceName, new ServiceDefinition(serviceName, serviceBean, serializerType));
     }
 
     /**
-     * 处理RPC请求并返回结果
+     * 查找服务实例实现的服务接口，找不到时返回实例的类
      */
-    private RpcResponse<?> handleRequest(RpcRequest request) {
-        String serviceName = request.getInterfaceName();
-        Object serviceBean = serviceMap.get(serviceName);
-        
-        if (serviceBean == null) {
-            logger.error("找不到服务: {}", serviceName);
-            return RpcResponse.fail(request.getRequestId(), 404, "服务不存在: " + serviceName);
+    private static Class<?> serviceInterface(String serviceName, Class<?> beanClass) {
+        for (Class<?> type = beanClass; type != null; type = type.getSuperclass()) {
+            for (Class<?> candidate : type.getInterfaces()) {
+                if (candidate.getName().equals(serviceName)) {
+                    return candidate;
+                }
+            }
         }
-        
-        try {
-            Class<?> serviceClass = serviceBean.getClass();
-            String methodName = request.getMethodName();
-            Class<?>[] parameterTypes = request.getParameterTypes();
-            Object[] parameters = request.getParameters();
-            
-            Method method = serviceClass.getMethod(methodName, parameterTypes);
-            method.setAccessible(true);
-            Object result = method.invoke(serviceBean, parameters);
-            
-            return RpcResponse.success(request.getRequestId(), result);
-        } catch (Exception e) {
-            logger.error("处理RPC请求时发生异常", e);
-            return RpcResponse.fail(request.getRequestId(), 500, "服务调用异常: " + e.getMessage());
+        return beanClass;
+    }
+
+    /**
+     * 按已注册服务的方法签名解析请求参数的声明类型
+     */
+    private class ServiceTypeResolver implements TypeResolver {
+        @Override
+        public Type[] resolveParameterTypes(String interfaceName, String methodName, Class<?>[] parameterTypes) {
+            ServiceDefinition service = serviceMap.get(interfaceName);
+            if (service == null) {
+                return null;
+            }
+            MethodInvoker invoker = service.getInvoker(methodName, parameterTypes);
+            return invoker == null ? null : invoker.getMethod().getGenericParameterTypes();
+        }
+
+        @Override
+        public Type resolveReturnType(long requestId) {
+            return null;
         }
     }
 
     /**
-     * RPC解码器，将字节转换为RPC请求对象
+     * RPC请求处理器，每个连接一个实例
+     *
+     * <p>连接上已分发的请求数达到上限，或响应写缓冲区超过高水位（对端读取太慢）时暂停读取该连接，
+     * 对端的请求积压在TCP缓冲区中，服务端为单个连接占用的内存保持有界。
+     *
+     * <p>流式调用的元素只在客户端授予信用且写缓冲区未超过高水位时才从Stream中拉取，
+     * 无论结果集多大，服务端为一个流式调用占用的内存只与信用数有关。
      */
-    private class RpcDecoder extends ByteToMessageDecoder {
+    private class RpcServerHandler extends SimpleChannelInboundHandler<RpcMessage> {
+        
+        // 已分发到业务线程池但还未写回响应的请求数
+        private final AtomicInteger inflight = new AtomicInteger();
+        
+        // 请求ID -> 进行中的流式调用
+        private final Map<Long, ServerStream> streams = new ConcurrentHashMap<>();
+
         @Override
-        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
-            // 至少需要4个字节来表示内容长度
-            if (in.readableBytes() < 4) {
+        protected void channelRead0(ChannelHandlerContext ctx, RpcMessage message) {
+            if (message.getMessageType() == RpcProtocol.TYPE_HANDSHAKE) {
+                handshake(ctx, message);
+                return;
+            }
+            if (message.getMessageType() == RpcProtocol.TYPE_PING) {
+                ctx.writeAndFlush(new RpcMessage(RpcProtocol.TYPE_PONG, message.getSerializerType(),
+                        RpcProtocol.STATUS_OK, message.getRequestId(), null));
+                return;
+            }
+            if (message.getMessageType() == RpcProtocol.TYPE_STREAM_CREDIT
+                    || message.getMessageType() == RpcProtocol.TYPE_STREAM_CANCEL) {
+                ServerStream stream = streams.get(message.getRequestId());
+                if (stream == null) {
+                    // 流式调用已经结束
+                    return;
+                }
+                Integer credits = (Integer) message.getBody();
+                if (message.getMessageType() == RpcProtocol.TYPE_STREAM_CREDIT && credits != null && credits > 0) {
+                    stream.grant(credits);
+                } else {
+                    stream.cancel();
+                }
+                return;
+            }
+            if (message.getMessageType() == RpcProtocol.TYPE_BATCH_REQUEST) {
+                @SuppressWarnings("unchecked")
+                List<RpcMessage> items = (List<RpcMessage>) message.getBody();
+                if (items == null || items.isEmpty()) {
+                    // 无法得知其中的请求ID，关闭连接让客户端立即结束这些请求，而不是等到超时
+                    logger.warn("连接 {} 收到无法解析的批量请求，关闭连接: {}", ctx.channel().remoteAddress(), message);
+                    ctx.close();
+                    return;
+                }
+                // 批量帧中的请求分别分发到业务线程池并行执行，各自完成后尽快写回
+                BatchResponse batch = new BatchResponse(ctx);
+                for (RpcMessage item : items) {
+                    dispatch(ctx, item, batch);
+                }
+                return;
+            }
+            if (message.getMessageType() != RpcProtocol.TYPE_REQUEST) {
+                logger.warn("忽略非请求消息: {}", message);
+                return;
+            }
+            dispatch(ctx, message, (request, serializerType, response) ->
+                    writeResponse(ctx, request, serializerType, response));
+        }
+
+        /**
+         * 校验、限流后把请求分发到业务线程池，响应（包括拒绝响应）交给responder写回
+         */
+        private void dispatch(ChannelHandlerContext ctx, RpcMessage message, Responder target) {
+            RpcRequest request = (RpcRequest) message.getBody();
+            // 请求的附件在响应（包括拒绝响应）生成后释放
+            Responder responder = request == null || !RpcAttachment.containsAny(request.getParameters()) ? target
+                    : (requestMessage, serializerType, response) -> {
+                        RpcAttachment.releaseAll(request.getParameters());
+                        target.respond(requestMessage, serializerType, response);
+                    };
+            if (request == null) {
+                // 消息体无法解析，仅凭消息头拒绝，使用默认序列化方式响应
+                responder.respond(message, serializers.getDefault().getType(), RpcResponse.fail(
+                        message.getRequestId(), 400, "不支持的序列化方式: " + message.getSerializerType()));
                 return;
             }
             
-            // 标记当前读取位置
-            in.markReaderIndex();
+            String serviceName = request.getInterfaceName();
+            ServiceDefinition service = serviceMap.get(serviceName);
+            if (service == null) {
+                logger.error("找不到服务: {}", serviceName);
+                responder.respond(message, message.getSerializerType(),
+                        RpcResponse.fail(request.getRequestId(), 404, "服务不存在: " + serviceName));
+                return;
+            }
+            // 服务指定了序列化方式时按服务配置响应，否则沿用请求的序列化方式
+            byte serializerType = service.getSerializerType() != 0
+                    ? service.getSerializerType() : message.getSerializerType();
             
-            // 读取内容长度
-            int length = in.readInt();
+            MethodInvoker invoker = service.getInvoker(request.getMethodName(), request.getParameterTypes());
+            if (invoker == null) {
+                String signature = MethodSignature.of(request.getMethodName(), request.getParameterTypes());
+                logger.error("找不到服务方法: {}.{}", serviceName, signature);
+                responder.respond(message, serializerType,
+                        RpcResponse.fail(request.getRequestId(), 404, "方法不存在: " + signature));
+                return;
+            }
             
-            // 检查是否有足够的数据
-            if (in.readableBytes() < length) {
-                in.resetReaderIndex();
+            // 超过限流阈值的请求直接拒绝，不记录日志也不创建异常，大量被拒绝的请求不会消耗过多CPU
+            if (!tryAcquireRate(request)) {
+                responder.respond(message, serializerType, RpcResponse.fail(request.getRequestId(),
+                        RpcProtocol.CODE_OVERLOADED, "超过限流阈值，请稍后重试"));
+                return;
+            }
+            
+            // 超过并发上限的请求在I/O线程上直接拒绝，不进入业务线程池排队
+            AdaptiveConcurrencyLimiter limiter = limiter(invoker);
+            if (limiter != null && !limiter.tryAcquire()) {
+                logger.debug("超过并发上限 {}，拒绝请求: {}.{}", limiter.getLimit(), serviceName, invoker.getSignature());
+                responder.respond(message, serializerType, RpcResponse.fail(request.getRequestId(),
+                        RpcProtocol.CODE_OVERLOADED, "服务器过载，请稍后重试"));
+                return;
+            }
+            long startNanos = System.nanoTime();
+            if (inflight.incrementAndGet() >= config.getMaxInflightPerConnection()) {
+                updateAutoRead(ctx.channel());
+            }
+            
+            // 流式调用在方法执行前登记，方法返回之前到达的信用也会被累计
+            ServerStream stream = invoker.isStreaming()
+                    ? new ServerStream(ctx, message, serializerType, responder) : null;
+            if (stream != null) {
+                streams.put(message.getRequestId(), stream);
+            }
+            
+            // 提交到业务线程池处理，I/O线程只负责编解码
+            try {
+                businessExecutor.execute(() -> {
+                    logger.debug("接收到RPC请求: {}", request);
+                    handleRequest(invoker, request).thenAccept(response -> {
+                        if (limiter != null) {
+                            limiter.release(System.nanoTime() - startNanos);
+                        }
+                        releaseInflight(ctx.channel());
+                        if (stream != null && response.getData() instanceof Stream) {
+                            stream.start((Stream<?>) response.getData());
+                            return;
+                        }
+                        if (stream != null) {
+                            streams.remove(message.getRequestId(), stream);
+                        }
+                        responder.respond(message, serializerType, response);
+                    });
+                });
+            } catch (RejectedExecutionException e) {
+                if (limiter != null) {
+                    limiter.releaseDropped();
+                }
+                if (stream != null) {
+                    streams.remove(message.getRequestId(), stream);
+                }
+                releaseInflight(ctx.channel());
+                logger.warn("业务线程池已满，拒绝请求: {}", message.getRequestId());
+                responder.respond(message, serializerType, RpcResponse.fail(request.getRequestId(),
+                        RpcProtocol.CODE_UNAVAILABLE, "服务器繁忙，请稍后重试"));
+            }
+        }
+
+        /**
+         * 接受客户端期望的压缩方式（如果支持），并在握手响应中告知实际采用的压缩方式
+         */
+        private void handshake(ChannelHandlerContext ctx, RpcMessage message) {
+            Compressor compressor = config.isCompressionEnabled()
+                    ? compressors.get(message.getFlags() & RpcProtocol.FLAG_COMPRESS_MASK) : null;
+            ctx.channel().attr(RpcMessageEncoder.COMPRESSOR).set(compressor);
+            logger.debug("连接 {} 协商压缩方式: {}", ctx.channel().remoteAddress(),
+                    compressor == null ? CompressorRegistry.NONE : compressor.getName());
+
+            RpcMessage reply = new RpcMessage(RpcProtocol.TYPE_HANDSHAKE, serializers.getDefault().getType(),
+                    RpcProtocol.STATUS_OK, message.getRequestId(), null);
+            reply.setFlags(compressor == null ? 0 : compressor.getType());
+            ctx.writeAndFlush(reply);
+        }
+
+        /**
+         * 请求完成，已分发的请求数从上限回落时恢复读取
+         */
+        private void releaseInflight(Channel channel) {
+            if (inflight.decrementAndGet() == config.getMaxInflightPerConnection() - 1) {
+                channel.eventLoop().execute(() -> updateAutoRead(channel));
+            }
+        }
+
+        /**
+         * 只有在写缓冲区未超过高水位且已分发的请求数低于上限时才读取连接，必须在I/O线程上调用
+         */
+        private void updateAutoRead(Channel channel) {
+            boolean read = channel.isWritable() && inflight.get() < config.getMaxInflightPerConnection();
+            if (channel.config().isAutoRead() != read) {
+                channel.config().setAutoRead(read);
+                logger.debug("连接 {} {}读取, 已分发请求数: {}, 可写: {}", channel.remoteAddress(),
+                        read ? "恢复" : "暂停", inflight.get(), channel.isWritable());
+            }
+        }
+
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+            updateAutoRead(ctx.channel());
+            if (ctx.channel().isWritable()) {
+                streams.values().forEach(ServerStream::resume);
+            }
+            super.channelWritabilityChanged(ctx);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            streams.values().forEach(ServerStream::cancel);
+            super.channelInactive(ctx);
+        }
+
+        /**
+         * 读空闲超时，客户端已崩溃或网络已断开，关闭半开连接释放资源
+         */
+        @Override
+        public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+            if (evt instanceof IdleStateEvent) {
+                logger.info("连接 {} 超过 {}ms 没有收到数据，关闭连接", ctx.channel().remoteAddress(),
+                        config.getIdleTimeout());
+                ctx.close();
                 return;
             }
+            super.userEventTriggered(ctx, evt);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            if (cause instanceof DecoderException) {
+                // 非法或超长的帧，通常来自错误的对端，不打印堆栈
+                logger.warn("连接 {} 收到非法数据，关闭连接: {}", ctx.channel().remoteAddress(), cause.getMessage());
+            } else {
+                logger.error("RPC服务器异常", cause);
+            }
+            ctx.close();
+        }
+
+        /**
+         * 一个流式调用，在业务线程池上按信用从Stream中拉取元素并逐个写出
+         *
+         * <p>同一时刻最多只有一个拉取任务在执行，Stream只会被一个线程访问；信用耗尽、写缓冲区超过高水位时
+         * 拉取任务退出，收到新的信用或恢复可写时重新提交。Stream结束、出错或被取消时关闭Stream并移除调用。
+         */
+        private class ServerStream {
+            private final ChannelHandlerContext ctx;
+            private final RpcMessage requestMessage;
+            private final byte serializerType;
+            private final Responder responder;
+            
+            // 客户端授予但还未使用的信用
+            private final AtomicLong credits = new AtomicLong();
             
-            // 读取消息体
-            byte[] data = new byte[length];
-            in.readBytes(data);
+            // 拉取任务已提交或正在执行
+            private final AtomicBoolean running = new AtomicBoolean();
             
-            // 反序列化为RPC请求对象
-            RpcRequest request = serializer.deserialize(data, RpcRequest.class);
-            out.add(request);
+            private volatile Iterator<?> iterator;
+            private volatile boolean cancelled;
+            private volatile boolean done;
+            private Stream<?> source;
+            
+            // 已拉取但还未提交给I/O线程的元素帧，只在拉取任务中访问
+            private List<RpcMessage> chunks = new ArrayList<>(STREAM_FLUSH_INTERVAL);
+
+            ServerStream(ChannelHandlerContext ctx, RpcMessage requestMessage, byte serializerType,
+                         Responder responder) {
+                this.ctx = ctx;
+                this.requestMessage = requestMessage;
+                this.serializerType = serializerType;
+                this.responder = responder;
+            }
+
+            /**
+             * 服务方法返回了Stream，开始按信用发送元素
+             */
+            void start(Stream<?> source) {
+                this.source = source;
+                this.iterator = source.iterator();
+                schedule();
+            }
+
+            void grant(int n) {
+                credits.addAndGet(n);
+                schedule();
+            }
+
+            void cancel() {
+                cancelled = true;
+                schedule();
+            }
+
+            void resume() {
+                schedule();
+            }
+
+            private void schedule() {
+                if (iterator == null || done || !running.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    businessExecutor.execute(this::pump);
+                } catch (RejectedExecutionException e) {
+                    // 客户端可能已授予全部信用，不一定还有新的信用或可写事件触发重试，直接结束流式调用；
+                    // 此时持有运行标志，不会与拉取任务并发
+                    logger.warn("业务线程池已满，结束流式调用: {}", requestMessage.getRequestId());
+                    finish(cancelled ? null : RpcResponse.fail(requestMessage.getRequestId(),
+                            RpcProtocol.CODE_UNAVAILABLE, "服务器繁忙，请稍后重试"));
+                }
+            }
+
+            private void pump() {
+                long requestId = requestMessage.getRequestId();
+                try {
+                    while (!done) {
+                        if (cancelled) {
+                            finish(null);
+                        } else if (credits.get() <= 0 || !ctx.channel().isWritable()) {
+                            break;
+                        } else if (!iterator.hasNext()) {
+                            finish(RpcResponse.success(requestId, null));
+                        } else {
+                            Object element = iterator.next();
+                            credits.decrementAndGet();
+                            chunks.add(new RpcMessage(RpcProtocol.TYPE_STREAM_CHUNK, serializerType,
+                                    RpcProtocol.STATUS_OK, requestId, RpcResponse.success(requestId, element)));
+                            if (chunks.size() >= STREAM_FLUSH_INTERVAL) {
+                                writeChunks();
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    logger.error("流式调用发送元素时发生异常", e);
+                    finish(RpcResponse.fail(requestId, 500, "服务调用异常: " + e.getMessage()));
+                } finally {
+                    writeChunks();
+                    running.set(false);
+                }
+                // 释放运行标志后重新检查，避免错过退出前刚到达的信用或取消
+                if (!done && (cancelled || credits.get() > 0 && ctx.channel().isWritable())) {
+                    schedule();
+                }
+            }
+
+            /**
+             * 在I/O线程上一次写出并刷新已拉取的元素帧，避免每个元素都向I/O线程提交一个写任务
+             */
+            private void writeChunks() {
+                if (chunks.isEmpty()) {
+                    return;
+                }
+                List<RpcMessage> pending = chunks;
+                chunks = new ArrayList<>(STREAM_FLUSH_INTERVAL);
+                ctx.executor().execute(() -> {
+                    for (RpcMessage chunk : pending) {
+                        ctx.write(chunk);
+                    }
+                    ctx.flush();
+                });
+            }
+
+            /**
+             * 结束流式调用，response为null表示被取消，不再发送响应
+             */
+            private void finish(RpcResponse<?> response) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                streams.remove(requestMessage.getRequestId(), this);
+                // 已拉取的元素先于结束响应写出
+                writeChunks();
+                try {
+                    source.close();
+                } catch (RuntimeException e) {
+                    logger.warn("关闭流式调用的Stream失败: {}", e.getMessage());
+                }
+                if (response != null) {
+                    responder.respond(requestMessage, serializerType, response);
+                } else {
+                    RpcAttachment.releaseAll(((RpcRequest) requestMessage.getBody()).getParameters());
+                }
+            }
         }
     }
 
     /**
-     * RPC编码器，将RPC响应对象转换为字节
+     * 请求的响应写回方式
      */
-    private class RpcEncoder extends MessageToByteEncoder<RpcResponse> {
+    private interface Responder {
+        void respond(RpcMessage requestMessage, byte serializerType, RpcResponse<?> response);
+    }
+
+    /**
+     * 批量请求的响应收集器，每个请求完成后尽快写回，不等待同一批量中的其他请求
+     *
+     * <p>同一轮事件循环之前完成的响应合并为一个批量响应帧写出（只有一个时按普通响应帧写出），
+     * 慢请求或一直没有完成的异步请求不会拖住其他请求的响应。
+     */
+    private class BatchResponse implements Responder {
+        private final ChannelHandlerContext ctx;
+        private final Queue<RpcMessage> completed = new ConcurrentLinkedQueue<>();
+
+        // 已安排写出任务
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private final Runnable flushTask = this::flush;
+
+        BatchResponse(ChannelHandlerContext ctx) {
+            this.ctx = ctx;
+        }
+
         @Override
-        protected void encode(ChannelHandlerContext ctx, RpcResponse response, ByteBuf out) {
-            // 将响应对象序列化为字节数组
-            byte[] data = serializer.serialize(response);
-            
-            // 写入长度和数据
-            out.writeInt(data.length);
-            out.writeBytes(data);
+        public void respond(RpcMessage requestMessage, byte serializerType, RpcResponse<?> response) {
+            if (response.getData() instanceof RpcAttachment) {
+                // 带有附件的响应单独成帧，附件原样写出
+                writeResponse(ctx, requestMessage, serializerType, response);
+                return;
+            }
+            completed.offer(new RpcMessage(RpcProtocol.TYPE_RESPONSE, serializerType,
+                    RpcProtocol.statusOf(response), requestMessage.getRequestId(), response));
+            if (scheduled.compareAndSet(false, true)) {
+                ctx.executor().execute(flushTask);
+            }
         }
+
+        /**
+         * 在I/O线程上写出已完成的响应，先清除标志，之后完成的响应会重新安排写出
+         */
+        private void flush() {
+            scheduled.set(false);
+            List<RpcMessage> items = new ArrayList<>();
+            RpcMessage item;
+            while ((item = completed.poll()) != null) {
+                items.add(item);
+            }
+            if (items.size() == 1) {
+                ctx.writeAndFlush(items.get(0));
+            } else if (!items.isEmpty()) {
+                ctx.writeAndFlush(new RpcMessage(RpcProtocol.TYPE_BATCH_RESPONSE,
+                        serializers.getDefault().getType(), RpcProtocol.STATUS_OK, 0, items));
+            }
+        }
+    }
+
+    /**
+     * 将响应封装为协议帧写回，沿用请求帧的请求ID；带有附件的响应无法编码（如超过最大帧长度）时改为返回错误响应
+     */
+    private void writeResponse(ChannelHandlerContext ctx, RpcMessage requestMessage, byte serializerType,
+                               RpcResponse<?> response) {
+        RpcMessage message = new RpcMessage(RpcProtocol.TYPE_RESPONSE, serializerType,
+                RpcProtocol.statusOf(response), requestMessage.getRequestId(), response);
+        if (!(response.getData() instanceof RpcAttachment)) {
+            ctx.writeAndFlush(message);
+            return;
+        }
+        ctx.writeAndFlush(message).addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess() && future.cause() instanceof EncoderException && ctx.channel().isActive()) {
+                logger.error("写出带有附件的响应失败: {}", future.cause().getMessage());
+                writeResponse(ctx, requestMessage, serializerType, RpcResponse.fail(requestMessage.getRequestId(),
+                        500, "写出响应失败: " + future.cause().getMessage()));
+            }
+        });
+    }
+
+    /**
+     * 处理RPC请求并返回结果，服务方法返回CompletionStage时在其完成后才生成响应
+     */
+    private CompletableFuture<RpcResponse<?>> handleRequest(MethodInvoker invoker, RpcRequest request) {
+        Object result;
+        try {
+            result = invoker.invoke(request.getParameters());
+        } catch (Throwable e) {
+            return CompletableFuture.completedFuture(failure(request, e));
+        }
+        
+        if (!(result instanceof CompletionStage)) {
+            return CompletableFuture.completedFuture(RpcResponse.success(request.getRequestId(), result));
+        }
+        CompletableFuture<RpcResponse<?>> future = new CompletableFuture<>();
+        ((CompletionStage<?>) result).whenComplete((value, error) -> {
+            if (error != null) {
+                future.complete(failure(request, error instanceof CompletionException ? error.getCause() : error));
+            } else {
+                future.complete(RpcResponse.success(request.getRequestId(), value));
+            }
+        });
+        return future;
+    }
+
+    private RpcResponse<?> failure(RpcRequest request, Throwable e) {
+        logger.error("处理RPC请求时发生异常", e);
+        return RpcResponse.fail(request.getRequestId(), 500, "服务调用异常: " + e.getMessage());
     }
 }
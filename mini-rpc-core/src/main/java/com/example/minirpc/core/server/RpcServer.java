@@ -1,5 +1,7 @@
 package com.example.minirpc.core.server;
 
+import com.example.minirpc.core.limit.RateLimitRule;
+
 /**
  * RPC服务器接口
  */
@@ -21,5 +23,25 @@ public interface RpcServer {
      * @param serviceName 服务名称
      * @param serviceBean 服务实例
      */
-    void registerService(String serviceName, Object serviceBean);
+    default void registerService(String serviceName, Object serviceBean) {
+        registerService(serviceName, serviceBean, null);
+    }
+    
+    /**
+     * 注册服务，并指定响应使用的序列化方式
+     * 
+     * @param serviceName 服务名称
+     * @param serviceBean 服务实例
+     * @param serializer 序列化方式名称，为空时沿用请求的序列化方式
+     */
+    void registerService(String serviceName, Object serviceBean, String serializer);
+
+    /**
+     * 设置限流规则，同一服务或方法的规则会被覆盖；服务级和方法级规则同时存在时请求需要同时满足两者
+     *
+     * @param serviceName 服务名称
+     * @param methodName 方法名称，对该名称的所有重载方法生效；为null时对整个服务生效
+     * @param rule 限流规则，为null时移除已有规则
+     */
+    void setRateLimit(String serviceName, String methodName, RateLimitRule rule);
 }
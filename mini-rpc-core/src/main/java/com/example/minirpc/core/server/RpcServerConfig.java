@@ -0,0 +1,220 @@
+package com.example.minirpc.core.server;
+
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.registry.ServiceInstance;
+import com.example.minirpc.core.transport.SocketOptions;
+
+/**
+ * Netty RPC服务器配置
+ */
+public class RpcServerConfig {
+
+    /**
+     * 注册到注册中心的实例权重
+     */
+    private int weight = ServiceInstance.DEFAULT_WEIGHT;
+
+    /**
+     * 实例所在可用区，可以为null
+     */
+    private String zone;
+
+    /**
+     * 实例版本（如发布版本），可以为null
+     */
+    private String version;
+
+    /**
+     * 是否接受客户端协商的消息体压缩
+     */
+    private boolean compressionEnabled = true;
+
+    /**
+     * 消息体压缩阈值，单位字节，小于该值的响应不压缩
+     */
+    private int compressThreshold = 2048;
+
+    /**
+     * 一次合并的最大flush次数，达到后立即刷新；为0时不合并，每条消息单独刷新
+     */
+    private int maxFlushBatch = 256;
+
+    /**
+     * 连接上持续没有读到任何数据（包括心跳）的最长时间，超过后关闭连接，单位毫秒，为0时不检测；
+     * 应大于客户端的心跳间隔
+     */
+    private long idleTimeout = 60000;
+
+    /**
+     * 是否按服务方法自适应限制并发，超过上限的请求立即以429拒绝，默认关闭
+     */
+    private boolean concurrencyLimitEnabled = false;
+
+    /**
+     * 每个服务方法的初始并发上限
+     */
+    private int initialConcurrencyLimit = 50;
+
+    /**
+     * 每个服务方法的最小并发上限
+     */
+    private int minConcurrencyLimit = 10;
+
+    /**
+     * 每个服务方法的最大并发上限
+     */
+    private int maxConcurrencyLimit = 1000;
+
+    /**
+     * 接受连接的线程数，大于1时需要epoll传输并开启SO_REUSEPORT，每个线程绑定一个共享端口的监听通道
+     */
+    private int acceptThreads = 1;
+
+    /**
+     * I/O线程数，为0时使用Netty默认值（CPU核数的2倍）
+     */
+    private int ioThreads = 0;
+
+    /**
+     * 最大帧长度（包含消息头），单位字节，长度字段超过该值的帧会导致连接关闭
+     */
+    private int maxFrameLength = RpcProtocol.DEFAULT_MAX_FRAME_LENGTH;
+
+    /**
+     * 单个连接上已分发但还未写回响应的最大请求数，达到后暂停读取该连接，直到有请求完成
+     */
+    private int maxInflightPerConnection = 1024;
+
+    /**
+     * 套接字参数
+     */
+    private SocketOptions socket = new SocketOptions();
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public boolean isCompressionEnabled() {
+        return compressionEnabled;
+    }
+
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    public int getCompressThreshold() {
+        return compressThreshold;
+    }
+
+    public void setCompressThreshold(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    public int getMaxFlushBatch() {
+        return maxFlushBatch;
+    }
+
+    public void setMaxFlushBatch(int maxFlushBatch) {
+        this.maxFlushBatch = maxFlushBatch;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public boolean isConcurrencyLimitEnabled() {
+        return concurrencyLimitEnabled;
+    }
+
+    public void setConcurrencyLimitEnabled(boolean concurrencyLimitEnabled) {
+        this.concurrencyLimitEnabled = concurrencyLimitEnabled;
+    }
+
+    public int getInitialConcurrencyLimit() {
+        return initialConcurrencyLimit;
+    }
+
+    public void setInitialConcurrencyLimit(int initialConcurrencyLimit) {
+        this.initialConcurrencyLimit = initialConcurrencyLimit;
+    }
+
+    public int getMinConcurrencyLimit() {
+        return minConcurrencyLimit;
+    }
+
+    public void setMinConcurrencyLimit(int minConcurrencyLimit) {
+        this.minConcurrencyLimit = minConcurrencyLimit;
+    }
+
+    public int getMaxConcurrencyLimit() {
+        return maxConcurrencyLimit;
+    }
+
+    public void setMaxConcurrencyLimit(int maxConcurrencyLimit) {
+        this.maxConcurrencyLimit = maxConcurrencyLimit;
+    }
+
+    public int getAcceptThreads() {
+        return acceptThreads;
+    }
+
+    public void setAcceptThreads(int acceptThreads) {
+        this.acceptThreads = acceptThreads;
+    }
+
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    public void setIoThreads(int ioThreads) {
+        this.ioThreads = ioThreads;
+    }
+
+    public int getMaxFrameLength() {
+        return maxFrameLength;
+    }
+
+    public void setMaxFrameLength(int maxFrameLength) {
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    public int getMaxInflightPerConnection() {
+        return maxInflightPerConnection;
+    }
+
+    public void setMaxInflightPerConnection(int maxInflightPerConnection) {
+        this.maxInflightPerConnection = maxInflightPerConnection;
+    }
+
+    public SocketOptions getSocket() {
+        return socket;
+    }
+
+    public void setSocket(SocketOptions socket) {
+        this.socket = socket;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.minirpc.core.server;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 已注册的服务，包含服务实例和预编译的方法调用器表
+ */
+public class ServiceDefinition {
+
+    private final String serviceName;
+    private final Object serviceBean;
+
+    /**
+     * 响应使用的序列化方式标识，0表示沿用请求的序列化方式
+     */
+    private final byte serializerType;
+
+    // 方法签名 -> 方法调用器
+    private final Map<String, MethodInvoker> invokers;
+
+    // 方法名称 -> 同名方法的调用器，请求按名称和参数类型查找，不必为每个请求拼接签名
+    private final Map<String, MethodInvoker[]> invokersByName;
+
+    public ServiceDefinition(String serviceName, Object serviceBean, byte serializerType) {
+        this.serviceName = serviceName;
+        this.serviceBean = serviceBean;
+        this.serializerType = serializerType;
+        Map<String, MethodInvoker> map = new HashMap<>();
+        for (Method method : serviceBean.getClass().getMethods()) {
+            if (method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            try {
+                MethodInvoker invoker = new MethodInvoker(serviceBean, method);
+                map.putIfAbsent(invoker.getSignature(), invoker);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("无法访问服务方法: " + method, e);
+            }
+        }
+        this.invokers = Collections.unmodifiableMap(map);
+        Map<String, MethodInvoker[]> byName = new HashMap<>();
+        for (MethodInvoker invoker : map.values()) {
+            byName.merge(invoker.getMethod().getName(), new MethodInvoker[] {invoker}, (a, b) -> {
+                MethodInvoker[] merged = Arrays.copyOf(a, a.length + 1);
+                merged[a.length] = b[0];
+                return merged;
+            });
+        }
+        this.invokersByName = byName;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public Object getServiceBean() {
+        return serviceBean;
+    }
+
+    public byte getSerializerType() {
+        return serializerType;
+    }
+
+    /**
+     * 按方法签名查找调用器
+     *
+     * @return 方法调用器，不存在时返回null
+     */
+    public MethodInvoker getInvoker(String signature) {
+        return invokers.get(signature);
+    }
+
+    /**
+     * 按方法名称和参数类型查找调用器，不分配内存，用于处理请求
+     *
+     * @return 方法调用器，不存在时返回null
+     */
+    public MethodInvoker getInvoker(String methodName, Class<?>[] parameterTypes) {
+        MethodInvoker[] candidates = invokersByName.get(methodName);
+        if (candidates != null) {
+            for (MethodInvoker candidate : candidates) {
+                if (candidate.matches(parameterTypes)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.minirpc.core.transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 传输层工厂，Linux上使用Netty原生epoll传输，其他平台或原生库不可用时回退到NIO
+ */
+public final class NettyTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyTransport.class);
+
+    private final boolean epoll;
+    private final SocketOptions options;
+
+    public NettyTransport(SocketOptions options) {
+        this.options = options;
+        this.epoll = options.isNativeTransport() && isEpollAvailable();
+        if (options.isNativeTransport() && !epoll) {
+            logger.info("epoll不可用，使用NIO传输: {}", Epoll.unavailabilityCause() == null
+                    ? "非Linux平台" : Epoll.unavailabilityCause().getMessage());
+        }
+        if (options.isReusePort() && !epoll) {
+            logger.warn("SO_REUSEPORT仅支持epoll传输，已忽略");
+        }
+    }
+
+    /**
+     * 判断当前平台是否可以使用epoll传输
+     */
+    public static boolean isEpollAvailable() {
+        try {
+            return Epoll.isAvailable();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 是否使用epoll传输
+     */
+    public boolean isEpoll() {
+        return epoll;
+    }
+
+    /**
+     * 是否可以绑定多个共享端口的服务端通道
+     */
+    public boolean isReusePort() {
+        return epoll && options.isReusePort();
+    }
+
+    /**
+     * 创建事件循环组
+     *
+     * @param threads 线程数，为0时使用Netty默认值（CPU核数的2倍）
+     * @param name 线程名前缀
+     */
+    public EventLoopGroup newEventLoopGroup(int threads, String name) {
+        DefaultThreadFactory threadFactory = new DefaultThreadFactory(name, true);
+        return epoll ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    public Class<? extends ServerChannel> serverChannelClass() {
+        return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public Class<? extends SocketChannel> socketChannelClass() {
+        return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    /**
+     * 将套接字参数应用到服务端启动器
+     */
+    public void configure(ServerBootstrap bootstrap) {
+        bootstrap.channel(serverChannelClass())
+                .option(ChannelOption.SO_BACKLOG, options.getBacklog())
+                .childOption(ChannelOption.TCP_NODELAY, options.isTcpNoDelay())
+                .childOption(ChannelOption.SO_KEEPALIVE, options.isKeepAlive())
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark());
+        if (options.getSendBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, options.getSendBufferSize());
+        }
+        if (options.getReceiveBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_RCVBUF, options.getReceiveBufferSize());
+        }
+        if (isReusePort()) {
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+        }
+    }
+
+    /**
+     * 将套接字参数应用到客户端启动器
+     */
+    public void configure(Bootstrap bootstrap) {
+        bootstrap.channel(socketChannelClass())
+                .option(ChannelOption.TCP_NODELAY, options.isTcpNoDelay())
+                .option(ChannelOption.SO_KEEPALIVE, options.isKeepAlive())
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark());
+        if (options.getSendBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, options.getSendBufferSize());
+        }
+        if (options.getReceiveBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, options.getReceiveBufferSize());
+        }
+    }
+
+    private WriteBufferWaterMark waterMark() {
+        int low = options.getWriteBufferLowWaterMark();
+        return new WriteBufferWaterMark(low, Math.max(low, options.getWriteBufferHighWaterMark()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.minirpc.core.transport;
+
+/**
+ * 套接字调优参数，服务端和客户端共用
+ */
+public class SocketOptions {
+
+    /**
+     * 是否优先使用Linux原生epoll传输，不可用时自动回退到NIO
+     */
+    private boolean nativeTransport = true;
+
+    /**
+     * 是否禁用Nagle算法，RPC的小消息应立即发送
+     */
+    private boolean tcpNoDelay = true;
+
+    /**
+     * 是否开启TCP保活
+     */
+    private boolean keepAlive = true;
+
+    /**
+     * 发送缓冲区大小，单位字节，为0时使用系统默认值
+     */
+    private int sendBufferSize = 0;
+
+    /**
+     * 接收缓冲区大小，单位字节，为0时使用系统默认值
+     */
+    private int receiveBufferSize = 0;
+
+    /**
+     * 写缓冲区低水位，单位字节，待发送数据降到该值以下时连接恢复可写
+     */
+    private int writeBufferLowWaterMark = 32 * 1024;
+
+    /**
+     * 写缓冲区高水位，单位字节，待发送数据超过该值时连接变为不可写
+     */
+    private int writeBufferHighWaterMark = 64 * 1024;
+
+    /**
+     * 服务端连接等待队列长度
+     */
+    private int backlog = 1024;
+
+    /**
+     * 是否开启SO_REUSEPORT，仅epoll传输支持；开启后服务端可以用多个线程分别接受连接
+     */
+    private boolean reusePort = false;
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public void setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public void setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public void setReceiveBufferSize(int receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(int backlog) {
+        this.backlog = backlog;
+    }
+
+    public boolean isReusePort() {
+        return reusePort;
+    }
+
+    public void setReusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcResponse;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CallCoalescerTest {
+
+    private static final String METHOD = "Hello#sayHello(java.lang.String)";
+
+    private final CallCoalescer coalescer = new CallCoalescer();
+    private final AtomicInteger sent = new AtomicInteger();
+
+    @Test
+    public void identicalCallsShareOneInflightResponse() throws Exception {
+        CompletableFuture<RpcResponse<?>> remote = new CompletableFuture<>();
+        CompletableFuture<RpcResponse<?>> first = coalescer.execute(METHOD, new Object[]{"world"}, () -> send(remote));
+        CompletableFuture<RpcResponse<?>> second = coalescer.execute(METHOD, new Object[]{"world"}, () -> send(remote));
+
+        assertSame(first, second);
+        assertEquals(1, sent.get());
+        assertEquals(1, coalescer.getCoalescedCount());
+        assertEquals(1, coalescer.getInflightCount());
+
+        RpcResponse<String> response = RpcResponse.success(1, "hello");
+        remote.complete(response);
+        assertSame(response, first.get());
+        assertSame(response, second.get());
+        assertEquals(0, coalescer.getInflightCount());
+    }
+
+    @Test
+    public void differentArgumentsAreNotCoalesced() {
+        coalescer.execute(METHOD, new Object[]{"a"}, () -> send(new CompletableFuture<>()));
+        coalescer.execute(METHOD, new Object[]{"b"}, () -> send(new CompletableFuture<>()));
+
+        assertEquals(2, sent.get());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+
+    @Test
+    public void callAfterCompletionSendsNewRequest() {
+        CompletableFuture<RpcResponse<?>> first = coalescer.execute(METHOD, new Object[]{"world"},
+                () -> send(CompletableFuture.completedFuture(RpcResponse.success(1, "hello"))));
+        CompletableFuture<RpcResponse<?>> second = coalescer.execute(METHOD, new Object[]{"world"},
+                () -> send(new CompletableFuture<>()));
+
+        assertNotSame(first, second);
+        assertEquals(2, sent.get());
+    }
+
+    @Test
+    public void failureIsSharedAndThenCleared() throws Exception {
+        CompletableFuture<RpcResponse<?>> remote = new CompletableFuture<>();
+        CompletableFuture<RpcResponse<?>> first = coalescer.execute(METHOD, null, () -> send(remote));
+        CompletableFuture<RpcResponse<?>> second = coalescer.execute(METHOD, null, () -> send(remote));
+        remote.completeExceptionally(new IllegalStateException("boom"));
+
+        for (CompletableFuture<RpcResponse<?>> future : new CompletableFuture[]{first, second}) {
+            try {
+                future.get();
+                fail();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+        assertEquals(0, coalescer.getInflightCount());
+    }
+
+    @Test
+    public void synchronousFailureIsNotLeftInflight() {
+        CompletableFuture<RpcResponse<?>> future = coalescer.execute(METHOD, null, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, coalescer.getInflightCount());
+    }
+
+    private CompletableFuture<RpcResponse<?>> send(CompletableFuture<RpcResponse<?>> response) {
+        sent.incrementAndGet();
+        return response;
+    }
+}
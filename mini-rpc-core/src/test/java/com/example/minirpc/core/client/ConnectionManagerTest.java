@@ -0,0 +1,128 @@
+package com.example.minirpc.core.client;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 连接池按路由引用计数释放：空闲的连接立即关闭，还有未完成请求的连接在请求完成后关闭
+ */
+public class ConnectionManagerTest {
+
+    private ServerSocket server;
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+    private EventLoopGroup group;
+    private ConnectionManager connectionManager;
+    private InetSocketAddress address;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    accepted.add(server.accept());
+                }
+            } catch (IOException e) {
+                // 测试结束时关闭
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        address = new InetSocketAddress("127.0.0.1", server.getLocalPort());
+
+        group = new NioEventLoopGroup(1);
+        Bootstrap bootstrap = new Bootstrap().group(group).channel(NioSocketChannel.class)
+                .handler(new ChannelInboundHandlerAdapter());
+        connectionManager = new ConnectionManager(bootstrap, 1, ChannelSelectStrategy.ROUND_ROBIN);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        connectionManager.close();
+        group.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+        server.close();
+        for (Socket socket : accepted) {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void poolIsKeptWhileAnyRouteReferencesIt() throws Exception {
+        ConnectionManager.ChannelPool pool = connectionManager.retain(address);
+        assertSame(pool, connectionManager.retain(address));
+        Channel channel = connectionManager.acquire(pool).get(5, TimeUnit.SECONDS);
+
+        connectionManager.release(pool);
+        assertSame(pool, connectionManager.retain(address));
+        connectionManager.release(pool);
+        assertTrue(channel.isActive());
+
+        connectionManager.release(pool);
+        assertTrue(channel.closeFuture().await(5, TimeUnit.SECONDS));
+        // 释放后的地址再次被引用时创建新的连接池
+        assertNotSame(pool, connectionManager.retain(address));
+    }
+
+    @Test
+    public void busyChannelClosesAfterLastPendingCall() throws Exception {
+        ConnectionManager.ChannelPool pool = connectionManager.retain(address);
+        Channel channel = connectionManager.acquire(pool).get(5, TimeUnit.SECONDS);
+        ConnectionManager.incrementPending(channel);
+
+        connectionManager.release(pool);
+        assertFalse(channel.closeFuture().await(200, TimeUnit.MILLISECONDS));
+
+        ConnectionManager.decrementPending(channel);
+        assertTrue(channel.closeFuture().await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void retiredPoolRedirectsToCurrentPool() throws Exception {
+        ConnectionManager.ChannelPool retired = connectionManager.retain(address);
+        connectionManager.release(retired);
+        ConnectionManager.ChannelPool current = connectionManager.retain(address);
+
+        Channel channel = connectionManager.acquire(retired).get(5, TimeUnit.SECONDS);
+        assertSame(channel, connectionManager.acquire(current).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void retiredPoolFailsWithoutCreatingPool() throws Exception {
+        ConnectionManager.ChannelPool retired = connectionManager.retain(address);
+        connectionManager.release(retired);
+
+        try {
+            connectionManager.acquire(retired).get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        // 没有路由引用的地址不会被重新建立连接池
+        assertNull(connectionManager.find(address));
+        assertTrue(connectionManager.acquire(null).isCompletedExceptionally());
+        assertTrue(accepted.isEmpty());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.registry.DirectServiceRegistry;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 读空闲时发送心跳，连续超过心跳超时时间没有收到任何数据才关闭连接
+ */
+public class HeartbeatTest {
+
+    private ServerSocket server;
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+    private final AtomicInteger pings = new AtomicInteger();
+    private NettyRpcClient client;
+
+    @After
+    public void tearDown() throws IOException {
+        if (client != null) {
+            client.close();
+        }
+        server.close();
+        for (Socket socket : accepted) {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void closesAfterMissedPongs() throws Exception {
+        startPeer(false);
+        client = newClient();
+
+        long start = System.nanoTime();
+        CompletableFuture<RpcResponse<?>> future = client.sendAsync(request(), CallOptions.DEFAULT);
+        RpcResponse<?> response = future.get(3, TimeUnit.SECONDS);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 连接断开时请求可能已经执行，以500结束而不是可重试的503
+        assertEquals(Integer.valueOf(500), response.getCode());
+        assertTrue("elapsed=" + elapsed, elapsed >= 250 && elapsed < 2000);
+        // 关闭之前每个心跳间隔都发送了心跳
+        assertTrue("pings=" + pings.get(), pings.get() >= 2);
+    }
+
+    @Test
+    public void staysOpenWhilePongsArrive() throws Exception {
+        startPeer(true);
+        client = newClient();
+
+        CompletableFuture<RpcResponse<?>> future = client.sendAsync(request(), CallOptions.DEFAULT);
+        Thread.sleep(800);
+
+        assertFalse(future.isDone());
+        assertTrue("pings=" + pings.get(), pings.get() >= 4);
+    }
+
+    private NettyRpcClient newClient() {
+        RpcClientConfig config = new RpcClientConfig();
+        config.setTimeout(5000);
+        config.setHeartbeatInterval(100);
+        config.setHeartbeatTimeout(300);
+        return new NettyRpcClient(new DirectServiceRegistry("127.0.0.1:" + server.getLocalPort()),
+                new JsonSerializer(), config);
+    }
+
+    /**
+     * 启动只处理心跳的对端：统计收到的PING，按需回复PONG，从不响应请求
+     */
+    private void startPeer(boolean pong) throws IOException {
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    Socket socket = server.accept();
+                    accepted.add(socket);
+                    Thread reader = new Thread(() -> readFrames(socket, pong));
+                    reader.setDaemon(true);
+                    reader.start();
+                }
+            } catch (IOException e) {
+                // 测试结束时关闭
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void readFrames(Socket socket, boolean pong) {
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            byte[] header = new byte[RpcProtocol.HEADER_LENGTH];
+            while (true) {
+                in.readFully(header);
+                ByteBuffer buffer = ByteBuffer.wrap(header);
+                in.skipBytes(buffer.getInt(RpcProtocol.LENGTH_FIELD_OFFSET));
+                if (buffer.get(3) == RpcProtocol.TYPE_PING) {
+                    pings.incrementAndGet();
+                    if (pong) {
+                        header[3] = RpcProtocol.TYPE_PONG;
+                        out.write(header);
+                        out.flush();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 连接关闭
+        }
+    }
+
+    private static RpcRequest request() {
+        RpcRequest request = new RpcRequest();
+        request.setInterfaceName("com.example.Hello");
+        request.setMethodName("sayHello");
+        request.setParameterTypes(new Class[]{String.class});
+        request.setParameters(new Object[]{"world"});
+        return request;
+    }
+}
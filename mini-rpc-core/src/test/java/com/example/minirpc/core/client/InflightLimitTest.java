@@ -0,0 +1,83 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.registry.DirectServiceRegistry;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * 连接上未完成的请求数达到上限后，新的请求立即以503失败
+ */
+public class InflightLimitTest {
+
+    private ServerSocket server;
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+    private NettyRpcClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        // 接受连接但从不响应的对端
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    accepted.add(server.accept());
+                }
+            } catch (IOException e) {
+                // 测试结束时关闭
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        for (Socket socket : accepted) {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void failsFastAboveInflightLimit() throws Exception {
+        RpcClientConfig config = new RpcClientConfig();
+        config.setTimeout(5000);
+        config.setMaxInflightPerConnection(2);
+        client = new NettyRpcClient(new DirectServiceRegistry("127.0.0.1:" + server.getLocalPort()),
+                new JsonSerializer(), config);
+
+        CompletableFuture<RpcResponse<?>> first = client.sendAsync(request(), CallOptions.DEFAULT);
+        CompletableFuture<RpcResponse<?>> second = client.sendAsync(request(), CallOptions.DEFAULT);
+        RpcResponse<?> third = client.sendAsync(request(), CallOptions.DEFAULT).get(1, TimeUnit.SECONDS);
+
+        assertEquals(Integer.valueOf(RpcProtocol.CODE_UNAVAILABLE), third.getCode());
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+    }
+
+    private static RpcRequest request() {
+        RpcRequest request = new RpcRequest();
+        request.setInterfaceName("com.example.Hello");
+        request.setMethodName("sayHello");
+        request.setParameterTypes(new Class[]{String.class});
+        request.setParameters(new Object[]{"world"});
+        return request;
+    }
+}
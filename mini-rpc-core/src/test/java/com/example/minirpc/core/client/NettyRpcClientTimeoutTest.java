@@ -0,0 +1,96 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.registry.DirectServiceRegistry;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * 请求超时由时间轮结束：对端接受连接但从不响应
+ */
+public class NettyRpcClientTimeoutTest {
+
+    private ServerSocket server;
+    private final List<Socket> accepted = new CopyOnWriteArrayList<>();
+    private NettyRpcClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new ServerSocket(0);
+        Thread acceptor = new Thread(() -> {
+            try {
+                while (true) {
+                    accepted.add(server.accept());
+                }
+            } catch (IOException e) {
+                // 测试结束时关闭
+            }
+        });
+        acceptor.setDaemon(true);
+        acceptor.start();
+        client = newClient(5000);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        server.close();
+        for (Socket socket : accepted) {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void callTimesOutWithPerCallTimeout() throws Exception {
+        long start = System.nanoTime();
+        CompletableFuture<RpcResponse<?>> future = client.sendAsync(request(), new CallOptions(100, (byte) 0, null));
+        try {
+            future.get(3, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof TimeoutException);
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("elapsed=" + elapsed, elapsed >= 90 && elapsed < 2000);
+    }
+
+    @Test
+    public void callUsesClientDefaultTimeout() throws Exception {
+        client.close();
+        client = newClient(150);
+        RpcResponse<?> response = client.send(request(), CallOptions.DEFAULT);
+        assertEquals(Integer.valueOf(500), response.getCode());
+        assertTrue(response.getMessage(), response.getMessage().contains("超时"));
+    }
+
+    private NettyRpcClient newClient(long timeout) {
+        return new NettyRpcClient(new DirectServiceRegistry("127.0.0.1:" + server.getLocalPort()),
+                new JsonSerializer(), timeout);
+    }
+
+    private static RpcRequest request() {
+        RpcRequest request = new RpcRequest();
+        request.setInterfaceName("com.example.Hello");
+        request.setMethodName("sayHello");
+        request.setParameterTypes(new Class[]{String.class});
+        request.setParameters(new Object[]{"world"});
+        return request;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.minirpc.core.client;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class PendingCallTableTest {
+
+    @Test
+    public void putGetRemove() {
+        PendingCallTable table = new PendingCallTable(8);
+        PendingCall call = call(3);
+        table.put(call);
+        assertSame(call, table.get(3));
+        assertSame(call, table.remove(3));
+        assertNull(table.get(3));
+        assertNull(table.remove(3));
+    }
+
+    @Test
+    public void reusesSlotAfterRemove() {
+        PendingCallTable table = new PendingCallTable(8);
+        table.put(call(1));
+        table.remove(1);
+        // 9与1映射到同一槽位
+        PendingCall call = call(9);
+        table.put(call);
+        assertSame(call, table.remove(9));
+        assertNull(table.get(1));
+    }
+
+    @Test
+    public void overflowsWhenSlotIsOccupied() {
+        PendingCallTable table = new PendingCallTable(8);
+        PendingCall slow = call(1);
+        PendingCall collided = call(9);
+        table.put(slow);
+        table.put(collided);
+        assertSame(slow, table.get(1));
+        assertSame(collided, table.get(9));
+
+        // 槽位中的调用不会被溢出表中同槽位的ID误移除
+        assertSame(collided, table.remove(9));
+        assertSame(slow, table.get(1));
+        assertSame(slow, table.remove(1));
+
+        PendingCall next = call(17);
+        table.put(next);
+        assertSame(next, table.remove(17));
+    }
+
+    @Test
+    public void forEachVisitsSlotsAndOverflow() {
+        PendingCallTable table = new PendingCallTable(4);
+        for (long id = 1; id <= 6; id++) {
+            table.put(call(id));
+        }
+        List<Long> ids = new ArrayList<>();
+        table.forEach(call -> ids.add(call.getRequestId()));
+        ids.sort(null);
+        assertEquals(6, ids.size());
+        assertEquals(Long.valueOf(1), ids.get(0));
+        assertEquals(Long.valueOf(6), ids.get(5));
+    }
+
+    @Test
+    public void roundsCapacityToPowerOfTwo() {
+        PendingCallTable table = new PendingCallTable(5);
+        PendingCall first = call(0);
+        PendingCall second = call(5);
+        table.put(first);
+        table.put(second);
+        // 容量取整为8，0和5不冲突，8与0冲突
+        PendingCall third = call(8);
+        table.put(third);
+        assertSame(first, table.remove(0));
+        assertSame(second, table.remove(5));
+        assertSame(third, table.remove(8));
+    }
+
+    private static PendingCall call(long requestId) {
+        return new PendingCall(requestId, null);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcRequest;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class RequestBatcherTest {
+
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+    private final List<PendingCall> failed = new ArrayList<>();
+
+    @After
+    public void close() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void flushesWhenBatchIsFull() {
+        RequestBatcher batcher = new RequestBatcher(channel, 3, TimeUnit.SECONDS.toMicros(10), this::fail);
+        add(batcher, 1);
+        add(batcher, 2);
+        channel.runPendingTasks();
+        assertNull(channel.readOutbound());
+
+        add(batcher, 3);
+        channel.runPendingTasks();
+        assertBatch(channel.readOutbound(), 1, 2, 3);
+        assertNull(channel.readOutbound());
+    }
+
+    @Test
+    public void flushesWhenWindowElapses() {
+        channel.freezeTime();
+        RequestBatcher batcher = new RequestBatcher(channel, 10, 500, this::fail);
+        add(batcher, 1);
+        add(batcher, 2);
+        channel.runPendingTasks();
+        assertNull(channel.readOutbound());
+
+        channel.advanceTimeBy(500, TimeUnit.MICROSECONDS);
+        channel.runScheduledPendingTasks();
+        assertBatch(channel.readOutbound(), 1, 2);
+
+        // 发送后到达的请求重新安排发送
+        add(batcher, 3);
+        channel.advanceTimeBy(500, TimeUnit.MICROSECONDS);
+        channel.runScheduledPendingTasks();
+        RpcMessage single = channel.readOutbound();
+        assertEquals(RpcProtocol.TYPE_REQUEST, single.getMessageType());
+        assertEquals(3, single.getRequestId());
+    }
+
+    @Test
+    public void zeroWindowFlushesOnNextLoop() {
+        RequestBatcher batcher = new RequestBatcher(channel, 10, 0, this::fail);
+        add(batcher, 1);
+        add(batcher, 2);
+        channel.runPendingTasks();
+        assertBatch(channel.readOutbound(), 1, 2);
+    }
+
+    @Test
+    public void splitsQueueLargerThanBatchSize() {
+        RequestBatcher batcher = new RequestBatcher(channel, 2, 0, this::fail);
+        for (long id = 1; id <= 5; id++) {
+            add(batcher, id);
+        }
+        channel.runPendingTasks();
+        assertBatch(channel.readOutbound(), 1, 2);
+        assertBatch(channel.readOutbound(), 3, 4);
+        RpcMessage last = channel.readOutbound();
+        assertEquals(RpcProtocol.TYPE_REQUEST, last.getMessageType());
+        assertEquals(5, last.getRequestId());
+    }
+
+    @Test
+    public void failsEveryCallWhenWriteFails() {
+        EmbeddedChannel broken = new EmbeddedChannel(new ChannelOutboundHandlerAdapter() {
+            @Override
+            public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+                promise.setFailure(new IOException("写出失败"));
+            }
+        });
+        RequestBatcher batcher = new RequestBatcher(broken, 10, 0, this::fail);
+        PendingCall first = add(batcher, 1);
+        PendingCall second = add(batcher, 2);
+        broken.runPendingTasks();
+        broken.finishAndReleaseAll();
+        assertEquals(2, failed.size());
+        assertEquals(first, failed.get(0));
+        assertEquals(second, failed.get(1));
+    }
+
+    private PendingCall add(RequestBatcher batcher, long requestId) {
+        PendingCall call = new PendingCall(requestId, null);
+        RpcRequest request = new RpcRequest(requestId, "com.example.Hello", "sayHello", new Class[0], new Object[0]);
+        batcher.add(call, new RpcMessage(RpcProtocol.TYPE_REQUEST, (byte) 1, RpcProtocol.STATUS_OK, requestId, request));
+        return call;
+    }
+
+    private void fail(PendingCall call, Throwable cause) {
+        failed.add(call);
+    }
+
+    private static void assertBatch(RpcMessage message, long... requestIds) {
+        assertEquals(RpcProtocol.TYPE_BATCH_REQUEST, message.getMessageType());
+        @SuppressWarnings("unchecked")
+        List<RpcMessage> items = (List<RpcMessage>) message.getBody();
+        assertEquals(requestIds.length, items.size());
+        for (int i = 0; i < requestIds.length; i++) {
+            assertEquals(requestIds[i], items.get(i).getRequestId());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.minirpc.core.client;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ResultCacheTest {
+
+    @Test
+    public void cachesByArgumentContent() {
+        ResultCache cache = new ResultCache("Hello#sayHello(java.lang.String)", 60000, 100);
+        cache.put(new Object[]{"world", new int[]{1, 2}}, "hello");
+
+        assertEquals("hello", cache.getIfPresent(new Object[]{"world", new int[]{1, 2}}));
+        assertNull(cache.getIfPresent(new Object[]{"world", new int[]{1, 3}}));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void doesNotCacheNull() {
+        ResultCache cache = new ResultCache("Hello#find()", 60000, 100);
+        cache.put(null, null);
+
+        assertNull(cache.getIfPresent(null));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void argumentsAreCopiedOnPut() {
+        ResultCache cache = new ResultCache("Hello#find(java.lang.String)", 60000, 100);
+        Object[] args = {"a"};
+        cache.put(args, "first");
+        args[0] = "b";
+
+        assertEquals("first", cache.getIfPresent(new Object[]{"a"}));
+        assertNull(cache.getIfPresent(new Object[]{"b"}));
+    }
+
+    @Test
+    public void expiresAfterWrite() throws InterruptedException {
+        ResultCache cache = new ResultCache("Hello#find()", 50, 100);
+        cache.put(null, "value");
+        assertEquals("value", cache.getIfPresent(null));
+
+        Thread.sleep(120);
+        assertNull(cache.getIfPresent(null));
+    }
+
+    @Test
+    public void invalidateAllClearsEntries() {
+        ResultCache cache = new ResultCache("Hello#find()", 60000, 100);
+        cache.put(new Object[0], "value");
+        cache.invalidateAll();
+
+        assertNull(cache.getIfPresent(new Object[0]));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.minirpc.core.client;
+
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcResponse;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.AttributeKey;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StreamCallTest {
+
+    private static final long REQUEST_ID = 7;
+
+    // 与ConnectionManager建立连接时设置的未完成请求数属性相同
+    private static final AttributeKey<AtomicInteger> PENDING = AttributeKey.valueOf("mini.rpc.pending");
+
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+    private final AtomicInteger finished = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        channel.attr(PENDING).set(new AtomicInteger());
+    }
+
+    @After
+    public void close() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void grantsCreditsEveryHalfWindow() {
+        StreamCall call = open(4);
+        for (int i = 0; i < 4; i++) {
+            call.onMessage(chunk(i));
+        }
+
+        assertEquals(0, call.next());
+        assertNull(channel.readOutbound());
+        assertEquals(1, call.next());
+        assertCredit(channel.readOutbound(), 2);
+        assertEquals(2, call.next());
+        assertNull(channel.readOutbound());
+        assertEquals(3, call.next());
+        assertCredit(channel.readOutbound(), 2);
+    }
+
+    @Test
+    public void windowOfOneGrantsAfterEveryElement() {
+        StreamCall call = open(1);
+        call.onMessage(chunk(0));
+        call.onMessage(chunk(1));
+
+        call.next();
+        assertCredit(channel.readOutbound(), 1);
+        call.next();
+        assertCredit(channel.readOutbound(), 1);
+    }
+
+    @Test
+    public void endsOnFinalResponse() {
+        StreamCall call = open(4);
+        call.onMessage(chunk(0));
+        call.onMessage(new RpcMessage(RpcProtocol.TYPE_RESPONSE, (byte) 1, RpcProtocol.STATUS_OK, REQUEST_ID,
+                RpcResponse.success(REQUEST_ID, null)));
+
+        assertTrue(call.hasNext());
+        assertEquals(0, call.next());
+        assertFalse(call.hasNext());
+        assertEquals(1, finished.get());
+        assertEquals(0, channel.attr(PENDING).get().get());
+
+        // 服务端已经结束，关闭时不再发送取消帧
+        call.close();
+        assertNull(channel.readOutbound());
+        assertEquals(1, finished.get());
+    }
+
+    @Test
+    public void closeCancelsUnfinishedCall() {
+        StreamCall call = open(4);
+        call.onMessage(chunk(0));
+        call.close();
+
+        RpcMessage cancel = channel.readOutbound();
+        assertEquals(RpcProtocol.TYPE_STREAM_CANCEL, cancel.getMessageType());
+        assertEquals(REQUEST_ID, cancel.getRequestId());
+        assertEquals(1, finished.get());
+        assertEquals(0, channel.attr(PENDING).get().get());
+        assertFalse(call.hasNext());
+    }
+
+    @Test
+    public void failureResponseIsThrown() {
+        StreamCall call = open(4);
+        call.fail(500, "连接已断开");
+        try {
+            call.hasNext();
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("连接已断开"));
+        }
+        assertEquals(1, finished.get());
+    }
+
+    @Test
+    public void attachAfterCloseIsRejected() {
+        StreamCall call = new StreamCall(REQUEST_ID, Integer.class, 1000, 4, finished::incrementAndGet);
+        call.close();
+        assertFalse(call.attach(channel, (byte) 1));
+        assertEquals(0, channel.attr(PENDING).get().get());
+    }
+
+    private StreamCall open(int window) {
+        StreamCall call = new StreamCall(REQUEST_ID, Integer.class, 1000, window, finished::incrementAndGet);
+        assertTrue(call.attach(channel, (byte) 1));
+        assertEquals(1, channel.attr(PENDING).get().get());
+        return call;
+    }
+
+    private static RpcMessage chunk(int value) {
+        return new RpcMessage(RpcProtocol.TYPE_STREAM_CHUNK, (byte) 1, RpcProtocol.STATUS_OK, REQUEST_ID,
+                RpcResponse.success(REQUEST_ID, value));
+    }
+
+    private static void assertCredit(RpcMessage message, int credits) {
+        assertEquals(RpcProtocol.TYPE_STREAM_CREDIT, message.getMessageType());
+        assertEquals(REQUEST_ID, message.getRequestId());
+        assertEquals(credits, message.getBody());
+    }
+}
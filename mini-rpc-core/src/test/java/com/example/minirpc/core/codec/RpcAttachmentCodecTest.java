@@ -0,0 +1,141 @@
+package com.example.minirpc.core.codec;
+
+import com.example.minirpc.core.protocol.RpcAttachment;
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.EncoderException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RpcAttachmentCodecTest {
+
+    private static final int MAX_FRAME_LENGTH = 1024;
+
+    private final SerializerRegistry serializers = new SerializerRegistry(new JsonSerializer());
+    private final byte json = serializers.getDefault().getType();
+
+    private final EmbeddedChannel encoder = new EmbeddedChannel(
+            new RpcMessageEncoder(serializers, Integer.MAX_VALUE, MAX_FRAME_LENGTH));
+    private final EmbeddedChannel decoder = new EmbeddedChannel(
+            new RpcMessageDecoder(serializers, null, null, MAX_FRAME_LENGTH));
+
+    @After
+    public void close() {
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    @Test
+    public void requestAttachmentsKeepTheirPositions() {
+        RpcRequest request = new RpcRequest(0, "com.example.Files", "upload",
+                new Class[]{RpcAttachment.class, String.class, RpcAttachment.class},
+                new Object[]{RpcAttachment.of(bytes("first")), "name", RpcAttachment.of(bytes("second"))});
+        RpcMessage decoded = roundTrip(new RpcMessage(RpcProtocol.TYPE_REQUEST, json, RpcProtocol.STATUS_OK, 1, request));
+
+        assertTrue((decoded.getFlags() & RpcProtocol.FLAG_ATTACHMENT) != 0);
+        Object[] parameters = ((RpcRequest) decoded.getBody()).getParameters();
+        assertEquals("name", parameters[1]);
+        assertAttachment("first", parameters[0]);
+        assertAttachment("second", parameters[2]);
+    }
+
+    @Test
+    public void responseAttachment() {
+        RpcResponse<RpcAttachment> response = RpcResponse.success(2, RpcAttachment.of(bytes("download")));
+        RpcMessage decoded = roundTrip(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 2, response));
+
+        assertAttachment("download", ((RpcResponse<?>) decoded.getBody()).getData());
+    }
+
+    @Test
+    public void encodingLeavesCallerObjectsUntouched() {
+        RpcAttachment upload = RpcAttachment.of(bytes("upload"));
+        Object[] parameters = {upload, "name"};
+        RpcRequest request = new RpcRequest(0, "com.example.Files", "upload",
+                new Class[]{RpcAttachment.class, String.class}, parameters);
+        request.setCaller("tester");
+        RpcMessage decoded = roundTrip(new RpcMessage(RpcProtocol.TYPE_REQUEST, json, RpcProtocol.STATUS_OK, 5, request));
+
+        assertSame(parameters, request.getParameters());
+        assertSame(upload, parameters[0]);
+        assertEquals("tester", ((RpcRequest) decoded.getBody()).getCaller());
+        assertAttachment("upload", ((RpcRequest) decoded.getBody()).getParameters()[0]);
+
+        RpcAttachment download = RpcAttachment.of(bytes("download"));
+        RpcResponse<RpcAttachment> response = RpcResponse.success(6, download);
+        roundTrip(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 6, response));
+        assertSame(download, response.getData());
+    }
+
+    @Test
+    public void attachmentIsReleasedAfterWrite() {
+        ByteBuf content = Unpooled.copiedBuffer("payload", StandardCharsets.UTF_8);
+        RpcResponse<RpcAttachment> response = RpcResponse.success(3, RpcAttachment.of(content));
+        encoder.writeOutbound(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 3, response));
+        encoder.releaseOutbound();
+        assertEquals(0, content.refCnt());
+    }
+
+    @Test
+    public void oversizedAttachmentFailsTheWrite() {
+        ByteBuf content = Unpooled.wrappedBuffer(new byte[MAX_FRAME_LENGTH]);
+        RpcResponse<RpcAttachment> response = RpcResponse.success(4, RpcAttachment.of(content));
+        ChannelFuture future = encoder.writeAndFlush(
+                new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 4, response));
+
+        assertFalse(future.isSuccess());
+        assertTrue(future.cause() instanceof EncoderException);
+        assertNull(encoder.readOutbound());
+        assertEquals(0, content.refCnt());
+        // 写出失败不影响连接上的后续消息
+        RpcMessage decoded = roundTrip(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 5,
+                RpcResponse.success(5, "ok")));
+        assertEquals("ok", ((RpcResponse<?>) decoded.getBody()).getData());
+    }
+
+    /**
+     * 编码器把消息头和附件分别写出，拼接后交给解码器
+     */
+    private RpcMessage roundTrip(RpcMessage message) {
+        assertTrue(encoder.writeOutbound(message));
+        CompositeByteBuf frame = Unpooled.compositeBuffer();
+        ByteBuf part;
+        while ((part = encoder.readOutbound()) != null) {
+            frame.addComponent(true, part);
+        }
+        assertTrue(decoder.writeInbound(frame));
+        return decoder.readInbound();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void assertAttachment(String expected, Object value) {
+        assertTrue(String.valueOf(value), value instanceof RpcAttachment);
+        RpcAttachment attachment = (RpcAttachment) value;
+        try {
+            assertArrayEquals(bytes(expected), attachment.toByteArray());
+        } finally {
+            attachment.release();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.minirpc.core.codec;
+
+import com.example.minirpc.core.compress.CompressorRegistry;
+import com.example.minirpc.core.compress.Lz4Compressor;
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.TooLongFrameException;
+import io.netty.handler.codec.compression.DecompressionException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RpcMessageCodecTest {
+
+    private final SerializerRegistry serializers = new SerializerRegistry(new JsonSerializer());
+    private final byte json = serializers.getDefault().getType();
+
+    private final EmbeddedChannel encoder = new EmbeddedChannel(new RpcMessageEncoder(serializers));
+    private final EmbeddedChannel decoder = new EmbeddedChannel(new RpcMessageDecoder(serializers, null));
+
+    @After
+    public void close() {
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    @Test
+    public void writesFixedHeader() {
+        ByteBuf frame = encode(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_ERROR, 0x0102030405L,
+                RpcResponse.fail(1, 500, "boom")));
+        try {
+            assertEquals(RpcProtocol.MAGIC, frame.getShort(0));
+            assertEquals(RpcProtocol.VERSION, frame.getByte(2));
+            assertEquals(RpcProtocol.TYPE_RESPONSE, frame.getByte(3));
+            assertEquals(json, frame.getByte(4));
+            assertEquals(RpcProtocol.STATUS_ERROR, frame.getByte(6));
+            assertEquals(0x0102030405L, frame.getLong(7));
+            assertEquals(frame.readableBytes() - RpcProtocol.HEADER_LENGTH,
+                    frame.getInt(RpcProtocol.LENGTH_FIELD_OFFSET));
+        } finally {
+            frame.release();
+        }
+    }
+
+    @Test
+    public void requestRoundTrip() {
+        RpcRequest request = new RpcRequest(0, "com.example.Hello", "sayHello",
+                new Class[]{String.class}, new Object[]{"world"});
+        RpcMessage decoded = roundTrip(new RpcMessage(RpcProtocol.TYPE_REQUEST, json, RpcProtocol.STATUS_OK, 42, request));
+
+        assertEquals(RpcProtocol.TYPE_REQUEST, decoded.getMessageType());
+        assertEquals(json, decoded.getSerializerType());
+        assertEquals(42, decoded.getRequestId());
+        RpcRequest body = (RpcRequest) decoded.getBody();
+        assertEquals("com.example.Hello", body.getInterfaceName());
+        assertEquals("sayHello", body.getMethodName());
+        assertArrayEquals(new Class[]{String.class}, body.getParameterTypes());
+        assertArrayEquals(new Object[]{"world"}, body.getParameters());
+    }
+
+    @Test
+    public void responseRoundTrip() {
+        RpcResponse<String> response = RpcResponse.success(7, "hello");
+        RpcMessage decoded = roundTrip(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 7, response));
+
+        RpcResponse<?> body = (RpcResponse<?>) decoded.getBody();
+        assertEquals(Integer.valueOf(0), body.getCode());
+        assertEquals("hello", body.getData());
+    }
+
+    @Test
+    public void batchRoundTrip() {
+        List<RpcMessage> items = Arrays.asList(
+                new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 1, RpcResponse.success(1, "a")),
+                new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_ERROR, 2,
+                        RpcResponse.fail(2, 500, "boom")));
+        RpcMessage decoded = roundTrip(new RpcMessage(RpcProtocol.TYPE_BATCH_RESPONSE, json, RpcProtocol.STATUS_OK, 0, items));
+
+        @SuppressWarnings("unchecked")
+        List<RpcMessage> body = (List<RpcMessage>) decoded.getBody();
+        assertEquals(2, body.size());
+        assertEquals(1, body.get(0).getRequestId());
+        assertEquals("a", ((RpcResponse<?>) body.get(0).getBody()).getData());
+        assertEquals(2, body.get(1).getRequestId());
+        assertEquals(RpcProtocol.STATUS_ERROR, body.get(1).getStatus());
+        assertEquals("boom", ((RpcResponse<?>) body.get(1).getBody()).getMessage());
+    }
+
+    @Test
+    public void decodesFrameArrivingInPieces() {
+        ByteBuf frame = encode(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 9,
+                RpcResponse.success(9, "split")));
+        // 消息头不完整、消息体不完整时都等待后续数据
+        decoder.writeInbound(frame.readRetainedSlice(RpcProtocol.HEADER_LENGTH - 1));
+        assertNull(decoder.readInbound());
+        decoder.writeInbound(frame.readRetainedSlice(2));
+        assertNull(decoder.readInbound());
+        decoder.writeInbound(frame);
+
+        RpcMessage decoded = decoder.readInbound();
+        assertEquals("split", ((RpcResponse<?>) decoded.getBody()).getData());
+    }
+
+    @Test
+    public void decodesConsecutiveFrames() {
+        ByteBuf first = encode(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 1,
+                RpcResponse.success(1, "a")));
+        ByteBuf second = encode(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 2,
+                RpcResponse.success(2, "b")));
+        decoder.writeInbound(Unpooled.wrappedBuffer(first, second));
+
+        assertEquals(1, ((RpcMessage) decoder.readInbound()).getRequestId());
+        assertEquals(2, ((RpcMessage) decoder.readInbound()).getRequestId());
+    }
+
+    @Test
+    public void skipsBodyOfUnknownSerializer() {
+        ByteBuf frame = encode(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 3,
+                RpcResponse.success(3, "ignored")));
+        frame.setByte(4, 99);
+        assertTrue(decoder.writeInbound(frame));
+
+        RpcMessage decoded = decoder.readInbound();
+        assertEquals(3, decoded.getRequestId());
+        assertEquals(99, decoded.getSerializerType());
+        assertNull(decoded.getBody());
+    }
+
+    @Test
+    public void rejectsIllegalMagic() {
+        // 连接关闭时会再次解码残留的字节，使用单独的通道
+        EmbeddedChannel channel = new EmbeddedChannel(new RpcMessageDecoder(serializers, null));
+        try {
+            channel.writeInbound(Unpooled.wrappedBuffer(new byte[RpcProtocol.HEADER_LENGTH]));
+            fail();
+        } catch (DecoderException e) {
+            assertTrue(e instanceof CorruptedFrameException);
+        }
+    }
+
+    @Test
+    public void compressesBodyAboveThreshold() {
+        EmbeddedChannel compressing = compressingEncoder();
+        compressing.attr(RpcMessageEncoder.COMPRESSOR).set(new Lz4Compressor());
+        RpcMessage message = new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 5,
+                RpcResponse.success(5, repeat("compressible ", 200)));
+
+        assertTrue(compressing.writeOutbound(message));
+        ByteBuf frame = compressing.readOutbound();
+        ByteBuf plain = encode(message);
+        int plainLength = plain.readableBytes();
+        plain.release();
+        assertEquals(Lz4Compressor.TYPE, frame.getByte(RpcProtocol.FLAGS_OFFSET) & RpcProtocol.FLAG_COMPRESS_MASK);
+        assertTrue(frame.readableBytes() < plainLength);
+        assertEquals(frame.readableBytes() - RpcProtocol.HEADER_LENGTH, frame.getInt(RpcProtocol.LENGTH_FIELD_OFFSET));
+
+        EmbeddedChannel decompressing = new EmbeddedChannel(new RpcMessageDecoder(serializers, new CompressorRegistry(), null));
+        assertTrue(decompressing.writeInbound(frame));
+        RpcMessage decoded = decompressing.readInbound();
+        assertEquals(repeat("compressible ", 200), ((RpcResponse<?>) decoded.getBody()).getData());
+        compressing.finishAndReleaseAll();
+        decompressing.finishAndReleaseAll();
+    }
+
+    @Test
+    public void keepsBodyBelowThresholdUncompressed() {
+        EmbeddedChannel compressing = compressingEncoder();
+        compressing.attr(RpcMessageEncoder.COMPRESSOR).set(new Lz4Compressor());
+
+        assertTrue(compressing.writeOutbound(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 6,
+                RpcResponse.success(6, "short"))));
+        ByteBuf frame = compressing.readOutbound();
+        assertEquals(0, frame.getByte(RpcProtocol.FLAGS_OFFSET) & RpcProtocol.FLAG_COMPRESS_MASK);
+        assertEquals("short", ((RpcResponse<?>) roundTripFrame(frame).getBody()).getData());
+        compressing.finishAndReleaseAll();
+    }
+
+    @Test
+    public void keepsBodyUncompressedWithoutNegotiation() {
+        EmbeddedChannel compressing = compressingEncoder();
+
+        assertTrue(compressing.writeOutbound(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 8,
+                RpcResponse.success(8, repeat("compressible ", 200)))));
+        ByteBuf frame = compressing.readOutbound();
+        assertEquals(0, frame.getByte(RpcProtocol.FLAGS_OFFSET) & RpcProtocol.FLAG_COMPRESS_MASK);
+        assertEquals(repeat("compressible ", 200), ((RpcResponse<?>) roundTripFrame(frame).getBody()).getData());
+        compressing.finishAndReleaseAll();
+    }
+
+    @Test
+    public void handshakeCarriesCompressionInFlags() {
+        RpcMessage handshake = new RpcMessage(RpcProtocol.TYPE_HANDSHAKE, json, RpcProtocol.STATUS_OK, 0, null);
+        handshake.setFlags(Lz4Compressor.TYPE);
+        RpcMessage decoded = roundTrip(handshake);
+
+        assertEquals(RpcProtocol.TYPE_HANDSHAKE, decoded.getMessageType());
+        assertEquals(Lz4Compressor.TYPE, decoded.getFlags() & RpcProtocol.FLAG_COMPRESS_MASK);
+        assertNull(decoded.getBody());
+    }
+
+    @Test
+    public void rejectsOversizedLengthFieldOnHeader() {
+        EmbeddedChannel channel = new EmbeddedChannel(new RpcMessageDecoder(serializers, null, null, 1024));
+        ByteBuf header = encode(new RpcMessage(RpcProtocol.TYPE_REQUEST, json, RpcProtocol.STATUS_OK, 1, null));
+        header.setInt(RpcProtocol.LENGTH_FIELD_OFFSET, Integer.MAX_VALUE - RpcProtocol.HEADER_LENGTH);
+        // 只收到消息头就立即失败，不等待消息体
+        try {
+            channel.writeInbound(header);
+            fail();
+        } catch (TooLongFrameException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("1024"));
+        }
+    }
+
+    @Test
+    public void rejectsBodyDecompressedBeyondMaxFrameLength() {
+        EmbeddedChannel compressing = compressingEncoder();
+        compressing.attr(RpcMessageEncoder.COMPRESSOR).set(new Lz4Compressor());
+        assertTrue(compressing.writeOutbound(new RpcMessage(RpcProtocol.TYPE_RESPONSE, json, RpcProtocol.STATUS_OK, 2,
+                RpcResponse.success(2, repeat("a", 8192)))));
+        ByteBuf frame = compressing.readOutbound();
+        assertTrue(frame.readableBytes() < 1024);
+
+        EmbeddedChannel channel = new EmbeddedChannel(new RpcMessageDecoder(serializers, new CompressorRegistry(), null, 1024));
+        try {
+            channel.writeInbound(frame);
+            fail();
+        } catch (DecompressionException e) {
+            // 解压缓冲区的最大容量为最大帧长度
+        }
+        compressing.finishAndReleaseAll();
+    }
+
+    private EmbeddedChannel compressingEncoder() {
+        return new EmbeddedChannel(new RpcMessageEncoder(serializers, 256));
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+
+    private RpcMessage roundTripFrame(ByteBuf frame) {
+        assertTrue(decoder.writeInbound(frame));
+        return decoder.readInbound();
+    }
+
+    private RpcMessage roundTrip(RpcMessage message) {
+        assertTrue(decoder.writeInbound(encode(message)));
+        return decoder.readInbound();
+    }
+
+    private ByteBuf encode(RpcMessage message) {
+        assertTrue(encoder.writeOutbound(message));
+        return encoder.readOutbound();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.minirpc.core.compress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.compression.DecompressionException;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CompressorTest {
+
+    private final CompressorRegistry registry = new CompressorRegistry();
+
+    @Test
+    public void registryDiscoversBuiltinCompressors() {
+        assertEquals(GzipCompressor.TYPE, registry.get("gzip").getType());
+        assertEquals(SnappyCompressor.TYPE, registry.get("snappy").getType());
+        assertEquals(Lz4Compressor.TYPE, registry.get("lz4").getType());
+        assertSame(registry.get("lz4"), registry.get(Lz4Compressor.TYPE));
+
+        assertNull(registry.get(CompressorRegistry.NONE));
+        assertNull(registry.get(0));
+        try {
+            registry.get("zstd");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("zstd"));
+        }
+    }
+
+    @Test
+    public void compressibleDataRoundTrip() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 4000; i++) {
+            text.append("{\"name\":\"user-").append(i % 10).append("\"},");
+        }
+        byte[] data = text.toString().getBytes(StandardCharsets.UTF_8);
+        for (String name : new String[]{"gzip", "snappy", "lz4"}) {
+            byte[] compressed = compress(registry.get(name), data);
+            assertTrue(name, compressed.length < data.length / 2);
+            assertArrayEquals(name, data, decompress(registry.get(name), compressed));
+        }
+    }
+
+    @Test
+    public void incompressibleDataRoundTrip() {
+        // 超过snappy单块大小，覆盖分块路径
+        byte[] data = new byte[100 * 1024];
+        new Random(1).nextBytes(data);
+        for (String name : new String[]{"gzip", "snappy", "lz4"}) {
+            assertArrayEquals(name, data, decompress(registry.get(name), compress(registry.get(name), data)));
+        }
+    }
+
+    @Test
+    public void lz4RejectsMismatchedLength() {
+        byte[] compressed = compress(registry.get("lz4"), "hello hello hello".getBytes(StandardCharsets.UTF_8));
+        for (int delta : new int[]{1, -1}) {
+            ByteBuf in = Unpooled.wrappedBuffer(compressed.clone());
+            in.setInt(0, in.getInt(0) + delta);
+            try {
+                registry.get("lz4").decompress(in, Unpooled.buffer());
+                fail();
+            } catch (DecompressionException e) {
+                // 声明的原始长度与实际解压出的长度不一致
+            }
+        }
+    }
+
+    @Test
+    public void decompressionIsBoundedByMaxCapacity() {
+        byte[] data = new byte[20000];
+        for (String name : new String[]{"gzip", "lz4"}) {
+            byte[] compressed = compress(registry.get(name), data);
+            // 恰好写满缓冲区不算超出
+            ByteBuf exact = Unpooled.buffer(16, data.length);
+            registry.get(name).decompress(Unpooled.wrappedBuffer(compressed), exact);
+            assertEquals(name, data.length, exact.readableBytes());
+
+            try {
+                registry.get(name).decompress(Unpooled.wrappedBuffer(compressed), Unpooled.buffer(16, data.length - 1));
+                fail(name);
+            } catch (DecompressionException e) {
+                // 解压后超过缓冲区的最大容量
+            }
+        }
+    }
+
+    private static byte[] compress(Compressor compressor, byte[] data) {
+        ByteBuf out = Unpooled.buffer();
+        compressor.compress(Unpooled.wrappedBuffer(data), out);
+        byte[] bytes = new byte[out.readableBytes()];
+        out.readBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] decompress(Compressor compressor, byte[] data) {
+        ByteBuf in = Unpooled.wrappedBuffer(data);
+        ByteBuf out = Unpooled.buffer();
+        compressor.decompress(in, out);
+        assertEquals(0, in.readableBytes());
+        byte[] bytes = new byte[out.readableBytes()];
+        out.readBytes(bytes);
+        return bytes;
+    }
+}
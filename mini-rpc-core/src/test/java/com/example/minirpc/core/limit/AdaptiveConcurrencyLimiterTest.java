@@ -0,0 +1,89 @@
+package com.example.minirpc.core.limit;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long WINDOW_MILLIS = 110;
+
+    @Test
+    public void rejectsAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInflight());
+        limiter.release(1000);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    public void growsWhileLatencyIsStable() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 10, 1000);
+        for (int i = 0; i < 5; i++) {
+            runWindow(limiter, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertTrue("limit=" + limiter.getLimit(), limiter.getLimit() > 20);
+    }
+
+    @Test
+    public void shrinksWhenLatencyRises() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 10, 1000);
+        runWindow(limiter, TimeUnit.MILLISECONDS.toNanos(1));
+        int stable = limiter.getLimit();
+        for (int i = 0; i < 3; i++) {
+            runWindow(limiter, TimeUnit.MILLISECONDS.toNanos(20));
+        }
+        assertTrue("stable=" + stable + ", limit=" + limiter.getLimit(), limiter.getLimit() < stable);
+    }
+
+    @Test
+    public void backsOffOnDrop() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 10, 1000);
+        assertTrue(limiter.tryAcquire());
+        Thread.sleep(WINDOW_MILLIS);
+        limiter.releaseDropped();
+        assertEquals(18, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    public void staysWithinBounds() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(11, 10, 12);
+        for (int i = 0; i < 5; i++) {
+            runWindow(limiter, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        assertEquals(12, limiter.getLimit());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+            Thread.sleep(WINDOW_MILLIS);
+            limiter.releaseDropped();
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidRange() {
+        new AdaptiveConcurrencyLimiter(10, 20, 10);
+    }
+
+    /**
+     * 占满当前上限，等待窗口结束后以相同延迟释放，释放最后一批样本时计算新的上限
+     */
+    private static void runWindow(AdaptiveConcurrencyLimiter limiter, long rttNanos) throws InterruptedException {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        Thread.sleep(WINDOW_MILLIS);
+        for (int i = 0; i < acquired; i++) {
+            limiter.release(rttNanos);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.minirpc.core.serialize;
+
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JsonSerializerTest {
+
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    @Test
+    public void bindsGenericReturnType() throws Exception {
+        Type returnType = Service.class.getMethod("list").getGenericReturnType();
+        RpcResponse<?> response = roundTripResponse(RpcResponse.success(1, Arrays.asList(new User("a", 1), new User("b", 2))), returnType);
+
+        List<?> users = (List<?>) response.getData();
+        assertEquals(2, users.size());
+        assertTrue(users.get(0) instanceof User);
+        assertEquals("b", ((User) users.get(1)).getName());
+    }
+
+    @Test
+    public void bindsNestedGenericReturnType() throws Exception {
+        Type returnType = Service.class.getMethod("counts").getGenericReturnType();
+        RpcResponse<?> response = roundTripResponse(RpcResponse.success(1, Collections.singletonMap("a", 3L)), returnType);
+
+        Map<?, ?> counts = (Map<?, ?>) response.getData();
+        assertEquals(Long.class, counts.get("a").getClass());
+    }
+
+    @Test
+    public void bindsPrimitiveReturnTypeToWrapper() throws Exception {
+        RpcResponse<?> response = roundTripResponse(RpcResponse.success(1, 5L), long.class);
+        assertEquals(5L, response.getData());
+
+        RpcResponse<?> empty = roundTripResponse(RpcResponse.success(1, null), void.class);
+        assertNull(empty.getData());
+    }
+
+    @Test
+    public void withoutDeclaredTypeFallsBackToTree() {
+        RpcResponse<?> response = roundTripResponse(RpcResponse.success(1, new User("a", 1)), null);
+        assertTrue(response.getData() instanceof Map);
+    }
+
+    @Test
+    public void bindsRequestParametersToDeclaredTypes() throws Exception {
+        Type[] declared = Service.class.getMethod("save", User.class, List.class, int.class).getGenericParameterTypes();
+        RpcRequest request = new RpcRequest(3, Service.class.getName(), "save",
+                new Class[]{User.class, List.class, int.class},
+                new Object[]{new User("a", 1), Arrays.asList(new User("b", 2)), 7});
+
+        ByteBuf buf = Unpooled.buffer();
+        serializer.serialize(request, buf);
+        RpcRequest decoded = serializer.deserializeRequest(buf, new TypeResolver() {
+            @Override
+            public Type[] resolveParameterTypes(String interfaceName, String methodName, Class<?>[] parameterTypes) {
+                assertEquals("save", methodName);
+                return declared;
+            }
+
+            @Override
+            public Type resolveReturnType(long requestId) {
+                return null;
+            }
+        });
+
+        assertEquals(3, decoded.getRequestId());
+        Object[] parameters = decoded.getParameters();
+        assertEquals("a", ((User) parameters[0]).getName());
+        assertTrue(((List<?>) parameters[1]).get(0) instanceof User);
+        assertEquals(7, parameters[2]);
+    }
+
+    private RpcResponse<?> roundTripResponse(RpcResponse<?> response, Type dataType) {
+        ByteBuf buf = Unpooled.buffer();
+        serializer.serialize(response, buf);
+        return serializer.deserializeResponse(buf, dataType);
+    }
+
+    public interface Service {
+
+        List<User> list();
+
+        Map<String, Long> counts();
+
+        void save(User user, List<User> friends, int flags);
+    }
+
+    public static class User {
+
+        private String name;
+        private int age;
+
+        public User() {
+        }
+
+        User(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+}
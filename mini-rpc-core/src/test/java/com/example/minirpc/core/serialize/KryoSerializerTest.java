@@ -0,0 +1,175 @@
+package com.example.minirpc.core.serialize;
+
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class KryoSerializerTest {
+
+    private final KryoSerializer kryo = new KryoSerializer();
+
+    @Test
+    public void builtinTypesRoundTrip() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("list", Arrays.asList(1, 2L, "three"));
+        map.put("decimal", new BigDecimal("1.25"));
+        map.put("uuid", UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        map.put("date", new Date(0));
+        map.put("empty", Collections.emptyList());
+        map.put("ints", new int[]{1, 2});
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> copy = (Map<String, Object>) roundTrip(map);
+        assertEquals(map.get("list"), copy.get("list"));
+        assertEquals(map.get("decimal"), copy.get("decimal"));
+        assertEquals(map.get("uuid"), copy.get("uuid"));
+        assertEquals(map.get("date"), copy.get("date"));
+        assertEquals(Collections.emptyList(), copy.get("empty"));
+        assertArrayEquals(new int[]{1, 2}, (int[]) copy.get("ints"));
+    }
+
+    @Test
+    public void javaTimeTypesRoundTrip() {
+        List<Object> values = Arrays.asList(LocalDate.of(2024, 2, 29), LocalDateTime.of(2024, 1, 1, 8, 30),
+                Instant.ofEpochSecond(1700000000L, 5), Duration.ofMillis(1500),
+                ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneId.of("Asia/Shanghai")));
+        assertEquals(values, roundTrip(values));
+    }
+
+    @Test
+    public void requestAndResponseRoundTrip() {
+        RpcRequest request = new RpcRequest(3, "com.example.Hello", "sayHello",
+                new Class[]{String.class}, new Object[]{"world"});
+        ByteBuf buf = Unpooled.buffer();
+        kryo.serialize(request, buf);
+        RpcRequest decoded = kryo.deserializeRequest(buf, null);
+        assertEquals(3, decoded.getRequestId());
+        assertArrayEquals(new Object[]{"world"}, decoded.getParameters());
+
+        buf = Unpooled.buffer();
+        kryo.serialize(RpcResponse.success(3, "hello"), buf);
+        assertEquals("hello", kryo.deserializeResponse(buf, String.class).getData());
+    }
+
+    @Test
+    public void rejectsClassOutsideAllowlist() {
+        try {
+            roundTrip(new Secret("token"));
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause().getMessage().contains(Secret.class.getName()));
+        }
+        // 藏在允许的容器或RPC响应中同样被拒绝
+        try {
+            roundTrip(RpcResponse.success(1, Collections.singletonList(new Secret("token"))));
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause().getMessage().contains(Secret.class.getName()));
+        }
+    }
+
+    @Test
+    public void declaredTypesAndTheirFieldsAreAllowed() throws Exception {
+        kryo.allowTypes(UserService.class.getMethod("find", String.class).getGenericReturnType());
+
+        User user = new User("a", new Address("street"), Collections.singletonList(new Address("other")));
+        User copy = (User) roundTrip(user);
+        assertEquals("a", copy.name);
+        assertEquals("street", copy.address.street);
+        assertEquals("other", copy.previous.get(0).street);
+    }
+
+    @Test
+    public void subclassOfDeclaredTypeIsRejected() throws Exception {
+        kryo.allowTypes(UserService.class.getMethod("find", String.class).getGenericReturnType());
+        try {
+            roundTrip(new Admin("root"));
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause().getMessage().contains(Admin.class.getName()));
+        }
+    }
+
+    @Test
+    public void registryEnablesKryoOnlyOnRequest() throws Exception {
+        SerializerRegistry registry = new SerializerRegistry(new JsonSerializer());
+        assertNull(registry.get(KryoSerializer.TYPE));
+
+        // 启用之前声明的类型同样传给之后启用的序列化方式
+        registry.allowTypes(UserService.class.getMethod("find", String.class));
+        Serializer enabled = registry.get("kryo");
+        assertSame(enabled, registry.get(KryoSerializer.TYPE));
+
+        byte[] bytes = enabled.serialize(new User("b", null, null));
+        assertEquals("b", enabled.deserialize(bytes, User.class).name);
+    }
+
+    private Object roundTrip(Object value) {
+        ByteBuf buf = Unpooled.buffer();
+        kryo.serialize(value, buf);
+        return kryo.deserialize(buf, Object.class);
+    }
+
+    public interface UserService {
+
+        User find(String name);
+    }
+
+    public static class User {
+        String name;
+        Address address;
+        List<Address> previous;
+
+        User(String name, Address address, List<Address> previous) {
+            this.name = name;
+            this.address = address;
+            this.previous = previous;
+        }
+    }
+
+    public static class Admin extends User {
+        Admin(String name) {
+            super(name, null, null);
+        }
+    }
+
+    public static class Address {
+        String street;
+
+        Address(String street) {
+            this.street = street;
+        }
+    }
+
+    public static class Secret {
+        String value;
+
+        Secret(String value) {
+            this.value = value;
+        }
+    }
+}
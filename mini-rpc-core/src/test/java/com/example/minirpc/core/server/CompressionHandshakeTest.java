@@ -0,0 +1,163 @@
+package com.example.minirpc.core.server;
+
+import com.example.minirpc.core.codec.RpcMessageDecoder;
+import com.example.minirpc.core.codec.RpcMessageEncoder;
+import com.example.minirpc.core.compress.CompressorRegistry;
+import com.example.minirpc.core.compress.Lz4Compressor;
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.registry.DirectServiceRegistry;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 压缩协商：客户端在握手帧中提出压缩方式，服务端按自身配置接受或拒绝，之后超过阈值的响应按协商结果压缩
+ */
+public class CompressionHandshakeTest {
+
+    private static final String TEXT = repeat("compressible ", 400);
+
+    private final SerializerRegistry serializers = new SerializerRegistry(new JsonSerializer());
+    private final EmbeddedChannel encoder = new EmbeddedChannel(new RpcMessageEncoder(serializers));
+    private final EmbeddedChannel decoder = new EmbeddedChannel(
+            new RpcMessageDecoder(serializers, new CompressorRegistry(), null));
+
+    private NettyRpcServer server;
+    private Socket socket;
+
+    @After
+    public void tearDown() throws IOException {
+        if (socket != null) {
+            socket.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    @Test
+    public void serverAcceptsProposedCompression() throws Exception {
+        connect(true);
+
+        assertEquals(Lz4Compressor.TYPE, handshake(Lz4Compressor.TYPE).getFlags() & RpcProtocol.FLAG_COMPRESS_MASK);
+
+        RpcMessage response = call(TEXT);
+        assertEquals(Lz4Compressor.TYPE, response.getFlags() & RpcProtocol.FLAG_COMPRESS_MASK);
+        assertEquals(TEXT, ((RpcResponse<?>) response.getBody()).getData());
+
+        // 低于阈值的响应不压缩
+        RpcMessage small = call("hi");
+        assertEquals(0, small.getFlags() & RpcProtocol.FLAG_COMPRESS_MASK);
+        assertEquals("hi", ((RpcResponse<?>) small.getBody()).getData());
+    }
+
+    @Test
+    public void serverDeclinesWhenCompressionDisabled() throws Exception {
+        connect(false);
+
+        assertEquals(0, handshake(Lz4Compressor.TYPE).getFlags() & RpcProtocol.FLAG_COMPRESS_MASK);
+
+        RpcMessage response = call(TEXT);
+        assertEquals(0, response.getFlags() & RpcProtocol.FLAG_COMPRESS_MASK);
+        assertEquals(TEXT, ((RpcResponse<?>) response.getBody()).getData());
+    }
+
+    @Test
+    public void serverDeclinesUnknownCompression() throws Exception {
+        connect(true);
+
+        assertEquals(0, handshake((byte) 7).getFlags() & RpcProtocol.FLAG_COMPRESS_MASK);
+    }
+
+    private void connect(boolean compressionEnabled) throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        RpcServerConfig config = new RpcServerConfig();
+        config.setCompressionEnabled(compressionEnabled);
+        config.setCompressThreshold(256);
+        server = new NettyRpcServer("127.0.0.1", port, new DirectServiceRegistry("127.0.0.1:" + port),
+                new JsonSerializer(), Executors.newFixedThreadPool(2), config);
+        server.registerService(Echo.class.getName(), (Echo) text -> text);
+        Thread thread = new Thread(server::start);
+        thread.setDaemon(true);
+        thread.start();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            try {
+                socket = new Socket("127.0.0.1", port);
+                socket.setSoTimeout(5000);
+                return;
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private RpcMessage handshake(byte compressType) throws IOException {
+        RpcMessage handshake = new RpcMessage(RpcProtocol.TYPE_HANDSHAKE, JsonSerializer.TYPE, RpcProtocol.STATUS_OK, 0, null);
+        handshake.setFlags(compressType);
+        RpcMessage reply = exchange(handshake);
+        assertEquals(RpcProtocol.TYPE_HANDSHAKE, reply.getMessageType());
+        return reply;
+    }
+
+    private RpcMessage call(String text) throws IOException {
+        RpcRequest request = new RpcRequest(1, Echo.class.getName(), "echo",
+                new Class[]{String.class}, new Object[]{text});
+        RpcMessage response = exchange(new RpcMessage(RpcProtocol.TYPE_REQUEST, JsonSerializer.TYPE,
+                RpcProtocol.STATUS_OK, 1, request));
+        assertEquals(RpcProtocol.TYPE_RESPONSE, response.getMessageType());
+        return response;
+    }
+
+    private RpcMessage exchange(RpcMessage message) throws IOException {
+        encoder.writeOutbound(message);
+        ByteBuf frame = encoder.readOutbound();
+        frame.readBytes(socket.getOutputStream(), frame.readableBytes());
+        frame.release();
+
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        byte[] header = new byte[RpcProtocol.HEADER_LENGTH];
+        in.readFully(header);
+        byte[] body = new byte[Unpooled.wrappedBuffer(header).getInt(RpcProtocol.LENGTH_FIELD_OFFSET)];
+        in.readFully(body);
+        decoder.writeInbound(Unpooled.wrappedBuffer(header, body));
+        return decoder.readInbound();
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+
+    public interface Echo {
+
+        String echo(String text);
+    }
+}
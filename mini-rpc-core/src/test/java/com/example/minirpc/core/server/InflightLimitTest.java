@@ -0,0 +1,148 @@
+package com.example.minirpc.core.server;
+
+import com.example.minirpc.core.codec.RpcMessageDecoder;
+import com.example.minirpc.core.codec.RpcMessageEncoder;
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.registry.DirectServiceRegistry;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 连接上已分发的请求数达到上限后服务端暂停读取，请求完成后恢复
+ */
+public class InflightLimitTest {
+
+    private final SerializerRegistry serializers = new SerializerRegistry(new JsonSerializer());
+    private final EmbeddedChannel encoder = new EmbeddedChannel(new RpcMessageEncoder(serializers));
+    private final EmbeddedChannel decoder = new EmbeddedChannel(new RpcMessageDecoder(serializers, null));
+
+    private final AtomicInteger started = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private NettyRpcServer server;
+    private Socket socket;
+
+    @After
+    public void tearDown() throws IOException {
+        release.countDown();
+        if (socket != null) {
+            socket.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    @Test
+    public void pausesReadingAtInflightLimit() throws Exception {
+        connect(2);
+
+        send(1);
+        send(2);
+        awaitStarted(2);
+        send(3);
+        send(4);
+        // 达到上限后连接不再被读取，后续请求不会被分发
+        Thread.sleep(300);
+        assertEquals(2, started.get());
+
+        release.countDown();
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        for (int i = 0; i < 4; i++) {
+            RpcResponse<?> response = (RpcResponse<?>) read(in).getBody();
+            assertEquals(Integer.valueOf(0), response.getCode());
+        }
+        assertEquals(4, started.get());
+    }
+
+    private void connect(int maxInflight) throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        RpcServerConfig config = new RpcServerConfig();
+        config.setMaxInflightPerConnection(maxInflight);
+        server = new NettyRpcServer("127.0.0.1", port, new DirectServiceRegistry("127.0.0.1:" + port),
+                new JsonSerializer(), Executors.newFixedThreadPool(8), config);
+        server.registerService(Slow.class.getName(), (Slow) id -> {
+            started.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return id;
+        });
+        Thread thread = new Thread(server::start);
+        thread.setDaemon(true);
+        thread.start();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            try {
+                socket = new Socket("127.0.0.1", port);
+                socket.setSoTimeout(5000);
+                return;
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private void awaitStarted(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (started.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, started.get());
+    }
+
+    private void send(int id) throws IOException {
+        RpcRequest request = new RpcRequest(id, Slow.class.getName(), "call",
+                new Class[]{int.class}, new Object[]{id});
+        assertTrue(encoder.writeOutbound(new RpcMessage(RpcProtocol.TYPE_REQUEST, JsonSerializer.TYPE,
+                RpcProtocol.STATUS_OK, id, request)));
+        ByteBuf frame = encoder.readOutbound();
+        frame.readBytes(socket.getOutputStream(), frame.readableBytes());
+        frame.release();
+    }
+
+    private RpcMessage read(DataInputStream in) throws IOException {
+        byte[] header = new byte[RpcProtocol.HEADER_LENGTH];
+        in.readFully(header);
+        byte[] body = new byte[Unpooled.wrappedBuffer(header).getInt(RpcProtocol.LENGTH_FIELD_OFFSET)];
+        in.readFully(body);
+        decoder.writeInbound(Unpooled.wrappedBuffer(header, body));
+        return decoder.readInbound();
+    }
+
+    public interface Slow {
+
+        int call(int id);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.minirpc.core.server;
+
+import com.example.minirpc.core.protocol.MethodSignature;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class MethodInvokerTest {
+
+    public static class Greeter {
+        public String greet() {
+            return "hello";
+        }
+
+        public String greet(String name) {
+            return "hello " + name;
+        }
+
+        public String greet(String name, int times) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < times; i++) {
+                builder.append("hello ").append(name);
+            }
+            return builder.toString();
+        }
+
+        public int add(int a, long b) {
+            return (int) (a + b);
+        }
+
+        public void touch() {
+        }
+
+        public String fail() throws IOException {
+            throw new IOException("boom");
+        }
+    }
+
+    private final Greeter greeter = new Greeter();
+
+    @Test
+    public void invokesEachOverload() throws Throwable {
+        assertEquals("hello", invoker("greet").invoke(null));
+        assertEquals("hello bob", invoker("greet", String.class).invoke(new Object[]{"bob"}));
+        assertEquals("hello bobhello bob", invoker("greet", String.class, int.class).invoke(new Object[]{"bob", 2}));
+    }
+
+    @Test
+    public void overloadsHaveDistinctSignatures() {
+        String none = MethodSignature.of("greet", null);
+        String one = MethodSignature.of("greet", new Class[]{String.class});
+        String two = MethodSignature.of("greet", new Class[]{String.class, int.class});
+        assertEquals("greet()", none);
+        assertEquals("greet(java.lang.String)", one);
+        assertEquals("greet(java.lang.String,int)", two);
+        assertNotEquals(one, two);
+        assertEquals(none, MethodSignature.of("greet", new Class[0]));
+    }
+
+    @Test
+    public void unboxesPrimitiveArguments() throws Throwable {
+        assertEquals(5, invoker("add", int.class, long.class).invoke(new Object[]{2, 3L}));
+    }
+
+    @Test
+    public void voidMethodReturnsNull() throws Throwable {
+        assertNull(invoker("touch").invoke(new Object[0]));
+    }
+
+    @Test
+    public void rethrowsOriginalException() throws Throwable {
+        try {
+            invoker("fail").invoke(null);
+            fail();
+        } catch (IOException e) {
+            assertEquals("boom", e.getMessage());
+        }
+    }
+
+    private MethodInvoker invoker(String name, Class<?>... parameterTypes) throws Exception {
+        return new MethodInvoker(greeter, Greeter.class.getMethod(name, parameterTypes));
+    }
+}
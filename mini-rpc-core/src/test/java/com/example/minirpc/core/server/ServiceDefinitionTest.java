@@ -0,0 +1,57 @@
+package com.example.minirpc.core.server;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ServiceDefinitionTest {
+
+    private final ServiceDefinition service = new ServiceDefinition("Greeter", new Greeter(), (byte) 0);
+
+    @Test
+    public void selectsOverloadByParameterTypes() {
+        assertEquals(0, service.getInvoker("greet", new Class[0]).getMethod().getParameterCount());
+        assertEquals(String.class, service.getInvoker("greet", new Class[]{String.class})
+                .getMethod().getParameterTypes()[0]);
+        assertEquals(2, service.getInvoker("greet", new Class[]{String.class, int.class})
+                .getMethod().getParameterCount());
+    }
+
+    @Test
+    public void nullParameterTypesMatchNoArgOverload() {
+        assertSame(service.getInvoker("greet", new Class[0]), service.getInvoker("greet", null));
+    }
+
+    @Test
+    public void parameterTypesMustMatchExactly() {
+        // 装箱类型和声明的基本类型不是同一个重载
+        assertNull(service.getInvoker("greet", new Class[]{String.class, Integer.class}));
+        assertNull(service.getInvoker("greet", new Class[]{Object.class}));
+        assertNull(service.getInvoker("missing", null));
+        assertNull(service.getInvoker("toString", null));
+    }
+
+    @Test
+    public void lookupBySignatureFindsTheSameInvoker() {
+        MethodInvoker invoker = service.getInvoker("greet", new Class[]{String.class, int.class});
+        assertEquals("greet(java.lang.String,int)", invoker.getSignature());
+        assertSame(invoker, service.getInvoker(invoker.getSignature()));
+    }
+
+    public static class Greeter {
+
+        public String greet() {
+            return "hello";
+        }
+
+        public String greet(String name) {
+            return "hello " + name;
+        }
+
+        public String greet(String name, int times) {
+            return "hello " + name + " x" + times;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.minirpc.core.server;
+
+import com.example.minirpc.core.codec.RpcMessageDecoder;
+import com.example.minirpc.core.codec.RpcMessageEncoder;
+import com.example.minirpc.core.protocol.RpcMessage;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.protocol.RpcRequest;
+import com.example.minirpc.core.protocol.RpcResponse;
+import com.example.minirpc.core.registry.DirectServiceRegistry;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 业务线程池拒绝流式调用的拉取任务时，以503结束流式调用并释放连接上的占用
+ */
+public class StreamRejectionTest {
+
+    private final SerializerRegistry serializers = new SerializerRegistry(new JsonSerializer());
+    private final EmbeddedChannel encoder = new EmbeddedChannel(new RpcMessageEncoder(serializers));
+    private final EmbeddedChannel decoder = new EmbeddedChannel(new RpcMessageDecoder(serializers, null));
+
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private NettyRpcServer server;
+    private Socket socket;
+
+    @After
+    public void tearDown() throws IOException {
+        if (socket != null) {
+            socket.close();
+        }
+        if (server != null) {
+            server.stop();
+        }
+        encoder.finishAndReleaseAll();
+        decoder.finishAndReleaseAll();
+    }
+
+    @Test
+    public void rejectedPumpEndsStreamWith503() throws Exception {
+        connect();
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+
+        // 唯一的业务线程正在执行服务方法，提交拉取任务时被拒绝
+        send(1, "range", new Class[]{int.class}, new Object[]{3});
+        RpcMessage reply = read(in);
+        assertEquals(RpcProtocol.TYPE_RESPONSE, reply.getMessageType());
+        assertEquals(1, reply.getRequestId());
+        assertEquals(Integer.valueOf(RpcProtocol.CODE_UNAVAILABLE), ((RpcResponse<?>) reply.getBody()).getCode());
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+
+        // 上限为1，占用没有释放时后续请求不会被读取
+        send(2, "echo", new Class[]{int.class}, new Object[]{7});
+        RpcResponse<?> response = (RpcResponse<?>) read(in).getBody();
+        assertEquals(Integer.valueOf(0), response.getCode());
+        assertEquals(7, ((Number) response.getData()).intValue());
+    }
+
+    private void connect() throws Exception {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        RpcServerConfig config = new RpcServerConfig();
+        config.setMaxInflightPerConnection(1);
+        server = new NettyRpcServer("127.0.0.1", port, new DirectServiceRegistry("127.0.0.1:" + port),
+                new JsonSerializer(), new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new SynchronousQueue<>()),
+                config);
+        server.registerService(Numbers.class.getName(), new Numbers() {
+            @Override
+            public Stream<Integer> range(int n) {
+                return Stream.iterate(0, i -> i + 1).limit(n).onClose(closed::countDown);
+            }
+
+            @Override
+            public int echo(int value) {
+                return value;
+            }
+        });
+        Thread thread = new Thread(server::start);
+        thread.setDaemon(true);
+        thread.start();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            try {
+                socket = new Socket("127.0.0.1", port);
+                socket.setSoTimeout(5000);
+                return;
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    private void send(long id, String method, Class<?>[] types, Object[] args) throws IOException {
+        RpcRequest request = new RpcRequest(id, Numbers.class.getName(), method, types, args);
+        assertTrue(encoder.writeOutbound(new RpcMessage(RpcProtocol.TYPE_REQUEST, JsonSerializer.TYPE,
+                RpcProtocol.STATUS_OK, id, request)));
+        ByteBuf frame = encoder.readOutbound();
+        frame.readBytes(socket.getOutputStream(), frame.readableBytes());
+        frame.release();
+    }
+
+    private RpcMessage read(DataInputStream in) throws IOException {
+        byte[] header = new byte[RpcProtocol.HEADER_LENGTH];
+        in.readFully(header);
+        byte[] body = new byte[Unpooled.wrappedBuffer(header).getInt(RpcProtocol.LENGTH_FIELD_OFFSET)];
+        in.readFully(body);
+        decoder.writeInbound(Unpooled.wrappedBuffer(header, body));
+        return decoder.readInbound();
+    }
+
+    public interface Numbers {
+
+        Stream<Integer> range(int n);
+
+        int echo(int value);
+    }
+}
@@ -0,0 +1,328 @@
+package com.example.minirpc.registry;
+
+import com.example.minirpc.core.registry.ServiceInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注册中心的内存实现
+ *
+ * <p>每次变更分配一个全局递增的版本号，每个服务保留最近的变更记录用于计算增量；
+ * 租约按实例地址管理，到期未续约时摘除该地址上的所有服务实例。
+ * 所有状态由一把锁保护，监听者的回调在锁外执行。
+ */
+public class DefaultRegistryService implements RegistryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefaultRegistryService.class);
+
+    /**
+     * 每个服务保留的变更记录数，调用方落后更多时返回全量变更
+     */
+    private static final int MAX_CHANGES = 1024;
+
+    private final Object lock = new Object();
+    private final Map<String, ServiceEntry> services = new HashMap<>();
+    private final Map<String, Lease> leases = new HashMap<>();
+    private final Map<String, Set<Watcher>> watchers = new HashMap<>();
+
+    // 版本号从启动时间开始，注册中心重启后调用方持有的旧版本号不会与新版本号混淆
+    private long revision = System.currentTimeMillis();
+
+    private final ScheduledExecutorService scheduler;
+
+    public DefaultRegistryService() {
+        this(1000);
+    }
+
+    /**
+     * @param sweepIntervalMillis 租约过期检查间隔，单位毫秒
+     */
+    public DefaultRegistryService(long sweepIntervalMillis) {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "registry-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::expireLeases,
+                sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void register(String serviceName, ServiceInstance instance, long ttlMillis) {
+        List<Runnable> notifications;
+        synchronized (lock) {
+            ServiceEntry entry = services.computeIfAbsent(serviceName, name -> new ServiceEntry(name, revision));
+            entry.put(instance, ++revision);
+            Lease lease = leases.computeIfAbsent(instance.getAddress(), Lease::new);
+            lease.services.add(serviceName);
+            lease.expireAt = System.currentTimeMillis() + ttlMillis;
+            notifications = changed(serviceName);
+        }
+        logger.info("注册服务: {} -> {}", serviceName, instance);
+        notifications.forEach(Runnable::run);
+    }
+
+    @Override
+    public boolean renew(String address, long ttlMillis) {
+        synchronized (lock) {
+            Lease lease = leases.get(address);
+            if (lease == null) {
+                return false;
+            }
+            lease.expireAt = System.currentTimeMillis() + ttlMillis;
+            return true;
+        }
+    }
+
+    @Override
+    public void unregister(String serviceName, ServiceInstance instance) {
+        List<Runnable> notifications = Collections.emptyList();
+        synchronized (lock) {
+            Lease lease = leases.get(instance.getAddress());
+            if (lease != null) {
+                lease.services.remove(serviceName);
+                if (lease.services.isEmpty()) {
+                    leases.remove(instance.getAddress());
+                }
+            }
+            ServiceEntry entry = services.get(serviceName);
+            if (entry != null && entry.remove(instance.getAddress(), revision + 1)) {
+                revision++;
+                notifications = changed(serviceName);
+            }
+        }
+        logger.info("注销服务: {} -> {}", serviceName, instance);
+        notifications.forEach(Runnable::run);
+    }
+
+    @Override
+    public ServiceDiff discover(String serviceName) {
+        synchronized (lock) {
+            ServiceEntry entry = services.get(serviceName);
+            return entry == null ? new ServiceDiff(serviceName, 0, 0, true) : entry.diff(0);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Map<String, ServiceDiff>> watch(Map<String, Long> revisions, long holdMillis) {
+        Watcher watcher = new Watcher(revisions);
+        synchronized (lock) {
+            Map<String, ServiceDiff> diffs = diffs(revisions);
+            if (!diffs.isEmpty()) {
+                return CompletableFuture.completedFuture(diffs);
+            }
+            for (String serviceName : revisions.keySet()) {
+                watchers.computeIfAbsent(serviceName, k -> new HashSet<>()).add(watcher);
+            }
+        }
+        // 超时后以空结果结束，调用方随即发起下一次监听
+        scheduler.schedule(() -> {
+            synchronized (lock) {
+                detach(watcher);
+            }
+            watcher.future.complete(Collections.emptyMap());
+        }, holdMillis, TimeUnit.MILLISECONDS);
+        return watcher.future;
+    }
+
+    /**
+     * 停止租约检查
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 摘除租约过期的实例
+     */
+    private void expireLeases() {
+        List<Runnable> notifications = new ArrayList<>();
+        synchronized (lock) {
+            long now = System.currentTimeMillis();
+            Iterator<Lease> iterator = leases.values().iterator();
+            while (iterator.hasNext()) {
+                Lease lease = iterator.next();
+                if (lease.expireAt > now) {
+                    continue;
+                }
+                iterator.remove();
+                logger.warn("租约过期，摘除实例: {} -> {}", lease.address, lease.services);
+                for (String serviceName : lease.services) {
+                    ServiceEntry entry = services.get(serviceName);
+                    if (entry != null && entry.remove(lease.address, revision + 1)) {
+                        revision++;
+                        notifications.addAll(changed(serviceName));
+                    }
+                }
+            }
+        }
+        notifications.forEach(Runnable::run);
+    }
+
+    /**
+     * 服务发生变更，取出监听该服务的所有监听者并计算各自的变更，调用方需持有锁
+     *
+     * @return 在锁外执行的通知
+     */
+    private List<Runnable> changed(String serviceName) {
+        Set<Watcher> serviceWatchers = watchers.remove(serviceName);
+        if (serviceWatchers == null) {
+            return Collections.emptyList();
+        }
+        List<Runnable> notifications = new ArrayList<>(serviceWatchers.size());
+        for (Watcher watcher : serviceWatchers) {
+            detach(watcher);
+            Map<String, ServiceDiff> diffs = diffs(watcher.revisions);
+            notifications.add(() -> watcher.future.complete(diffs));
+        }
+        return notifications;
+    }
+
+    private void detach(Watcher watcher) {
+        for (String serviceName : watcher.revisions.keySet()) {
+            Set<Watcher> serviceWatchers = watchers.get(serviceName);
+            if (serviceWatchers != null) {
+                serviceWatchers.remove(watcher);
+                if (serviceWatchers.isEmpty()) {
+                    watchers.remove(serviceName);
+                }
+            }
+        }
+    }
+
+    private Map<String, ServiceDiff> diffs(Map<String, Long> revisions) {
+        Map<String, ServiceDiff> diffs = new HashMap<>();
+        revisions.forEach((serviceName, since) -> {
+            ServiceEntry entry = services.get(serviceName);
+            if (entry == null) {
+                // 调用方持有的服务在这里不存在（如注册中心重启），返回空的全量变更
+                if (since != 0) {
+                    diffs.put(serviceName, new ServiceDiff(serviceName, since, 0, true));
+                }
+            } else if (entry.revision != since) {
+                diffs.put(serviceName, entry.diff(since));
+            }
+        });
+        return diffs;
+    }
+
+    /**
+     * 单个服务的实例和最近的变更记录
+     */
+    private static class ServiceEntry {
+        private final String serviceName;
+        private final Map<String, ServiceInstance> instances = new LinkedHashMap<>();
+        private final ArrayDeque<Change> changes = new ArrayDeque<>();
+        private long revision;
+
+        // 已丢弃的最新一条变更记录的版本号，早于该版本的调用方只能获取全量变更。
+        // 初始为创建时注册中心的版本号，之前的版本来自其他注册中心实例或重启前，没有对应的变更记录
+        private long trimmedRevision;
+
+        ServiceEntry(String serviceName, long createdRevision) {
+            this.serviceName = serviceName;
+            this.trimmedRevision = createdRevision;
+        }
+
+        void put(ServiceInstance instance, long newRevision) {
+            instances.put(instance.getAddress(), instance);
+            record(instance.getAddress(), newRevision);
+        }
+
+        boolean remove(String address, long newRevision) {
+            if (instances.remove(address) == null) {
+                return false;
+            }
+            record(address, newRevision);
+            return true;
+        }
+
+        private void record(String address, long newRevision) {
+            revision = newRevision;
+            changes.addLast(new Change(newRevision, address));
+            if (changes.size() > MAX_CHANGES) {
+                trimmedRevision = changes.removeFirst().revision;
+            }
+        }
+
+        /**
+         * 计算从since版本到当前版本的变更
+         */
+        ServiceDiff diff(long since) {
+            if (since <= 0 || since < trimmedRevision || since > revision) {
+                ServiceDiff diff = new ServiceDiff(serviceName, since, revision, true);
+                diff.getAdded().addAll(instances.values());
+                return diff;
+            }
+            Set<String> touched = new HashSet<>();
+            Iterator<Change> iterator = changes.descendingIterator();
+            while (iterator.hasNext()) {
+                Change change = iterator.next();
+                if (change.revision <= since) {
+                    break;
+                }
+                touched.add(change.address);
+            }
+            ServiceDiff diff = new ServiceDiff(serviceName, since, revision, false);
+            for (String address : touched) {
+                ServiceInstance instance = instances.get(address);
+                if (instance != null) {
+                    diff.getAdded().add(instance);
+                } else {
+                    diff.getRemoved().add(ServiceInstance.parse(address));
+                }
+            }
+            return diff;
+        }
+    }
+
+    private static class Change {
+        private final long revision;
+        private final String address;
+
+        Change(long revision, String address) {
+            this.revision = revision;
+            this.address = address;
+        }
+    }
+
+    /**
+     * 一个实例地址的租约，覆盖该地址上注册的所有服务
+     */
+    private static class Lease {
+        private final String address;
+        private final Set<String> services = new HashSet<>();
+        private long expireAt;
+
+        Lease(String address) {
+            this.address = address;
+        }
+    }
+
+    /**
+     * 挂起的长轮询
+     */
+    private static class Watcher {
+        private final Map<String, Long> revisions;
+        private final CompletableFuture<Map<String, ServiceDiff>> future = new CompletableFuture<>();
+
+        Watcher(Map<String, Long> revisions) {
+            this.revisions = revisions;
+        }
+    }
+}
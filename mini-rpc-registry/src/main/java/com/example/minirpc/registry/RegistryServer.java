@@ -0,0 +1,57 @@
+package com.example.minirpc.registry;
+
+import com.example.minirpc.core.registry.LocalServiceRegistry;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import com.example.minirpc.core.server.BusinessExecutors;
+import com.example.minirpc.core.server.NettyRpcServer;
+import com.example.minirpc.core.server.RpcServerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 独立运行的注册中心服务器，基于框架自身的Netty传输暴露 {@link RegistryService}
+ *
+ * <p>启动方式：{@code java com.example.minirpc.registry.RegistryServer [host] [port]}，默认监听 0.0.0.0:7070。
+ */
+public class RegistryServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegistryServer.class);
+
+    public static final int DEFAULT_PORT = 7070;
+
+    private final NettyRpcServer server;
+    private final DefaultRegistryService registryService;
+
+    public RegistryServer(String host, int port) {
+        this.registryService = new DefaultRegistryService();
+        int threads = Runtime.getRuntime().availableProcessors();
+        // 注册中心自身不需要注册，长轮询挂起时不占用业务线程
+        RpcServerConfig config = new RpcServerConfig();
+        // 长轮询请求会挂起直到超时，其延迟不反映负载，不能参与自适应并发限制
+        config.setConcurrencyLimitEnabled(false);
+        this.server = new NettyRpcServer(host, port, new LocalServiceRegistry(), new JsonSerializer(),
+                BusinessExecutors.newThreadPool(threads, threads, 4096, 60000), config);
+        server.registerService(RegistryService.class.getName(), registryService);
+    }
+
+    /**
+     * 启动服务器，阻塞直到服务器关闭
+     */
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop();
+        registryService.shutdown();
+    }
+
+    public static void main(String[] args) {
+        String host = args.length > 0 ? args[0] : "0.0.0.0";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+        RegistryServer registryServer = new RegistryServer(host, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(registryServer::stop, "registry-shutdown"));
+        logger.info("启动注册中心: {}:{}", host, port);
+        registryServer.start();
+    }
+}
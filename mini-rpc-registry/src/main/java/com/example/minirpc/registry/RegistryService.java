@@ -0,0 +1,53 @@
+package com.example.minirpc.registry;
+
+import com.example.minirpc.core.registry.ServiceInstance;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 注册中心对外提供的RPC接口
+ */
+public interface RegistryService {
+
+    /**
+     * 注册服务实例，并创建或续期该实例地址的租约
+     *
+     * @param serviceName 服务名称
+     * @param instance 服务实例
+     * @param ttlMillis 租约有效期，单位毫秒，到期未续约的实例会被摘除
+     */
+    void register(String serviceName, ServiceInstance instance, long ttlMillis);
+
+    /**
+     * 续约实例地址上注册的所有服务
+     *
+     * @param address 实例地址，格式为 host:port
+     * @param ttlMillis 租约有效期，单位毫秒
+     * @return 租约已过期或不存在时返回false，调用方应重新注册
+     */
+    boolean renew(String address, long ttlMillis);
+
+    /**
+     * 注销服务实例
+     */
+    void unregister(String serviceName, ServiceInstance instance);
+
+    /**
+     * 获取服务的完整实例列表
+     *
+     * @return 全量变更，revision为服务当前的版本号
+     */
+    ServiceDiff discover(String serviceName);
+
+    /**
+     * 监听服务变更（长轮询）
+     *
+     * <p>任一服务的版本号与调用方持有的不同时立即返回这些服务的变更，否则挂起直到有变更或超过等待时间。
+     *
+     * @param revisions 服务名称 -> 调用方持有的版本号
+     * @param holdMillis 没有变更时的最长等待时间，单位毫秒
+     * @return 服务名称 -> 变更，等待超时返回空Map
+     */
+    CompletableFuture<Map<String, ServiceDiff>> watch(Map<String, Long> revisions, long holdMillis);
+}
@@ -0,0 +1,244 @@
+package com.example.minirpc.registry;
+
+import com.example.minirpc.core.client.NettyRpcClient;
+import com.example.minirpc.core.client.RpcClientProxy;
+import com.example.minirpc.core.registry.DirectServiceRegistry;
+import com.example.minirpc.core.registry.ServiceInstance;
+import com.example.minirpc.core.registry.ServiceListener;
+import com.example.minirpc.core.registry.ServiceRegistry;
+import com.example.minirpc.core.serialize.JsonSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 {@link RegistryServer} 的服务注册实现
+ *
+ * <p>服务提供方注册后按租约有效期的1/3定期续约，租约丢失（如注册中心重启）时自动重新注册；
+ * 服务消费方订阅后通过长轮询接收增量变更，在本地维护实例列表。
+ */
+public class RemoteServiceRegistry implements ServiceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteServiceRegistry.class);
+
+    /**
+     * 长轮询在没有变更时的等待时间，单位毫秒
+     */
+    private static final long WATCH_HOLD_MILLIS = 30000;
+
+    /**
+     * 请求失败后的重试间隔，单位毫秒
+     */
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final long ttlMillis;
+    private final NettyRpcClient client;
+    private final RegistryService registry;
+    private final RegistryService watchRegistry;
+    private final ScheduledExecutorService scheduler;
+
+    // 本进程注册的服务实例：服务名称 -> 实例，用于租约丢失后重新注册
+    private final Map<String, Set<ServiceInstance>> registrations = new ConcurrentHashMap<>();
+
+    // 实例地址 -> 续约任务
+    private final Map<String, ScheduledFuture<?>> renewTasks = new ConcurrentHashMap<>();
+
+    // 已订阅的服务
+    private final Map<String, WatchedService> watchedServices = new ConcurrentHashMap<>();
+
+    // 长轮询的代数，新增订阅时加一，旧的长轮询返回后不再继续
+    private final AtomicLong watchGeneration = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * @param registryAddress 注册中心地址，格式为 host:port，多个地址用逗号分隔
+     * @param ttlMillis 租约有效期，单位毫秒，按其1/3续约，不能小于3
+     */
+    public RemoteServiceRegistry(String registryAddress, long ttlMillis) {
+        if (ttlMillis < 3) {
+            throw new IllegalArgumentException("租约有效期不能小于3ms: " + ttlMillis);
+        }
+        this.ttlMillis = ttlMillis;
+        this.client = new NettyRpcClient(new DirectServiceRegistry(registryAddress), new JsonSerializer());
+        this.registry = new RpcClientProxy(client, "").create(RegistryService.class);
+        this.watchRegistry = new RpcClientProxy(client, "", WATCH_HOLD_MILLIS + 5000, null)
+                .create(RegistryService.class);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "registry-client");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("连接注册中心: {}, 租约有效期: {}ms", registryAddress, ttlMillis);
+    }
+
+    @Override
+    public void register(String serviceName, ServiceInstance instance) {
+        registrations.computeIfAbsent(serviceName, k -> ConcurrentHashMap.newKeySet()).add(instance);
+        registry.register(serviceName, instance, ttlMillis);
+        renewTasks.computeIfAbsent(instance.getAddress(), address -> scheduler.scheduleWithFixedDelay(
+                () -> renew(address), ttlMillis / 3, ttlMillis / 3, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public void unregister(String serviceName, ServiceInstance instance) {
+        Set<ServiceInstance> instances = registrations.get(serviceName);
+        if (instances != null) {
+            instances.remove(instance);
+        }
+        if (registrations.values().stream().noneMatch(set -> set.contains(instance))) {
+            ScheduledFuture<?> task = renewTasks.remove(instance.getAddress());
+            if (task != null) {
+                task.cancel(false);
+            }
+        }
+        registry.unregister(serviceName, instance);
+    }
+
+    /**
+     * 续约，租约已丢失时重新注册该地址上的所有服务
+     */
+    private void renew(String address) {
+        try {
+            if (registry.renew(address, ttlMillis)) {
+                return;
+            }
+            logger.warn("租约已丢失，重新注册: {}", address);
+            registrations.forEach((serviceName, instances) -> instances.stream()
+                    .filter(instance -> instance.getAddress().equals(address))
+                    .forEach(instance -> registry.register(serviceName, instance, ttlMillis)));
+        } catch (Exception e) {
+            logger.warn("续约失败: {}", address, e);
+        }
+    }
+
+    @Override
+    public List<ServiceInstance> discover(String serviceName) {
+        WatchedService watched = watchedServices.get(serviceName);
+        if (watched != null) {
+            return watched.instances;
+        }
+        return Collections.unmodifiableList(registry.discover(serviceName).getAdded());
+    }
+
+    @Override
+    public void subscribe(String serviceName, ServiceListener listener) {
+        WatchedService watched = watchedServices.get(serviceName);
+        if (watched == null) {
+            // 在锁外查询注册中心，并发订阅同一服务时只保留先放入的结果
+            WatchedService created = new WatchedService(serviceName);
+            created.apply(registry.discover(serviceName));
+            watched = watchedServices.putIfAbsent(serviceName, created);
+            if (watched == null) {
+                watched = created;
+                // 新的长轮询包含新订阅的服务，旧的长轮询返回后自行结束
+                long generation = watchGeneration.incrementAndGet();
+                scheduler.execute(() -> watch(generation));
+            }
+        }
+        watched.addListener(listener);
+    }
+
+    @Override
+    public void unsubscribe(String serviceName, ServiceListener listener) {
+        WatchedService watched = watchedServices.get(serviceName);
+        if (watched != null) {
+            watched.listeners.remove(listener);
+        }
+    }
+
+    private void watch(long generation) {
+        if (closed || generation != watchGeneration.get()) {
+            return;
+        }
+        Map<String, Long> revisions = new HashMap<>();
+        watchedServices.forEach((serviceName, watched) -> revisions.put(serviceName, watched.revision));
+        watchRegistry.watch(revisions, WATCH_HOLD_MILLIS).whenCompleteAsync((diffs, error) -> {
+            if (error != null) {
+                if (!closed) {
+                    logger.warn("监听注册中心失败，{}ms后重试: {}", RETRY_DELAY_MILLIS, error.getMessage());
+                    scheduler.schedule(() -> watch(generation), RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+            diffs.forEach((serviceName, diff) -> {
+                WatchedService watched = watchedServices.get(serviceName);
+                if (watched != null) {
+                    watched.apply(diff);
+                }
+            });
+            watch(generation);
+        }, scheduler);
+    }
+
+    /**
+     * 停止续约和监听，断开与注册中心的连接
+     */
+    public void close() {
+        closed = true;
+        scheduler.shutdownNow();
+        client.close();
+    }
+
+    /**
+     * 已订阅服务的本地实例列表
+     */
+    static class WatchedService {
+        private final String serviceName;
+        private final Map<String, ServiceInstance> instanceMap = new LinkedHashMap<>();
+        private final List<ServiceListener> listeners = new CopyOnWriteArrayList<>();
+        private volatile List<ServiceInstance> instances = Collections.emptyList();
+        private volatile long revision;
+
+        WatchedService(String serviceName) {
+            this.serviceName = serviceName;
+        }
+
+        synchronized void addListener(ServiceListener listener) {
+            listeners.add(listener);
+            notify(listener);
+        }
+
+        /**
+         * 应用变更并通知监听器；增量变更的基础版本与本地不一致时忽略，由下一次长轮询补齐
+         */
+        synchronized void apply(ServiceDiff diff) {
+            if (diff.isFull()) {
+                instanceMap.clear();
+            } else if (diff.getBaseRevision() != revision) {
+                return;
+            }
+            for (ServiceInstance instance : diff.getRemoved()) {
+                instanceMap.remove(instance.getAddress());
+            }
+            for (ServiceInstance instance : diff.getAdded()) {
+                instanceMap.put(instance.getAddress(), instance);
+            }
+            revision = diff.getRevision();
+            instances = Collections.unmodifiableList(new ArrayList<>(instanceMap.values()));
+            listeners.forEach(this::notify);
+        }
+
+        private void notify(ServiceListener listener) {
+            try {
+                listener.onChange(serviceName, instances);
+            } catch (Exception e) {
+                logger.error("服务变更通知异常: {}", serviceName, e);
+            }
+        }
+    }
+}
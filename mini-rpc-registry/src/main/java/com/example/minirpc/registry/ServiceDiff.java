@@ -0,0 +1,105 @@
+package com.example.minirpc.registry;
+
+import com.example.minirpc.core.registry.ServiceInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 服务实例变更，从baseRevision版本变为revision版本
+ *
+ * <p>全量变更时added为完整实例列表；增量变更时added为新增或属性有变化的实例，removed为被摘除的实例。
+ */
+public class ServiceDiff {
+
+    private String serviceName;
+
+    /**
+     * 变更基于的版本号，调用方持有的版本号与之相同时才能应用增量变更
+     */
+    private long baseRevision;
+
+    /**
+     * 变更后的版本号
+     */
+    private long revision;
+
+    /**
+     * 是否为全量变更
+     */
+    private boolean full;
+
+    private List<ServiceInstance> added = new ArrayList<>();
+
+    private List<ServiceInstance> removed = new ArrayList<>();
+
+    public ServiceDiff() {
+    }
+
+    public ServiceDiff(String serviceName, long baseRevision, long revision, boolean full) {
+        this.serviceName = serviceName;
+        this.baseRevision = baseRevision;
+        this.revision = revision;
+        this.full = full;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public long getBaseRevision() {
+        return baseRevision;
+    }
+
+    public void setBaseRevision(long baseRevision) {
+        this.baseRevision = baseRevision;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public List<ServiceInstance> getAdded() {
+        return added;
+    }
+
+    public void setAdded(List<ServiceInstance> added) {
+        this.added = added;
+    }
+
+    public List<ServiceInstance> getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(List<ServiceInstance> removed) {
+        this.removed = removed;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceDiff{" +
+                "serviceName='" + serviceName + '\'' +
+                ", baseRevision=" + baseRevision +
+                ", revision=" + revision +
+                ", full=" + full +
+                ", added=" + added +
+                ", removed=" + removed +
+                '}';
+    }
+}
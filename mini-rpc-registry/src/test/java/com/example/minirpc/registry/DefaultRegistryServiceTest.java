@@ -0,0 +1,148 @@
+package com.example.minirpc.registry;
+
+import com.example.minirpc.core.registry.ServiceInstance;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DefaultRegistryServiceTest {
+
+    private static final String SERVICE = "com.example.Hello";
+    private static final long TTL = 60000;
+
+    private final DefaultRegistryService registry = new DefaultRegistryService(20);
+
+    @After
+    public void shutdown() {
+        registry.shutdown();
+    }
+
+    @Test
+    public void discoverReturnsFullList() {
+        registry.register(SERVICE, new ServiceInstance("127.0.0.1", 8001), TTL);
+        registry.register(SERVICE, new ServiceInstance("127.0.0.1", 8002), TTL);
+
+        ServiceDiff diff = registry.discover(SERVICE);
+        assertTrue(diff.isFull());
+        assertEquals(2, diff.getAdded().size());
+        assertTrue(diff.getRevision() > 0);
+    }
+
+    @Test
+    public void discoverUnknownServiceIsEmpty() {
+        ServiceDiff diff = registry.discover(SERVICE);
+        assertTrue(diff.isFull());
+        assertTrue(diff.getAdded().isEmpty());
+        assertEquals(0, diff.getRevision());
+    }
+
+    @Test
+    public void watchReturnsIncrementalChanges() throws Exception {
+        registry.register(SERVICE, new ServiceInstance("127.0.0.1", 8001), TTL);
+        long revision = registry.discover(SERVICE).getRevision();
+
+        CompletableFuture<Map<String, ServiceDiff>> future = registry.watch(revisions(revision), 10000);
+        assertFalse(future.isDone());
+        registry.register(SERVICE, new ServiceInstance("127.0.0.1", 8002), TTL);
+
+        ServiceDiff added = future.get(1, TimeUnit.SECONDS).get(SERVICE);
+        assertFalse(added.isFull());
+        assertEquals(revision, added.getBaseRevision());
+        assertEquals(Collections.singletonList(new ServiceInstance("127.0.0.1", 8002)), added.getAdded());
+        assertTrue(added.getRemoved().isEmpty());
+
+        registry.unregister(SERVICE, new ServiceInstance("127.0.0.1", 8001));
+        ServiceDiff removed = registry.watch(revisions(added.getRevision()), 10000)
+                .get(1, TimeUnit.SECONDS).get(SERVICE);
+        assertFalse(removed.isFull());
+        assertEquals(added.getRevision(), removed.getBaseRevision());
+        assertTrue(removed.getAdded().isEmpty());
+        assertEquals(Collections.singletonList(new ServiceInstance("127.0.0.1", 8001)), removed.getRemoved());
+    }
+
+    @Test
+    public void staleRevisionGetsFullList() throws Exception {
+        registry.register(SERVICE, new ServiceInstance("127.0.0.1", 8001), TTL);
+        long revision = registry.discover(SERVICE).getRevision();
+
+        // 早于注册中心保存的变更记录或来自其他注册中心实例的版本号
+        ServiceDiff diff = registry.watch(revisions(revision + 100), 10000).get(1, TimeUnit.SECONDS).get(SERVICE);
+        assertTrue(diff.isFull());
+        assertEquals(revision, diff.getRevision());
+        assertEquals(1, diff.getAdded().size());
+    }
+
+    @Test
+    public void revisionFromPreviousRegistryGetsFullList() throws Exception {
+        DefaultRegistryService previous = new DefaultRegistryService(20);
+        long revision;
+        try {
+            previous.register(SERVICE, new ServiceInstance("127.0.0.1", 8001), TTL);
+            previous.register(SERVICE, new ServiceInstance("127.0.0.1", 8002), TTL);
+            revision = previous.discover(SERVICE).getRevision();
+        } finally {
+            previous.shutdown();
+        }
+        Thread.sleep(10);
+
+        // 注册中心重启后只有一个实例重新注册，旧版本号之后的变更记录并不完整
+        DefaultRegistryService restarted = new DefaultRegistryService(20);
+        try {
+            restarted.register(SERVICE, new ServiceInstance("127.0.0.1", 8001), TTL);
+
+            ServiceDiff diff = restarted.watch(revisions(revision), 10000).get(1, TimeUnit.SECONDS).get(SERVICE);
+            assertTrue(diff.isFull());
+            assertEquals(Collections.singletonList(new ServiceInstance("127.0.0.1", 8001)), diff.getAdded());
+        } finally {
+            restarted.shutdown();
+        }
+    }
+
+    @Test
+    public void watchTimesOutWithEmptyResult() throws Exception {
+        registry.register(SERVICE, new ServiceInstance("127.0.0.1", 8001), TTL);
+        long revision = registry.discover(SERVICE).getRevision();
+
+        Map<String, ServiceDiff> diffs = registry.watch(revisions(revision), 50).get(1, TimeUnit.SECONDS);
+        assertTrue(diffs.isEmpty());
+    }
+
+    @Test
+    public void expiredLeaseRemovesInstances() throws Exception {
+        ServiceInstance instance = new ServiceInstance("127.0.0.1", 8001);
+        registry.register(SERVICE, instance, 50);
+        registry.register("com.example.Other", instance, 50);
+        long revision = registry.discover(SERVICE).getRevision();
+
+        ServiceDiff diff = registry.watch(revisions(revision), 10000).get(1, TimeUnit.SECONDS).get(SERVICE);
+        assertEquals(Collections.singletonList(instance), diff.getRemoved());
+        assertTrue(registry.discover("com.example.Other").getAdded().isEmpty());
+        assertFalse(registry.renew(instance.getAddress(), TTL));
+    }
+
+    @Test
+    public void renewKeepsLease() throws Exception {
+        ServiceInstance instance = new ServiceInstance("127.0.0.1", 8001);
+        registry.register(SERVICE, instance, 100);
+        for (int i = 0; i < 5; i++) {
+            Thread.sleep(50);
+            assertTrue(registry.renew(instance.getAddress(), 100));
+        }
+        assertEquals(1, registry.discover(SERVICE).getAdded().size());
+    }
+
+    private static Map<String, Long> revisions(long revision) {
+        Map<String, Long> revisions = new HashMap<>();
+        revisions.put(SERVICE, revision);
+        return revisions;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.minirpc.registry;
+
+import com.example.minirpc.core.registry.ServiceInstance;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class RemoteServiceRegistryTest {
+
+    private static final String SERVICE = "com.example.Hello";
+
+    private static final ServiceInstance A = new ServiceInstance("127.0.0.1", 8001);
+    private static final ServiceInstance B = new ServiceInstance("127.0.0.1", 8002);
+    private static final ServiceInstance C = new ServiceInstance("127.0.0.1", 8003);
+
+    private final List<List<ServiceInstance>> notified = new ArrayList<>();
+
+    @Test
+    public void appliesFullThenIncrementalDiffs() {
+        RemoteServiceRegistry.WatchedService watched = watch();
+        watched.apply(full(10, A, B));
+        assertEquals(Arrays.asList(A, B), last());
+
+        ServiceDiff diff = new ServiceDiff(SERVICE, 10, 12, false);
+        diff.getAdded().add(C);
+        diff.getRemoved().add(A);
+        watched.apply(diff);
+        assertEquals(Arrays.asList(B, C), last());
+    }
+
+    @Test
+    public void ignoresDiffFromOtherBaseRevision() {
+        RemoteServiceRegistry.WatchedService watched = watch();
+        watched.apply(full(10, A));
+        int notifications = notified.size();
+
+        ServiceDiff diff = new ServiceDiff(SERVICE, 11, 12, false);
+        diff.getAdded().add(B);
+        watched.apply(diff);
+        assertEquals(notifications, notified.size());
+
+        // 之后的全量变更不受基础版本限制
+        watched.apply(full(20, B, C));
+        assertEquals(Arrays.asList(B, C), last());
+    }
+
+    @Test
+    public void fullDiffReplacesInstances() {
+        RemoteServiceRegistry.WatchedService watched = watch();
+        watched.apply(full(10, A, B));
+        watched.apply(full(5));
+        assertEquals(Collections.emptyList(), last());
+    }
+
+    @Test
+    public void newListenerReceivesCurrentInstances() {
+        RemoteServiceRegistry.WatchedService watched = new RemoteServiceRegistry.WatchedService(SERVICE);
+        watched.apply(full(10, A));
+        watched.addListener((serviceName, instances) -> notified.add(instances));
+        assertEquals(Collections.singletonList(A), last());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTooShortTtl() {
+        new RemoteServiceRegistry("127.0.0.1:7070", 2);
+    }
+
+    private RemoteServiceRegistry.WatchedService watch() {
+        RemoteServiceRegistry.WatchedService watched = new RemoteServiceRegistry.WatchedService(SERVICE);
+        watched.addListener((serviceName, instances) -> notified.add(instances));
+        return watched;
+    }
+
+    private List<ServiceInstance> last() {
+        return notified.get(notified.size() - 1);
+    }
+
+    private static ServiceDiff full(long revision, ServiceInstance... instances) {
+        ServiceDiff diff = new ServiceDiff(SERVICE, 0, revision, true);
+        diff.getAdded().addAll(Arrays.asList(instances));
+        return diff;
+    }
+}
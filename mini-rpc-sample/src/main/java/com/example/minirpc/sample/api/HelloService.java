@@ -1,5 +1,7 @@
 package com.example.minirpc.sample.api;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * 示例服务接口
  */
@@ -19,4 +21,12 @@ public interface HelloService {
      * @return 服务器时间的字符串表示
      */
     String getServerTime();
+    
+    /**
+     * 异步问候方法，返回CompletableFuture的方法在客户端不会阻塞调用线程
+     *
+     * @param name 名称
+     * @return 问候语的future
+     */
+    CompletableFuture<String> helloAsync(String name);
 }
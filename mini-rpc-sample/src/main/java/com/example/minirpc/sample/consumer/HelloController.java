@@ -9,6 +9,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * RPC服务消费者，通过HTTP接口调用RPC服务
  */
@@ -32,4 +34,10 @@ public class HelloController {
         logger.info("调用RPC服务: getServerTime()");
         return helloService.getServerTime();
     }
+
+    @GetMapping("/say-async/{name}")
+    public CompletableFuture<String> sayHelloAsync(@PathVariable("name") String name) {
+        logger.info("异步调用RPC服务: helloAsync({})", name);
+        return helloService.helloAsync(name);
+    }
 }
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * HelloService接口实现
@@ -29,4 +30,9 @@ public class HelloServiceImpl implements HelloService {
         SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
         return "服务器当前时间: " + formatter.format(new Date());
     }
+    
+    @Override
+    public CompletableFuture<String> helloAsync(String name) {
+        return CompletableFuture.supplyAsync(() -> hello(name));
+    }
 }
@@ -4,14 +4,19 @@ import com.example.minirpc.core.annotation.RpcReference;
 import com.example.minirpc.core.annotation.RpcService;
 import com.example.minirpc.core.client.NettyRpcClient;
 import com.example.minirpc.core.client.RpcClient;
+import com.example.minirpc.core.client.RpcClientConfig;
 import com.example.minirpc.core.client.RpcClientProxy;
+import com.example.minirpc.core.limit.RateLimitRule;
 import com.example.minirpc.core.registry.DirectServiceRegistry;
 import com.example.minirpc.core.registry.LocalServiceRegistry;
 import com.example.minirpc.core.registry.ServiceRegistry;
-import com.example.minirpc.core.serialize.JsonSerializer;
 import com.example.minirpc.core.serialize.Serializer;
+import com.example.minirpc.core.serialize.SerializerRegistry;
+import com.example.minirpc.core.server.BusinessExecutors;
 import com.example.minirpc.core.server.NettyRpcServer;
 import com.example.minirpc.core.server.RpcServer;
+import com.example.minirpc.core.server.RpcServerConfig;
+import com.example.minirpc.registry.RemoteServiceRegistry;
 import com.example.minirpc.starter.properties.MiniRpcProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,10 +33,12 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Field;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Mini RPC框架自动配置类
@@ -44,8 +51,9 @@ public class MiniRpcAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean
-    public Serializer serializer() {
-        return new JsonSerializer();
+    public Serializer serializer(MiniRpcProperties properties) {
+        logger.info("使用序列化方式: {}", properties.getSerializer());
+        return SerializerRegistry.load(properties.getSerializer());
     }
 
     @Bean
@@ -56,6 +64,15 @@ public class MiniRpcAutoConfiguration {
             logger.info("使用直连服务注册表, 地址: {}", properties.getDirectAddress());
             return new DirectServiceRegistry(properties.getDirectAddress());
         }
+        // 配置了远程注册中心时，通过RegistryServer注册和发现服务
+        MiniRpcProperties.Registry registry = properties.getRegistry();
+        if ("remote".equalsIgnoreCase(registry.getType())) {
+            if (registry.getAddress() == null || registry.getAddress().isEmpty()) {
+                throw new IllegalStateException("mini.rpc.registry.type为remote时必须配置mini.rpc.registry.address");
+            }
+            logger.info("使用远程注册中心, 地址: {}", registry.getAddress());
+            return new RemoteServiceRegistry(registry.getAddress(), registry.getLeaseTtl());
+        }
         // 否则使用本地内存注册表
         logger.info("使用本地内存服务注册表");
         return new LocalServiceRegistry();
@@ -76,9 +93,50 @@ public class MiniRpcAutoConfiguration {
         @Bean
         @ConditionalOnMissingBean
         public RpcServer rpcServer(ServiceRegistry serviceRegistry, Serializer serializer) {
-            String host = properties.getServer().getHost();
-            int port = properties.getServer().getPort();
-            return new NettyRpcServer(host, port, serviceRegistry, serializer);
+            MiniRpcProperties.Server server = properties.getServer();
+            RpcServerConfig config = new RpcServerConfig();
+            config.setWeight(server.getWeight());
+            config.setZone(server.getZone());
+            config.setVersion(server.getVersion());
+            config.setCompressionEnabled(server.isCompressionEnabled());
+            config.setCompressThreshold(server.getCompressThreshold());
+            config.setMaxFlushBatch(server.getMaxFlushBatch());
+            config.setIdleTimeout(server.getIdleTimeout());
+            config.setConcurrencyLimitEnabled(server.isConcurrencyLimitEnabled());
+            config.setInitialConcurrencyLimit(server.getInitialConcurrencyLimit());
+            config.setMinConcurrencyLimit(server.getMinConcurrencyLimit());
+            config.setMaxConcurrencyLimit(server.getMaxConcurrencyLimit());
+            config.setMaxFrameLength(server.getMaxFrameLength());
+            config.setMaxInflightPerConnection(server.getMaxInflightPerConnection());
+            config.setAcceptThreads(server.getAcceptThreads());
+            config.setIoThreads(server.getIoThreads());
+            config.setSocket(properties.getSocket());
+            NettyRpcServer rpcServer = new NettyRpcServer(server.getHost(), server.getPort(), serviceRegistry,
+                    serializer, businessExecutor(), config);
+            server.getRateLimits().forEach((key, rule) -> {
+                int index = key.indexOf('#');
+                if (index < 0) {
+                    rpcServer.setRateLimit(key, null, rule);
+                } else {
+                    rpcServer.setRateLimit(key.substring(0, index), key.substring(index + 1), rule);
+                }
+            });
+            return rpcServer;
+        }
+
+        /**
+         * 创建业务线程池，优先使用虚拟线程（如果已启用且JDK支持）
+         */
+        private ExecutorService businessExecutor() {
+            MiniRpcProperties.Executor executor = properties.getServer().getExecutor();
+            if (executor.isVirtualThreads()) {
+                if (BusinessExecutors.isVirtualThreadSupported()) {
+                    return BusinessExecutors.newVirtualThreadPerTaskExecutor();
+                }
+                logger.warn("当前JDK不支持虚拟线程，回退到普通业务线程池");
+            }
+            return BusinessExecutors.newThreadPool(executor.getCoreThreads(), executor.getMaxThreads(),
+                    executor.getQueueCapacity(), executor.getKeepAlive());
         }
 
         /**
@@ -86,7 +144,7 @@ public class MiniRpcAutoConfiguration {
          */
         @Bean
         public RpcServiceBeanPostProcessor rpcServiceBeanPostProcessor(RpcServer rpcServer) {
-            return new RpcServiceBeanPostProcessor(rpcServer);
+            return new RpcServiceBeanPostProcessor(rpcServer, properties.getServer().getRateLimits());
         }
 
         /**
@@ -96,9 +154,13 @@ public class MiniRpcAutoConfiguration {
             private static final Logger logger = LoggerFactory.getLogger(RpcServiceBeanPostProcessor.class);
             private ApplicationContext context;
             private final RpcServer rpcServer;
+            
+            // 配置文件中的限流规则，优先于注解
+            private final Map<String, RateLimitRule> configuredRateLimits;
 
-            public RpcServiceBeanPostProcessor(RpcServer rpcServer) {
+            public RpcServiceBeanPostProcessor(RpcServer rpcServer, Map<String, RateLimitRule> configuredRateLimits) {
                 this.rpcServer = rpcServer;
+                this.configuredRateLimits = configuredRateLimits;
             }
 
             @Override
@@ -134,7 +196,11 @@ public class MiniRpcAutoConfiguration {
                     
                     // 注册RPC服务
                     logger.info("注册RPC服务: {}", serviceName);
-                    rpcServer.registerService(serviceName, bean);
+                    rpcServer.registerService(serviceName, bean, annotation.serializer());
+                    if (annotation.rateLimit() > 0 && !configuredRateLimits.containsKey(serviceName)) {
+                        rpcServer.setRateLimit(serviceName, null, new RateLimitRule(annotation.rateLimit(),
+                                annotation.rateLimitBurst(), annotation.rateLimitPerCaller()));
+                    }
                 }
                 return bean;
             }
@@ -184,8 +250,32 @@ public class MiniRpcAutoConfiguration {
         
         @Bean
         @ConditionalOnMissingBean
-        public RpcClient rpcClient(ServiceRegistry serviceRegistry, Serializer serializer) {
-            return new NettyRpcClient(serviceRegistry, serializer);
+        public RpcClient rpcClient(ServiceRegistry serviceRegistry, Serializer serializer,
+                                   MiniRpcProperties properties, Environment environment) {
+            MiniRpcProperties.Client client = properties.getClient();
+            RpcClientConfig config = new RpcClientConfig();
+            config.setTimeout(client.getTimeout());
+            config.setConnectTimeout(client.getConnectTimeout());
+            config.setConnectionsPerAddress(client.getConnectionsPerAddress());
+            config.setChannelSelectStrategy(client.getChannelSelectStrategy());
+            config.setLoadBalancer(client.getLoadBalancer());
+            config.setCompression(client.getCompression());
+            config.setCompressThreshold(client.getCompressThreshold());
+            config.setMaxFlushBatch(client.getMaxFlushBatch());
+            config.setHeartbeatInterval(client.getHeartbeatInterval());
+            config.setHeartbeatTimeout(client.getHeartbeatTimeout());
+            config.setApplication(client.getApplication() != null
+                    ? client.getApplication() : environment.getProperty("spring.application.name"));
+            config.setMaxFrameLength(client.getMaxFrameLength());
+            config.setMaxInflightPerConnection(client.getMaxInflightPerConnection());
+            config.setResultCacheEnabled(client.isResultCacheEnabled());
+            config.setBatchEnabled(client.isBatchEnabled());
+            config.setMaxBatchSize(client.getMaxBatchSize());
+            config.setBatchWindowMicros(client.getBatchWindowMicros());
+            config.setStreamWindow(client.getStreamWindow());
+            config.setIoThreads(client.getIoThreads());
+            config.setSocket(properties.getSocket());
+            return new NettyRpcClient(serviceRegistry, serializer, config);
         }
 
         /**
@@ -227,8 +317,9 @@ public class MiniRpcAutoConfiguration {
                         // 获取服务版本
                         String version = annotation.version();
                         
-                        // 创建代理对象
-                        RpcClientProxy proxy = new RpcClientProxy(rpcClient, version);
+                        // 创建代理对象，超时时间为0时使用客户端默认超时时间，coalesce为true时合并相同的并发调用
+                        RpcClientProxy proxy = new RpcClientProxy(rpcClient, version,
+                                annotation.timeout(), annotation.serializer(), annotation.coalesce());
                         Object proxyInstance = proxy.create(fieldType);
                         
                         // 注入代理对象
@@ -1,7 +1,14 @@
 package com.example.minirpc.starter.properties;
 
+import com.example.minirpc.core.client.ChannelSelectStrategy;
+import com.example.minirpc.core.limit.RateLimitRule;
+import com.example.minirpc.core.protocol.RpcProtocol;
+import com.example.minirpc.core.transport.SocketOptions;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Mini RPC框架配置属性
  */
@@ -19,15 +26,25 @@ public class MiniRpcProperties {
     private boolean clientEnable = false;
 
     /**
-     * 直连地址，格式为 host:port
+     * 直连地址，格式为 host:port，多个地址用逗号分隔
      * 当设置此项时，将使用直连方式而不是服务发现
      */
     private String directAddress;
+
+    /**
+     * 默认序列化方式：json 或 kryo
+     */
+    private String serializer = "json";
     
     /**
      * 服务注册与发现配置
      */
     private Registry registry = new Registry();
+
+    /**
+     * 传输层与套接字调优配置，服务端和客户端共用
+     */
+    private SocketOptions socket = new SocketOptions();
     
     /**
      * 服务端配置
@@ -44,10 +61,20 @@ public class MiniRpcProperties {
      */
     public static class Registry {
         /**
-         * 注册中心类型，默认为local
+         * 注册中心类型，默认为local，可选remote
          */
         private String type = "local";
 
+        /**
+         * 注册中心地址，格式为 host:port，type为remote时必填
+         */
+        private String address;
+
+        /**
+         * 服务实例的租约有效期，单位毫秒，默认为15000
+         */
+        private long leaseTtl = 15000;
+
         public String getType() {
             return type;
         }
@@ -55,6 +82,22 @@ public class MiniRpcProperties {
         public void setType(String type) {
             this.type = type;
         }
+
+        public String getAddress() {
+            return address;
+        }
+
+        public void setAddress(String address) {
+            this.address = address;
+        }
+
+        public long getLeaseTtl() {
+            return leaseTtl;
+        }
+
+        public void setLeaseTtl(long leaseTtl) {
+            this.leaseTtl = leaseTtl;
+        }
     }
     
     /**
@@ -71,6 +114,91 @@ public class MiniRpcProperties {
          */
         private int port = 8088;
 
+        /**
+         * 注册到注册中心的实例权重
+         */
+        private int weight = 100;
+
+        /**
+         * 实例所在可用区
+         */
+        private String zone;
+
+        /**
+         * 实例版本（如发布版本）
+         */
+        private String version;
+
+        /**
+         * 业务线程池配置
+         */
+        private Executor executor = new Executor();
+
+        /**
+         * 是否接受客户端协商的消息体压缩
+         */
+        private boolean compressionEnabled = true;
+
+        /**
+         * 响应消息体压缩阈值，单位字节
+         */
+        private int compressThreshold = 2048;
+
+        /**
+         * 一次合并的最大flush次数，为0时不合并
+         */
+        private int maxFlushBatch = 256;
+
+        /**
+         * 连接上没有收到任何数据的最长时间，超过后关闭连接，单位毫秒，为0时不检测
+         */
+        private long idleTimeout = 60000;
+
+        /**
+         * 是否按服务方法自适应限制并发，默认关闭
+         */
+        private boolean concurrencyLimitEnabled = false;
+
+        /**
+         * 每个服务方法的初始并发上限
+         */
+        private int initialConcurrencyLimit = 50;
+
+        /**
+         * 每个服务方法的最小并发上限
+         */
+        private int minConcurrencyLimit = 10;
+
+        /**
+         * 每个服务方法的最大并发上限
+         */
+        private int maxConcurrencyLimit = 1000;
+
+        /**
+         * 限流规则，键为服务名称（服务级）或 服务名称#方法名称（方法级），覆盖@RpcService上的限流配置
+         */
+        private Map<String, RateLimitRule> rateLimits = new LinkedHashMap<>();
+
+        /**
+         * 最大帧长度（包含消息头），单位字节
+         */
+        private int maxFrameLength = RpcProtocol.DEFAULT_MAX_FRAME_LENGTH;
+
+        /**
+         * 单个连接上已分发但还未写回响应的最大请求数，达到后暂停读取该连接
+         */
+        private int maxInflightPerConnection = 1024;
+
+        /**
+         * 接受连接的线程数，大于1时需要epoll传输并开启socket.reuse-port
+         */
+        private int acceptThreads = 1;
+
+        /**
+         * I/O线程数，为0时使用Netty默认值（CPU核数的2倍）
+         */
+        private int ioThreads = 0;
+
         public String getHost() {
             return host;
         }
@@ -86,6 +214,212 @@ public class MiniRpcProperties {
         public void setPort(int port) {
             this.port = port;
         }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+
+        public String getZone() {
+            return zone;
+        }
+
+        public void setZone(String zone) {
+            this.zone = zone;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public void setVersion(String version) {
+            this.version = version;
+        }
+
+        public Executor getExecutor() {
+            return executor;
+        }
+
+        public void setExecutor(Executor executor) {
+            this.executor = executor;
+        }
+
+        public boolean isCompressionEnabled() {
+            return compressionEnabled;
+        }
+
+        public void setCompressionEnabled(boolean compressionEnabled) {
+            this.compressionEnabled = compressionEnabled;
+        }
+
+        public int getCompressThreshold() {
+            return compressThreshold;
+        }
+
+        public void setCompressThreshold(int compressThreshold) {
+            this.compressThreshold = compressThreshold;
+        }
+
+        public int getMaxFlushBatch() {
+            return maxFlushBatch;
+        }
+
+        public void setMaxFlushBatch(int maxFlushBatch) {
+            this.maxFlushBatch = maxFlushBatch;
+        }
+
+        public long getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(long idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public boolean isConcurrencyLimitEnabled() {
+            return concurrencyLimitEnabled;
+        }
+
+        public void setConcurrencyLimitEnabled(boolean concurrencyLimitEnabled) {
+            this.concurrencyLimitEnabled = concurrencyLimitEnabled;
+        }
+
+        public int getInitialConcurrencyLimit() {
+            return initialConcurrencyLimit;
+        }
+
+        public void setInitialConcurrencyLimit(int initialConcurrencyLimit) {
+            this.initialConcurrencyLimit = initialConcurrencyLimit;
+        }
+
+        public int getMinConcurrencyLimit() {
+            return minConcurrencyLimit;
+        }
+
+        public void setMinConcurrencyLimit(int minConcurrencyLimit) {
+            this.minConcurrencyLimit = minConcurrencyLimit;
+        }
+
+        public int getMaxConcurrencyLimit() {
+            return maxConcurrencyLimit;
+        }
+
+        public void setMaxConcurrencyLimit(int maxConcurrencyLimit) {
+            this.maxConcurrencyLimit = maxConcurrencyLimit;
+        }
+
+        public Map<String, RateLimitRule> getRateLimits() {
+            return rateLimits;
+        }
+
+        public void setRateLimits(Map<String, RateLimitRule> rateLimits) {
+            this.rateLimits = rateLimits;
+        }
+
+        public int getMaxFrameLength() {
+            return maxFrameLength;
+        }
+
+        public void setMaxFrameLength(int maxFrameLength) {
+            this.maxFrameLength = maxFrameLength;
+        }
+
+        public int getMaxInflightPerConnection() {
+            return maxInflightPerConnection;
+        }
+
+        public void setMaxInflightPerConnection(int maxInflightPerConnection) {
+            this.maxInflightPerConnection = maxInflightPerConnection;
+        }
+
+        public int getAcceptThreads() {
+            return acceptThreads;
+        }
+
+        public void setAcceptThreads(int acceptThreads) {
+            this.acceptThreads = acceptThreads;
+        }
+
+        public int getIoThreads() {
+            return ioThreads;
+        }
+
+        public void setIoThreads(int ioThreads) {
+            this.ioThreads = ioThreads;
+        }
+    }
+
+    /**
+     * 服务端业务线程池配置
+     */
+    public static class Executor {
+        /**
+         * 核心线程数，默认为CPU核数的2倍
+         */
+        private int coreThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+        /**
+         * 最大线程数，默认与核心线程数相同
+         */
+        private int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+        /**
+         * 等待队列容量，队列满时返回"服务器繁忙"响应
+         */
+        private int queueCapacity = 1024;
+
+        /**
+         * 非核心线程空闲存活时间，单位毫秒
+         */
+        private long keepAlive = 60000;
+
+        /**
+         * 是否为每个请求使用一个虚拟线程，需要JDK 21及以上版本
+         */
+        private boolean virtualThreads = false;
+
+        public int getCoreThreads() {
+            return coreThreads;
+        }
+
+        public void setCoreThreads(int coreThreads) {
+            this.coreThreads = coreThreads;
+        }
+
+        public int getMaxThreads() {
+            return maxThreads;
+        }
+
+        public void setMaxThreads(int maxThreads) {
+            this.maxThreads = maxThreads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(long keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
     }
     
     /**
@@ -97,6 +431,96 @@ public class MiniRpcProperties {
          */
         private long timeout = 5000;
 
+        /**
+         * 建立连接的超时时间，单位毫秒
+         */
+        private int connectTimeout = 5000;
+
+        /**
+         * 每个服务提供方地址的连接数
+         */
+        private int connectionsPerAddress = 1;
+
+        /**
+         * 连接选择策略：round-robin（轮询）或 least-pending（最少未完成请求）
+         */
+        private ChannelSelectStrategy channelSelectStrategy = ChannelSelectStrategy.ROUND_ROBIN;
+
+        /**
+         * 负载均衡策略：round-robin、weighted-random、least-active 或 p2c-ewma
+         */
+        private String loadBalancer = "round-robin";
+
+        /**
+         * 消息体压缩方式：none、gzip、snappy 或 lz4
+         */
+        private String compression = "none";
+
+        /**
+         * 请求消息体压缩阈值，单位字节
+         */
+        private int compressThreshold = 2048;
+
+        /**
+         * 一次合并的最大flush次数，为0时不合并
+         */
+        private int maxFlushBatch = 256;
+
+        /**
+         * 连接上没有读到数据时发送心跳的间隔，单位毫秒，为0时不发送心跳
+         */
+        private long heartbeatInterval = 10000;
+
+        /**
+         * 连接上没有收到任何数据的最长时间，超过后判定连接失效，单位毫秒，为0时不检测
+         */
+        private long heartbeatTimeout = 30000;
+
+        /**
+         * 调用方标识，随请求发送给服务端用于按调用方限流，默认使用spring.application.name
+         */
+        private String application;
+
+        /**
+         * 最大帧长度（包含消息头），单位字节
+         */
+        private int maxFrameLength = RpcProtocol.DEFAULT_MAX_FRAME_LENGTH;
+
+        /**
+         * 单个连接上未完成的最大请求数，达到后新的请求立即失败
+         */
+        private int maxInflightPerConnection = 4096;
+
+        /**
+         * 是否启用@RpcCacheable方法的调用结果缓存
+         */
+        private boolean resultCacheEnabled = true;
+
+        /**
+         * 是否把发往同一连接的请求合并为批量帧发送，需要服务端支持批量帧
+         */
+        private boolean batchEnabled = false;
+
+        /**
+         * 一个批量帧中的最大请求数
+         */
+        private int maxBatchSize = 32;
+
+        /**
+         * 第一个请求等待后续请求一起发送的最长时间，单位微秒
+         */
+        private long batchWindowMicros = 100;
+
+        /**
+         * 流式调用的信用窗口，即服务端最多可以提前发送、客户端最多缓冲的元素数
+         */
+        private int streamWindow = 64;
+
+        /**
+         * I/O线程数，为0时使用Netty默认值（CPU核数的2倍）
+         */
+        private int ioThreads = 0;
+
         public long getTimeout() {
             return timeout;
         }
@@ -104,6 +528,150 @@ public class MiniRpcProperties {
         public void setTimeout(long timeout) {
             this.timeout = timeout;
         }
+
+        public int getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(int connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public int getConnectionsPerAddress() {
+            return connectionsPerAddress;
+        }
+
+        public void setConnectionsPerAddress(int connectionsPerAddress) {
+            this.connectionsPerAddress = connectionsPerAddress;
+        }
+
+        public ChannelSelectStrategy getChannelSelectStrategy() {
+            return channelSelectStrategy;
+        }
+
+        public void setChannelSelectStrategy(ChannelSelectStrategy channelSelectStrategy) {
+            this.channelSelectStrategy = channelSelectStrategy;
+        }
+
+        public String getLoadBalancer() {
+            return loadBalancer;
+        }
+
+        public void setLoadBalancer(String loadBalancer) {
+            this.loadBalancer = loadBalancer;
+        }
+
+        public String getCompression() {
+            return compression;
+        }
+
+        public void setCompression(String compression) {
+            this.compression = compression;
+        }
+
+        public int getCompressThreshold() {
+            return compressThreshold;
+        }
+
+        public void setCompressThreshold(int compressThreshold) {
+            this.compressThreshold = compressThreshold;
+        }
+
+        public int getMaxFlushBatch() {
+            return maxFlushBatch;
+        }
+
+        public void setMaxFlushBatch(int maxFlushBatch) {
+            this.maxFlushBatch = maxFlushBatch;
+        }
+
+        public long getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+
+        public void setHeartbeatInterval(long heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+
+        public long getHeartbeatTimeout() {
+            return heartbeatTimeout;
+        }
+
+        public void setHeartbeatTimeout(long heartbeatTimeout) {
+            this.heartbeatTimeout = heartbeatTimeout;
+        }
+
+        public String getApplication() {
+            return application;
+        }
+
+        public void setApplication(String application) {
+            this.application = application;
+        }
+
+        public int getMaxFrameLength() {
+            return maxFrameLength;
+        }
+
+        public void setMaxFrameLength(int maxFrameLength) {
+            this.maxFrameLength = maxFrameLength;
+        }
+
+        public int getMaxInflightPerConnection() {
+            return maxInflightPerConnection;
+        }
+
+        public void setMaxInflightPerConnection(int maxInflightPerConnection) {
+            this.maxInflightPerConnection = maxInflightPerConnection;
+        }
+
+        public boolean isResultCacheEnabled() {
+            return resultCacheEnabled;
+        }
+
+        public void setResultCacheEnabled(boolean resultCacheEnabled) {
+            this.resultCacheEnabled = resultCacheEnabled;
+        }
+
+        public boolean isBatchEnabled() {
+            return batchEnabled;
+        }
+
+        public void setBatchEnabled(boolean batchEnabled) {
+            this.batchEnabled = batchEnabled;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public long getBatchWindowMicros() {
+            return batchWindowMicros;
+        }
+
+        public void setBatchWindowMicros(long batchWindowMicros) {
+            this.batchWindowMicros = batchWindowMicros;
+        }
+
+        public int getStreamWindow() {
+            return streamWindow;
+        }
+
+        public void setStreamWindow(int streamWindow) {
+            this.streamWindow = streamWindow;
+        }
+
+        public int getIoThreads() {
+            return ioThreads;
+        }
+
+        public void setIoThreads(int ioThreads) {
+            this.ioThreads = ioThreads;
+        }
     }
 
     public boolean isServerEnable() {
@@ -130,6 +698,14 @@ public class MiniRpcProperties {
         this.directAddress = directAddress;
     }
 
+    public String getSerializer() {
+        return serializer;
+    }
+
+    public void setSerializer(String serializer) {
+        this.serializer = serializer;
+    }
+
     public Registry getRegistry() {
         return registry;
     }
@@ -138,6 +714,14 @@ public class MiniRpcProperties {
         this.registry = registry;
     }
 
+    public SocketOptions getSocket() {
+        return socket;
+    }
+
+    public void setSocket(SocketOptions socket) {
+        this.socket = socket;
+    }
+
     public Server getServer() {
         return server;
     }